@@ -19,9 +19,8 @@ public class TasBackendApplication {
 
     @Bean
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        // Buffer request bodies so multiparts include Content-Length (Django rejects chunked uploads)
+        // Streams bodies; callers set Content-Length so uploads go out fixed-length (Django rejects chunked)
         SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setBufferRequestBody(true);
 
         return builder
                 .requestFactory(() -> factory)
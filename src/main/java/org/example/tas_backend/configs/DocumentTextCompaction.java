@@ -0,0 +1,96 @@
+package org.example.tas_backend.configs;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.services.DocumentTextService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Background one-off job for OCR text storage, run in small chunks on its own thread with a pause
+ * between chunks, so it never holds up startup or the pool:
+ * <ol>
+ *   <li>moves legacy {@code document.raw_text} into {@code document_text} (DocumentTextMigration);</li>
+ *   <li>rewrites rows still stored as plain {@code text} into {@code content_zip};</li>
+ *   <li>clears the full-text copies older revisions left in {@code document_aud.raw_text}
+ *       ({@code documents.text-compaction.prune-audit}).</li>
+ * </ol>
+ * Every chunk commits on its own and marks its rows done, so an interrupted run resumes on the
+ * next start. A failing chunk is retried with backoff; once attempts run out the job stops with
+ * an error and leaves the later stages for the next start.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentTextCompaction implements ApplicationRunner {
+
+    private final DocumentTextMigration migration;
+    private final DocumentTextService documentTextService;
+
+    @Value("${documents.text-compaction.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${documents.text-compaction.pause-ms:200}")
+    private long pauseMs;
+
+    @Value("${documents.text-compaction.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${documents.text-compaction.enabled:true}")
+    private boolean enabled;
+
+    @Value("${documents.text-compaction.prune-audit:true}")
+    private boolean pruneAudit;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        Thread.ofPlatform().daemon().name("document-text-compaction").start(this::compactAll);
+    }
+
+    void compactAll() {
+        try {
+            if (migration.hasLegacyColumn()
+                    && !drain("Moving legacy OCR text into document_text", migration::migrateChunk)) return;
+            if (!drain("Compressing OCR text", () -> documentTextService.compactChunk(chunkSize))) return;
+            if (pruneAudit && migration.hasLegacyAuditColumn()) {
+                drain("Clearing OCR text from document_aud", migration::pruneAuditChunk);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("OCR text maintenance failed", e);
+        }
+    }
+
+    /** Runs {@code chunk} until it returns 0; false when a chunk kept failing. */
+    private boolean drain(String stage, IntSupplier chunk) throws InterruptedException {
+        int total = 0;
+        int failures = 0;
+        while (true) {
+            int n;
+            try {
+                n = chunk.getAsInt();
+            } catch (RuntimeException e) {
+                if (++failures >= maxAttempts) {
+                    log.error("{} stopped after {} rows and {} failed attempts; it resumes on the next start",
+                            stage, total, failures, e);
+                    return false;
+                }
+                log.warn("{}: chunk failed (attempt {}/{}), retrying: {}", stage, failures, maxAttempts, e.getMessage());
+                Thread.sleep(pauseMs << failures);
+                continue;
+            }
+            failures = 0;
+            if (n == 0) break;
+            total += n;
+            Thread.sleep(pauseMs);
+        }
+        if (total > 0) log.info("{}: {} rows done", stage, total);
+        return true;
+    }
+}
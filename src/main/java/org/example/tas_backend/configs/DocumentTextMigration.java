@@ -0,0 +1,84 @@
+package org.example.tas_backend.configs;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.example.tas_backend.services.DocumentTextService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One-off move of {@code document.raw_text} (dropped from the entity) into {@code document_text}.
+ * {@code ddl-auto=update} never drops the old column, so on upgraded databases it still holds the
+ * text. Driven chunk by chunk by DocumentTextCompaction's background thread; each chunk copies
+ * the text and nulls the old value in one transaction, so the job resumes where it stopped.
+ * Copies land as plain text and are compressed afterwards.
+ * <p>
+ * Historic {@code document_aud} revisions keep the same column with a full copy of the text per
+ * revision; {@link #pruneAuditChunk()} nulls it. The current text lives on in document_text,
+ * and the audit trail keeps the preview/length columns and modified flags.
+ */
+@Component
+@RequiredArgsConstructor
+public class DocumentTextMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${documents.text-migration.chunk-size:200}")
+    private int chunkSize;
+
+    /** True on databases upgraded from before document_text, where the old column still exists. */
+    public boolean hasLegacyColumn() {
+        return hasRawText("document");
+    }
+
+    /** True when document_aud still has the raw_text column written by older revisions. */
+    public boolean hasLegacyAuditColumn() {
+        return hasRawText("document_aud");
+    }
+
+    private boolean hasRawText(String table) {
+        Integer legacy = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.columns "
+                        + "where lower(table_name) = ? and lower(column_name) = 'raw_text'",
+                Integer.class, table);
+        return legacy != null && legacy > 0;
+    }
+
+    /** Moves the next chunk of legacy text; returns how many documents were moved (0 when done). */
+    @Transactional
+    public int migrateChunk() {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "select id from document where raw_text is not null order by id limit ?",
+                Long.class, chunkSize);
+        if (ids.isEmpty()) return 0;
+
+        String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+        List<Object> params = new ArrayList<>();
+        params.add(OffsetDateTime.now());
+        params.addAll(ids);
+        jdbcTemplate.update("insert into document_text (document_id, text, char_count, created_at) "
+                + "select id, raw_text, length(raw_text), ? from document where id in (" + in + ") "
+                + "on conflict do nothing", params.toArray());
+        jdbcTemplate.update("update document set text_preview = substring(raw_text from 1 for "
+                + DocumentTextService.PREVIEW_CHARS + "), text_length = length(raw_text), raw_text = null "
+                + "where id in (" + in + ")", ids.toArray());
+        return ids.size();
+    }
+
+    /** Nulls raw_text on the next chunk of audit revisions; returns how many were cleared (0 when done). */
+    @Transactional
+    public int pruneAuditChunk() {
+        List<Object[]> keys = jdbcTemplate.query(
+                "select id, rev from document_aud where raw_text is not null order by rev, id limit ?",
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getInt(2)}, chunkSize);
+        if (keys.isEmpty()) return 0;
+        jdbcTemplate.batchUpdate("update document_aud set raw_text = null where id = ? and rev = ?", keys);
+        return keys.size();
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.tas_backend.configs;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * ExtractedSubject and SubjectMapping moved from IDENTITY columns to pooled sequences
+ * (increment 50). On an existing PostgreSQL database {@code ddl-auto=update} creates those
+ * sequences starting at 1, below ids already handed out by the identity columns, so each
+ * sequence is moved past {@code max(id)} of its table before the first insert.
+ * <p>
+ * Runs as the bean is initialised: after the schema update (it depends on the entity manager
+ * factory) but before the web server, ApplicationRunners and scheduled jobs can insert. If a
+ * sequence cannot be aligned, startup fails rather than risk primary-key collisions.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdSequenceInitializer implements InitializingBean {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    // sequence -> table
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "extracted_subject_seq", "extracted_subject",
+            "subject_mapping_seq", "subject_mapping");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) return;
+
+        SEQUENCES.forEach((sequence, table) -> {
+            try {
+                // pooled optimizer: the next nextval() hands out (value - 49 .. value], so that range
+                // must start above max(id)
+                Long value = jdbcTemplate.queryForObject(
+                        "select setval('" + sequence + "', greatest((select coalesce(max(id), 0) from " + table + ") + "
+                                + ALLOCATION_SIZE + ", (select last_value from " + sequence + ")))",
+                        Long.class);
+                log.debug("Sequence {} aligned with {} (last_value={})", sequence, table, value);
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Unable to align sequence " + sequence + " with table " + table, e);
+            }
+        });
+    }
+}
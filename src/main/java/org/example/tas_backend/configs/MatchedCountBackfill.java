@@ -0,0 +1,27 @@
+package org.example.tas_backend.configs;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.repos.ApplicationRepo;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills {@code application.matched_count} for applications created before the column existed
+ * ({@code ddl-auto=update} adds it as 0 everywhere). Runs as the bean is initialised, after the
+ * schema update and before any ApplicationRunner, scheduled job or web request reads the counter,
+ * as one set-based UPDATE; afterwards it matches no rows.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MatchedCountBackfill implements InitializingBean {
+
+    private final ApplicationRepo applicationRepo;
+
+    @Override
+    public void afterPropertiesSet() {
+        int filled = applicationRepo.backfillMatchedCounts();
+        if (filled > 0) log.info("Backfilled matchedCount on {} applications", filled);
+    }
+}
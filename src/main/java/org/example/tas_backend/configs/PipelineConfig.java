@@ -0,0 +1,107 @@
+package org.example.tas_backend.configs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Worker pools for the post-submit pipeline (OCR -> matching -> acceptance).
+ * Bounded threads so intake peaks cannot exhaust Hikari or the AI backend; the number of
+ * queued submissions is bounded by {@link org.example.tas_backend.services.SubmissionPipeline},
+ * which turns new submissions away with 503 before anything is persisted.
+ */
+@Configuration
+@EnableScheduling
+public class PipelineConfig {
+
+    @Bean(name = "submissionExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor submissionExecutor(
+            @Value("${pipeline.workers:4}") int workers
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        // unbounded here: SubmissionPipeline admits at most workers + queue-capacity submissions,
+        // so the pipeline never runs on (or is rejected back to) a request thread
+        executor.setThreadNamePrefix("submit-pipeline-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Shared by every running pipeline, so {@code ai.ocr-max-concurrency} is a global cap on
+     * in-flight OCR requests. Excess documents wait in the queue rather than hitting the OCR backend.
+     */
+    @Bean(name = "ocrExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor ocrExecutor(
+            @Value("${ai.ocr-max-concurrency:4}") int maxConcurrency
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setThreadNamePrefix("ocr-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single worker for acceptance re-evaluation jobs, so at most one runs at a time. Not awaited on
+     * shutdown: an interrupted job stays RUNNING and resumes from its last committed chunk.
+     */
+    @Bean(name = "reevaluationExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor reevaluationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("reevaluation-");
+        executor.initialize();
+        return executor;
+    }
+
+    /** Delivers student status notices after bulk decisions, one batch per task, off the request thread. */
+    @Bean(name = "notificationExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor notificationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("notify-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    /** Flushes coalesced matcher batches; the pool size bounds concurrent /match/ calls. */
+    @Bean(name = "matcherBatchScheduler", destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler matcherBatchScheduler(
+            @Value("${matcher.batch.max-in-flight:2}") int maxInFlight
+    ) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(maxInFlight);
+        scheduler.setThreadNamePrefix("matcher-batch-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    /**
+     * Runs {@code @Scheduled} maintenance jobs. Named {@code taskScheduler} so Spring picks it over
+     * the matcher and STOMP broker schedulers, which are sized for their own work.
+     */
+    @Bean(name = "taskScheduler", destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("maintenance-");
+        scheduler.initialize();
+        return scheduler;
+    }
+}
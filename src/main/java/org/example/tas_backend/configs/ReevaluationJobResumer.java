@@ -0,0 +1,23 @@
+package org.example.tas_backend.configs;
+
+import lombok.RequiredArgsConstructor;
+import org.example.tas_backend.services.ReevaluationJobService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-submits a re-evaluation job that was still RUNNING when the previous instance stopped; it
+ * continues from its committed keyset cursor.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReevaluationJobResumer implements ApplicationRunner {
+
+    private final ReevaluationJobService jobService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jobService.resumeRunning();
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.tas_backend.configs;
+
+import lombok.RequiredArgsConstructor;
+import org.example.tas_backend.services.SubmissionPipeline;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-queues submissions whose pipeline was still queued or running when the previous instance
+ * stopped; each continues from the stage recorded on its application.
+ */
+@Component
+@RequiredArgsConstructor
+public class SubmissionPipelineResumer implements ApplicationRunner {
+
+    private final SubmissionPipeline pipeline;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        pipeline.resumeUnfinished();
+    }
+}
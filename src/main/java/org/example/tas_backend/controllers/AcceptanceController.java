@@ -1,9 +1,15 @@
 package org.example.tas_backend.controllers;
 
 import lombok.RequiredArgsConstructor;
+import org.example.tas_backend.dtos.ReevaluationJobDTO;
+import org.example.tas_backend.dtos.ThresholdSimulationDTO;
 import org.example.tas_backend.entities.AcceptanceRule;
 import org.example.tas_backend.services.AcceptanceService;
+import org.example.tas_backend.services.AcceptanceSimulationService;
+import org.example.tas_backend.services.ReevaluationJobService;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/admin/acceptance")
@@ -11,15 +17,38 @@ import org.springframework.web.bind.annotation.*;
 public class AcceptanceController {
 
     private final AcceptanceService acceptanceService;
+    private final AcceptanceSimulationService simulationService;
+    private final ReevaluationJobService jobService;
 
     @GetMapping
     public AcceptanceRule getRule() {
         return acceptanceService.getRule();
     }
 
+    /** Saves the threshold and starts a background re-evaluation; progress is pushed on /topic/admin/reevaluation. */
     @PostMapping
     public AcceptanceRule update(@RequestBody AcceptanceRule body) {
         int threshold = body.getThresholdCount();
-        return acceptanceService.updateThreshold(threshold);
+        AcceptanceRule rule = acceptanceService.updateThreshold(threshold);
+        jobService.start(rule.getThresholdCount());
+        return rule;
+    }
+
+    @GetMapping("/jobs/latest")
+    public ReevaluationJobDTO latestJob() {
+        return jobService.latest()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "no re-evaluation job"));
+    }
+
+    @PostMapping("/jobs/{id}/cancel")
+    public ReevaluationJobDTO cancelJob(@PathVariable Long id) {
+        return jobService.cancel(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "re-evaluation job not found"));
+    }
+
+    /** Pass/fail counts for every possible threshold, without changing any application. */
+    @GetMapping("/simulation")
+    public ThresholdSimulationDTO simulate() {
+        return simulationService.simulate();
     }
 }
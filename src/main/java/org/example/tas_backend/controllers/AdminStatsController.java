@@ -0,0 +1,22 @@
+package org.example.tas_backend.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.example.tas_backend.dtos.AdminStatsDTO;
+import org.example.tas_backend.services.AdminStatsService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Dashboard counters; clients load this once, then apply the deltas from /topic/admin/stats. */
+@RestController
+@RequestMapping("/admin/stats")
+@RequiredArgsConstructor
+public class AdminStatsController {
+
+    private final AdminStatsService statsService;
+
+    @GetMapping
+    public AdminStatsDTO stats() {
+        return statsService.snapshot();
+    }
+}
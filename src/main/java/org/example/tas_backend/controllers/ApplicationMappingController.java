@@ -4,17 +4,34 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.example.tas_backend.dtos.ApplicationDecisionDTO;
 import org.example.tas_backend.dtos.ApplicationMappingViewDTO;
+import org.example.tas_backend.dtos.ApplicationPageDTO;
 import org.example.tas_backend.dtos.ApplicationSummaryDTO;
+import org.example.tas_backend.dtos.BulkApplicationDecisionDTO;
+import org.example.tas_backend.dtos.BulkDecisionResultDTO;
+import org.example.tas_backend.dtos.DocumentTextDTO;
+import org.example.tas_backend.dtos.PipelineStateDTO;
 import org.example.tas_backend.entities.Application;
 import org.example.tas_backend.entities.StudentApplicant;
 import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.enums.PipelineStage;
+import org.example.tas_backend.events.ApplicationStatusChangedEvent;
+import org.example.tas_backend.events.MatchedCountsChangedEvent;
 import org.example.tas_backend.entities.AcceptanceRule;
 import org.example.tas_backend.repos.ApplicationRepo;
 import org.example.tas_backend.repos.DocumentRepo;
 import org.example.tas_backend.repos.StudentApplicantRepo;
+import org.example.tas_backend.services.ApplicationDecisionService;
+import org.example.tas_backend.services.ApplicationListService;
+import org.example.tas_backend.services.ApplicationSubmitService;
+import org.example.tas_backend.services.DocumentTextService;
 import org.example.tas_backend.services.MappingQueryService;
 import org.example.tas_backend.services.AcceptanceService;
+import org.example.tas_backend.services.SubmissionPipeline;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -23,10 +40,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.*;
 
 @RestController
@@ -34,12 +53,20 @@ import java.util.*;
 @RequiredArgsConstructor
 public class ApplicationMappingController {
 
+    private static final int RETRY_AFTER_SECONDS = 30;
+
     private final MappingQueryService mappingQueryService;
+    private final DocumentTextService documentTextService;
+    private final ApplicationListService applicationListService;
+    private final ApplicationDecisionService decisionService;
     private final ApplicationRepo applicationRepo;
     private final DocumentRepo documentRepo;
     private final StudentApplicantRepo studentRepo;
     private final AcceptanceService acceptanceService;
+    private final ApplicationSubmitService submitService;
+    private final SubmissionPipeline pipeline;
     private final SimpMessagingTemplate broker;
+    private final ApplicationEventPublisher events;
 
     // -------- Student endpoints --------
 
@@ -61,7 +88,7 @@ public class ApplicationMappingController {
 
         Application app = latestBySub.orElseGet(() -> latestByEntity.orElse(null));
         if (app == null) {
-            return new ApplicationSummaryDTO(null, null, null, 0, null, null);
+            return new ApplicationSummaryDTO(null, null, null, 0, null, null, null, null);
         }
 
         int docsCount = Math.toIntExact(documentRepo.countByApplication(app));
@@ -72,7 +99,9 @@ public class ApplicationMappingController {
                 studentFacingStatus(app),
                 docsCount,
                 null,
-                null
+                null,
+                app.getPreferredProgram(),
+                app.getAudit() != null ? app.getAudit().getCreatedAt() : null
         );
     }
 
@@ -88,6 +117,17 @@ public class ApplicationMappingController {
         return mappingQueryService.forApplication(id);
     }
 
+    @GetMapping("/student/documents/{documentId}/text")
+    public DocumentTextDTO documentTextForStudent(@AuthenticationPrincipal Jwt jwt,
+                                                  @PathVariable Long documentId,
+                                                  @RequestParam(defaultValue = "0") int offset,
+                                                  @RequestParam(required = false) Integer limit) {
+        if (!documentRepo.existsByIdAndApplication_Student_KeycloakSub(documentId, jwt.getSubject())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "document not found");
+        }
+        return documentText(documentId, offset, limit);
+    }
+
     // -------- Admin endpoints --------
 
     @GetMapping("/admin/applications/{id}/mappings")
@@ -95,14 +135,36 @@ public class ApplicationMappingController {
         return mappingQueryService.forApplication(id);
     }
 
+    @GetMapping("/admin/applications/{id}/documents/{documentId}/text")
+    public DocumentTextDTO documentTextForAdmin(@PathVariable Long id,
+                                                @PathVariable Long documentId,
+                                                @RequestParam(defaultValue = "0") int offset,
+                                                @RequestParam(required = false) Integer limit) {
+        if (!documentRepo.existsByIdAndApplication_Id(documentId, id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "document not found");
+        }
+        return documentText(documentId, offset, limit);
+    }
+
     @GetMapping("/admin/applications")
-    @Transactional
     public List<ApplicationSummaryDTO> listRecentApplications() {
-        AcceptanceRule rule = acceptanceService.getRule();
+        return applicationListService.page(null, null, null, null, null, 20, null).items();
+    }
 
-        return applicationRepo.findTop20ByOrderByIdDesc().stream()
-                .map(app -> buildAdminSummary(app, rule))
-                .toList();
+    /** Keyset-paged, filterable admin list; pass {@code nextCursor} back as {@code cursor} for the next page. */
+    @GetMapping("/admin/applications/page")
+    public ApplicationPageDTO pageApplications(@RequestParam(required = false) String status,
+                                               @RequestParam(required = false) String program,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                               @RequestParam(required = false) String sort,
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(required = false) String cursor) {
+        try {
+            return applicationListService.page(status, program, from, to, sort, size, cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
     }
 
     @PostMapping("/admin/applications/{id}/decision")
@@ -113,20 +175,19 @@ public class ApplicationMappingController {
         if (body == null || body.action() == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "action is required");
         }
-        String action = body.action().trim().toLowerCase();
-        ApplicationStatus newStatus = switch (action) {
-            case "approve", "approved" -> ApplicationStatus.APPROVED;
-            case "reject", "rejected", "deny", "denied" -> ApplicationStatus.REJECTED;
-            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "action must be approve/reject");
-        };
+        ApplicationStatus newStatus = decisionStatus(body.action());
 
         Application app = applicationRepo.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "application not found"));
 
+        ApplicationStatus previous = app.getStatus();
         app.setStatus(newStatus);
         app.setDecisionDate(Instant.now());
         app.setDecisionBy(resolveActor(jwt));
         applicationRepo.save(app);
+        // a final decision takes the application out of the threshold simulation
+        events.publishEvent(new MatchedCountsChangedEvent("application decided: " + id));
+        if (previous != newStatus) events.publishEvent(new ApplicationStatusChangedEvent(previous, newStatus));
 
         // Notify student via WebSocket (/topic/app_status/{studentSub})
         StudentApplicant student = app.getStudent();
@@ -142,6 +203,57 @@ public class ApplicationMappingController {
         return buildAdminSummary(app, rule);
     }
 
+    /**
+     * Re-runs the pipeline of a submission that FAILED; stages skip the work already persisted.
+     * 409 unless it is FAILED, 503 with Retry-After while the pipeline is full.
+     */
+    @PostMapping("/admin/applications/{id}/pipeline/retry")
+    public ResponseEntity<Void> retryPipeline(@PathVariable Long id) {
+        PipelineStateDTO state = submitService.pipelineState(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "application not found"));
+        if (state.stage() != PipelineStage.FAILED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "pipeline is not failed: " + state.stage());
+        }
+        if (!pipeline.tryReserve()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS))
+                    .build();
+        }
+        if (!pipeline.retryFailed(id, state.studentSub())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "pipeline was retried concurrently");
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/admin/applications/decisions")
+    public BulkDecisionResultDTO decideApplications(@AuthenticationPrincipal Jwt jwt,
+                                                    @RequestBody BulkApplicationDecisionDTO body) {
+        if (body == null || body.action() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "action is required");
+        }
+        ApplicationStatus newStatus = decisionStatus(body.action());
+        try {
+            return decisionService.decideAll(body.applicationIds(), newStatus, resolveActor(jwt));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+    }
+
+    private static ApplicationStatus decisionStatus(String action) {
+        return switch (action.trim().toLowerCase()) {
+            case "approve", "approved" -> ApplicationStatus.APPROVED;
+            case "reject", "rejected", "deny", "denied" -> ApplicationStatus.REJECTED;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "action must be approve/reject");
+        };
+    }
+
+    private DocumentTextDTO documentText(Long documentId, int offset, Integer limit) {
+        if (offset < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "offset must be >= 0");
+        }
+        return documentTextService.slice(documentId, offset, limit);
+    }
+
     private String buildStudentName(StudentApplicant student) {
         if (student == null) return null;
         String first = Optional.ofNullable(student.getFirstName()).orElse("").trim();
@@ -156,31 +268,20 @@ public class ApplicationMappingController {
         return name != null && !name.isBlank() ? name : "system";
     }
 
-    private String statusOrDefault(Application app) {
-        return app.getStatus() != null ? app.getStatus().name() : ApplicationStatus.SUBMITTED.name();
-    }
-
     private ApplicationSummaryDTO buildAdminSummary(Application app, AcceptanceRule rule) {
         int docsCount = Math.toIntExact(documentRepo.countByApplication(app));
-        int matched = mappingQueryService.countMappedSubjects(app.getId());
+        int matched = app.getMatchedCount();
         Integer threshold = rule != null ? rule.getThresholdCount() : null;
 
-        String rawStatus = statusOrDefault(app);
-        String displayStatus = rawStatus;
-
-        if (app.getStatus() == ApplicationStatus.PRE_ADMISSIBLE) {
-            displayStatus = ApplicationStatus.PRE_ADMISSIBLE.name();
-        } else if (app.getStatus() == ApplicationStatus.REJECTED && app.getDecisionBy() == null) {
-            displayStatus = "PRE_REJECTED";
-        }
-
         return new ApplicationSummaryDTO(
                 app.getId(),
                 buildStudentName(app.getStudent()),
-                displayStatus,
+                ApplicationListService.adminStatus(app.getStatus(), app.getDecisionBy()),
                 docsCount,
                 matched,
-                threshold
+                threshold,
+                app.getPreferredProgram(),
+                app.getAudit() != null ? app.getAudit().getCreatedAt() : null
         );
     }
 
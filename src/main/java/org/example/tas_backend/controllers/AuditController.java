@@ -29,7 +29,7 @@ public class AuditController {
             Application.class, List.of(
                     "preferredProgram","languageLevel","status","decisionBy","decisionDate"
             ),
-            Document.class, List.of("type","filename","storageKey","mimeType","sizeBytes","rawText"),
+            Document.class, List.of("type","filename","storageKey","contentHash","mimeType","sizeBytes","textPreview","textLength"),
             Interview.class, List.of("interviewDate","interviewLink","result","notes","interviewerName"),
             Evaluation.class, List.of("equivalenceScore","aiComments","status","confidence","scoreMaxPossible"),
             ExtractedSubject.class, List.of("rawName","rawScore","rawScale","year","sourceCoefficient"),
@@ -5,8 +5,10 @@ import org.example.tas_backend.dtos.InviteDTO;
 import org.example.tas_backend.dtos.InviteUpdateDTO;
 import org.example.tas_backend.entities.Invite;
 import org.example.tas_backend.enums.InviteStatus;
+import org.example.tas_backend.events.InviteStatusChangedEvent;
 import org.example.tas_backend.repos.InviteRepo;
 import org.example.tas_backend.services.MeetingRecordingService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -31,6 +33,7 @@ public class InviteController {
     private final InviteRepo repo;
     private final SimpMessagingTemplate broker;
     private final MeetingRecordingService recordings;
+    private final ApplicationEventPublisher events;
 
     @GetMapping("/invites")
     public List<Invite> list(@RequestParam(required = false) String targetUserId,
@@ -58,7 +61,7 @@ public class InviteController {
         inv.setStatus(InviteStatus.PENDING);
         inv.setCreatedBy(jwt != null ? jwt.getSubject() : "admin");
         inv = repo.save(inv);
-        publish(inv);
+        publish(inv, null);
         return inv;
     }
 
@@ -66,13 +69,14 @@ public class InviteController {
     public Invite accept(@PathVariable UUID id, @AuthenticationPrincipal Jwt jwt) {
         Invite inv = repo.findById(id).orElseThrow();
         enforceAccept(inv, jwt);
+        InviteStatus previous = inv.getStatus();
         inv.setStatus(InviteStatus.ACCEPTED);
         if (inv.getProposedTime() != null) {
             inv.setScheduledTime(inv.getProposedTime());
             inv.setProposedTime(null);
         }
         inv = repo.save(inv);
-        publish(inv);
+        publish(inv, previous);
         return inv;
     }
 
@@ -80,11 +84,12 @@ public class InviteController {
     public Invite propose(@PathVariable UUID id, @RequestBody InviteUpdateDTO body, @AuthenticationPrincipal Jwt jwt) {
         Invite inv = repo.findById(id).orElseThrow();
         enforceTarget(inv, jwt);
+        InviteStatus previous = inv.getStatus();
         inv.setStatus(InviteStatus.PROPOSED);
         inv.setProposedTime(body.getProposedTime());
         inv.setScheduledTime(inv.getScheduledTime()); // keep existing
         inv = repo.save(inv);
-        publish(inv);
+        publish(inv, previous);
         return inv;
     }
 
@@ -92,18 +97,20 @@ public class InviteController {
     public Invite chat(@PathVariable UUID id, @AuthenticationPrincipal Jwt jwt) {
         Invite inv = repo.findById(id).orElseThrow();
         enforceTarget(inv, jwt);
+        InviteStatus previous = inv.getStatus();
         inv.setStatus(InviteStatus.CHAT);
         inv = repo.save(inv);
-        publish(inv);
+        publish(inv, previous);
         return inv;
     }
 
     @DeleteMapping("/invites/{id}")
     public void cancel(@PathVariable UUID id) {
         Invite inv = repo.findById(id).orElseThrow(() -> new NoSuchElementException("invite not found"));
+        InviteStatus previous = inv.getStatus();
         inv.setStatus(InviteStatus.CANCELLED);
         repo.save(inv);
-        publish(inv);
+        publish(inv, previous);
     }
 
     @PostMapping("/invites/{id}/decline_proposed")
@@ -111,9 +118,10 @@ public class InviteController {
         Invite inv = repo.findById(id).orElseThrow();
         enforceCreator(inv, jwt);
         inv.setProposedTime(null);
+        InviteStatus previous = inv.getStatus();
         inv.setStatus(InviteStatus.PENDING);
         inv = repo.save(inv);
-        publish(inv);
+        publish(inv, previous);
         return inv;
     }
 
@@ -147,7 +155,10 @@ public class InviteController {
                 .body(resource);
     }
 
-    private void publish(Invite inv) {
+    private void publish(Invite inv, InviteStatus previous) {
+        if (inv.getStatus() != previous) {
+            events.publishEvent(new InviteStatusChangedEvent(previous, inv.getStatus()));
+        }
         if (inv.getCreatedBy() != null && !inv.getCreatedBy().isBlank()) {
             broker.convertAndSend("/topic/invites/" + inv.getCreatedBy(), inv);
         }
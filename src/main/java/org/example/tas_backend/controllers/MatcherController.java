@@ -2,12 +2,20 @@ package org.example.tas_backend.controllers;
 
 
 import lombok.RequiredArgsConstructor;
+import org.example.tas_backend.dtos.MatcherOutboxEventDTO;
 import org.example.tas_backend.dtos.SubjectAliasDTO;
 import org.example.tas_backend.dtos.SubjectTargetDTO;
+import org.example.tas_backend.enums.MatcherOutboxStatus;
+import org.example.tas_backend.events.TargetCatalogChangedEvent;
 import org.example.tas_backend.services.AiService;
+import org.example.tas_backend.services.MatcherOutboxService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -17,6 +25,8 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class MatcherController {
     private final AiService django;
+    private final ApplicationEventPublisher events;
+    private final MatcherOutboxService outbox;
 
     @GetMapping("/targets")
     public List<SubjectTargetDTO> listTargets() {
@@ -28,19 +38,24 @@ public class MatcherController {
     public SubjectTargetDTO updateTarget(@PathVariable String id,
                                          @RequestBody SubjectTargetDTO body) {
         log.debug("Admin update target id={} payload={}", id, body);
-        return django.updateTarget(id, body);
+        var updated = django.updateTarget(id, body);
+        events.publishEvent(new TargetCatalogChangedEvent("matcher target updated: " + id));
+        return updated;
     }
 
     @PostMapping("/targets")
     public SubjectTargetDTO createTarget(@RequestBody SubjectTargetDTO body) {
         log.debug("Admin create target payload={}", body);
-        return django.createTarget(body);
+        var created = django.createTarget(body);
+        events.publishEvent(new TargetCatalogChangedEvent("matcher target created"));
+        return created;
     }
 
     @DeleteMapping("/targets/{id}")
     public void deleteTarget(@PathVariable String id) {
         log.debug("Admin delete target id={}", id);
         django.deleteTarget(id);
+        events.publishEvent(new TargetCatalogChangedEvent("matcher target deleted: " + id));
     }
 
     @GetMapping("/aliases")
@@ -54,19 +69,46 @@ public class MatcherController {
     @PostMapping("/aliases")
     public SubjectAliasDTO createAlias(@RequestBody SubjectAliasDTO body) {
         log.debug("Admin create alias payload={}", body);
-        return django.createAlias(body);
+        var created = django.createAlias(body);
+        events.publishEvent(new TargetCatalogChangedEvent("alias created"));
+        return created;
     }
 
     @PatchMapping("/aliases/{id}")
     public SubjectAliasDTO updateAlias(@PathVariable String id,
                                        @RequestBody SubjectAliasDTO body) {
         log.debug("Admin update alias id={} payload={}", id, body);
-        return django.updateAlias(id, body);
+        var updated = django.updateAlias(id, body);
+        events.publishEvent(new TargetCatalogChangedEvent("alias updated: " + id));
+        return updated;
     }
 
     @DeleteMapping("/aliases/{id}")
     public void deleteAlias(@PathVariable String id) {
         log.debug("Admin delete alias id={}", id);
         django.deleteAlias(id);
+        events.publishEvent(new TargetCatalogChangedEvent("alias deleted: " + id));
+    }
+
+    /** Queued matcher side effects (alias cleanups from mapping overrides); FAILED ones by default. */
+    @GetMapping("/outbox")
+    public List<MatcherOutboxEventDTO> listOutbox(@RequestParam(defaultValue = "FAILED") String status,
+                                                  @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return outbox.list(MatcherOutboxStatus.valueOf(status.toUpperCase()), limit);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "unknown status: " + status);
+        }
+    }
+
+    @PostMapping("/outbox/{id}/retry")
+    public MatcherOutboxEventDTO retryOutbox(@PathVariable Long id) {
+        try {
+            return outbox.retry(id);
+        } catch (NoSuchElementException ex) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
+        } catch (IllegalStateException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, ex.getMessage());
+        }
     }
 }
@@ -5,6 +5,9 @@ import org.example.tas_backend.dtos.StudentApplicantProfileDTO;
 import org.example.tas_backend.entities.Application;
 import org.example.tas_backend.services.ApplicationSubmitService;
 import org.example.tas_backend.services.StudentApplicantService;
+import org.example.tas_backend.services.SubmissionPipeline;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -19,12 +22,19 @@ import java.util.List;
 @RequestMapping("/student/")
 public class StudentApplicantController {
 
+    // roughly how long a queued submission takes to clear
+    private static final int RETRY_AFTER_SECONDS = 30;
+
     private final StudentApplicantService service;
     private final ApplicationSubmitService submitService;
+    private final SubmissionPipeline pipeline;
 
-    public StudentApplicantController(StudentApplicantService service, ApplicationSubmitService submitService) {
+    public StudentApplicantController(StudentApplicantService service,
+                                      ApplicationSubmitService submitService,
+                                      SubmissionPipeline pipeline) {
         this.service = service;
         this.submitService = submitService;
+        this.pipeline = pipeline;
     }
 
     /** Create-or-refresh local profile snapshot from Keycloak claims. */
@@ -54,6 +64,11 @@ public class StudentApplicantController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Persists the application and its documents, then returns 202 right away.
+     * OCR, matching and acceptance progress is pushed on /topic/app_progress/{sub}.
+     * Returns 503 with Retry-After, without persisting anything, while the pipeline is full.
+     */
     @PostMapping(value = "/apply")
     public ResponseEntity<Long> apply(
             @AuthenticationPrincipal Jwt jwt,
@@ -61,8 +76,21 @@ public class StudentApplicantController {
             @RequestPart("files") List<MultipartFile> files
     ) throws IOException {
 
+        if (!pipeline.tryReserve()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS))
+                    .build();
+        }
+
         String sub = jwt.getSubject();
-        Application app = submitService.submit(sub, data, files);
-        return ResponseEntity.ok(app.getId());
+        Application app;
+        try {
+            app = submitService.submit(sub, data, files);
+        } catch (IOException | RuntimeException ex) {
+            pipeline.release();
+            throw ex;
+        }
+        pipeline.start(app.getId(), sub);
+        return ResponseEntity.accepted().body(app.getId());
     }
 }
@@ -6,8 +6,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.tas_backend.dtos.SuggestionDecisionDTO;
 import org.example.tas_backend.entities.MappingSuggestion;
 import org.example.tas_backend.enums.SuggestionStatus;
+import org.example.tas_backend.events.SuggestionStatusChangedEvent;
+import org.example.tas_backend.events.TargetCatalogChangedEvent;
 import org.example.tas_backend.repos.MappingSuggestionRepo;
 import org.example.tas_backend.services.AiService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.util.StringUtils;
@@ -16,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/suggestions")
@@ -24,6 +28,7 @@ import java.util.UUID;
 public class SuggestionAdminController {
     private final MappingSuggestionRepo repo;
     private final AiService django; // to create alias in Django
+    private final ApplicationEventPublisher events;
 
     @GetMapping
     public List<MappingSuggestion> list(@RequestParam(required=false) String status) {
@@ -50,6 +55,7 @@ public class SuggestionAdminController {
             s.setReason("Missing target or label; auto-rejected");
             s.setDecidedBy(auth != null ? auth.getName() : "admin");
             s.setDecidedAt(OffsetDateTime.now());
+            events.publishEvent(new SuggestionStatusChangedEvent(SuggestionStatus.PENDING, SuggestionStatus.REJECTED, 1));
             return repo.save(s);
         }
 
@@ -62,6 +68,8 @@ public class SuggestionAdminController {
             try {
                 django.createAlias(alias);
                 s.setStatus(SuggestionStatus.ACCEPTED);
+                // delivered after commit, once the accepted alias is visible to the local matcher
+                events.publishEvent(new TargetCatalogChangedEvent("alias accepted: " + aliasLabel));
             } catch (Exception ex) {
                 log.error("Failed to create alias for suggestion {} target {} label {}",
                         s.getId(), s.getProposedTargetCode(), aliasLabel, ex);
@@ -81,6 +89,7 @@ public class SuggestionAdminController {
         if (!StringUtils.hasText(s.getReason())) {
             s.setReason(body.getComment());
         }
+        events.publishEvent(new SuggestionStatusChangedEvent(SuggestionStatus.PENDING, s.getStatus(), 1));
         return repo.save(s);
     }
 
@@ -88,15 +97,23 @@ public class SuggestionAdminController {
     @DeleteMapping
     @Transactional
     public void deleteAll(@RequestParam(required = false) String status) {
+        events.publishEvent(new TargetCatalogChangedEvent("suggestions purged"));
         if (!StringUtils.hasText(status)) {
-            repo.deleteAll();
+            purge(repo.findAll());
             return;
         }
         try {
             var st = SuggestionStatus.valueOf(status.toUpperCase());
-            repo.deleteAll(repo.findByStatus(st, Sort.unsorted()));
+            purge(repo.findByStatus(st, Sort.unsorted()));
         } catch (IllegalArgumentException ignored) {
             // ignore invalid status parameter
         }
     }
+
+    private void purge(List<MappingSuggestion> suggestions) {
+        repo.deleteAll(suggestions);
+        suggestions.stream()
+                .collect(Collectors.groupingBy(MappingSuggestion::getStatus, Collectors.counting()))
+                .forEach((st, n) -> events.publishEvent(new SuggestionStatusChangedEvent(st, null, n)));
+    }
 }
@@ -2,7 +2,9 @@ package org.example.tas_backend.controllers;
 
 import lombok.RequiredArgsConstructor;
 import org.example.tas_backend.entities.TargetSubject;
+import org.example.tas_backend.events.TargetCatalogChangedEvent;
 import org.example.tas_backend.repos.TargetSubjectRepo;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
@@ -17,6 +19,7 @@ import java.util.List;
 public class TargetSubjectController {
 
     private final TargetSubjectRepo repo;
+    private final ApplicationEventPublisher events;
 
     @GetMapping
     public List<TargetSubject> list() {
@@ -32,6 +35,7 @@ public class TargetSubjectController {
             return ResponseEntity.status(409).build();
         }
         TargetSubject saved = repo.save(body);
+        events.publishEvent(new TargetCatalogChangedEvent("target created: " + saved.getCode()));
         return ResponseEntity.ok(saved);
     }
 
@@ -43,7 +47,9 @@ public class TargetSubjectController {
                     if (body.getCoefficient() != null) existing.setCoefficient(body.getCoefficient());
                     if (StringUtils.hasText(body.getCode())) existing.setCode(body.getCode());
                     validate(existing);
-                    return ResponseEntity.ok(repo.save(existing));
+                    TargetSubject saved = repo.save(existing);
+                    events.publishEvent(new TargetCatalogChangedEvent("target updated: " + saved.getCode()));
+                    return ResponseEntity.ok(saved);
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -54,6 +60,7 @@ public class TargetSubjectController {
             return ResponseEntity.notFound().build();
         }
         repo.deleteById(id);
+        events.publishEvent(new TargetCatalogChangedEvent("target deleted: " + id));
         return ResponseEntity.noContent().build();
     }
 
@@ -0,0 +1,20 @@
+package org.example.tas_backend.dtos;
+
+import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.enums.InviteStatus;
+import org.example.tas_backend.enums.SuggestionStatus;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Admin dashboard counts by status. The same shape is pushed on {@code /topic/admin/stats} as a
+ * delta, then only carrying the statuses that changed.
+ */
+public record AdminStatsDTO(
+        Map<ApplicationStatus, Long> applications,
+        Map<SuggestionStatus, Long> suggestions,
+        Map<InviteStatus, Long> invites,
+        boolean delta,
+        Instant at
+) {}
@@ -0,0 +1,9 @@
+package org.example.tas_backend.dtos;
+
+import org.example.tas_backend.enums.ApplicationStatus;
+
+public record ApplicationDecisionTargetDTO(
+        Long applicationId,
+        ApplicationStatus status,
+        String studentSub
+) {}
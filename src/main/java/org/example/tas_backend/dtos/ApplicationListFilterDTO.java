@@ -0,0 +1,17 @@
+package org.example.tas_backend.dtos;
+
+import org.example.tas_backend.enums.ApplicationStatus;
+
+import java.time.Instant;
+
+/**
+ * Admin list filters; null fields are not applied. {@code decided} separates admin decisions
+ * from provisional ones (REJECTED vs PRE_REJECTED).
+ */
+public record ApplicationListFilterDTO(
+        ApplicationStatus status,
+        Boolean decided,
+        String program,
+        Instant submittedFrom,
+        Instant submittedBefore
+) {}
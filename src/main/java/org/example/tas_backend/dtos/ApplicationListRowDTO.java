@@ -0,0 +1,18 @@
+package org.example.tas_backend.dtos;
+
+import org.example.tas_backend.enums.ApplicationStatus;
+
+import java.time.Instant;
+
+/** One admin list row, with its aggregate columns, as read by a single query. */
+public record ApplicationListRowDTO(
+        Long id,
+        String firstName,
+        String lastName,
+        ApplicationStatus status,
+        String decisionBy,
+        String preferredProgram,
+        Instant submittedAt,
+        int matchedCount,
+        long documentsCount
+) {}
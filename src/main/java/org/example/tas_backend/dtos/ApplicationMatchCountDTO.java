@@ -0,0 +1,9 @@
+package org.example.tas_backend.dtos;
+
+import org.example.tas_backend.enums.ApplicationStatus;
+
+public record ApplicationMatchCountDTO(
+        Long applicationId,
+        ApplicationStatus status,
+        int matchedCount
+) {}
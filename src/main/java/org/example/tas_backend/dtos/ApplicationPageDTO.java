@@ -0,0 +1,8 @@
+package org.example.tas_backend.dtos;
+
+import java.util.List;
+
+public record ApplicationPageDTO(
+        List<ApplicationSummaryDTO> items,
+        String nextCursor
+) {}
@@ -0,0 +1,12 @@
+package org.example.tas_backend.dtos;
+
+import java.time.Instant;
+
+public record ApplicationProgressDTO(
+        Long applicationId,
+        String stage,
+        int completed,
+        int total,
+        String message,
+        Instant at
+) {}
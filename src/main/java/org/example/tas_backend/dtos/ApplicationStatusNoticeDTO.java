@@ -0,0 +1,10 @@
+package org.example.tas_backend.dtos;
+
+import java.time.Instant;
+
+/** Payload of {@code /topic/app_status/{studentSub}}. */
+public record ApplicationStatusNoticeDTO(
+        Long applicationId,
+        String status,
+        Instant decidedAt
+) {}
@@ -1,10 +1,14 @@
 package org.example.tas_backend.dtos;
 
+import java.time.Instant;
+
 public record ApplicationSummaryDTO(
         Long id,
         String studentName,
         String status,
         int documentsCount,
         Integer matchedCount,
-        Integer thresholdCount
+        Integer thresholdCount,
+        String preferredProgram,
+        Instant submittedAt
 ) {}
@@ -0,0 +1,9 @@
+package org.example.tas_backend.dtos;
+
+import java.util.List;
+
+public record BulkDecisionResultDTO(
+        String status,
+        int decided,
+        List<Long> notFound
+) {}
@@ -5,6 +5,7 @@ import java.util.List;
 public record DocumentMappingViewDTO(
         Long documentId,
         String filename,
-        String rawText,
+        String textPreview,
+        Integer textLength, // full text: GET .../documents/{id}/text
         List<ExtractedSubjectViewDTO> subjects
 ) {}
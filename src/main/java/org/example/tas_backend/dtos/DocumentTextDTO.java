@@ -0,0 +1,10 @@
+package org.example.tas_backend.dtos;
+
+/** One character range of a document's OCR text; {@code nextOffset} is null on the last page. */
+public record DocumentTextDTO(
+        Long documentId,
+        int offset,
+        int totalLength,
+        String text,
+        Integer nextOffset
+) {}
@@ -0,0 +1,11 @@
+package org.example.tas_backend.dtos;
+
+import java.util.List;
+
+/** Reassigns either the listed mappings or every mapping of {@code rawLabel} (case-insensitive). */
+public record MappingBulkUpdateDTO(
+        List<Long> mappingIds,
+        String rawLabel,
+        String targetCode,
+        Float confidence
+) {}
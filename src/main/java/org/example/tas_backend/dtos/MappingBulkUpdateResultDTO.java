@@ -0,0 +1,10 @@
+package org.example.tas_backend.dtos;
+
+import java.util.List;
+
+public record MappingBulkUpdateResultDTO(
+        String targetCode,
+        int updated,
+        int applications,
+        List<Long> notFound
+) {}
@@ -0,0 +1,8 @@
+package org.example.tas_backend.dtos;
+
+import java.util.List;
+
+public record MappingReviewPageDTO(
+        List<MappingReviewRowDTO> items,
+        String nextCursor
+) {}
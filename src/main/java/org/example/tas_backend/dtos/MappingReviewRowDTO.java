@@ -0,0 +1,12 @@
+package org.example.tas_backend.dtos;
+
+public record MappingReviewRowDTO(
+        Long mappingId,
+        Long applicationId,
+        Long extractedSubjectId,
+        String rawName,
+        String targetCode,
+        String targetName,
+        Float confidence,
+        String method
+) {}
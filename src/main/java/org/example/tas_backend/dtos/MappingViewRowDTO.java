@@ -0,0 +1,29 @@
+package org.example.tas_backend.dtos;
+
+import org.example.tas_backend.enums.Scale;
+
+/**
+ * One flat row of the application mapping view (application x document x subject x mapping);
+ * document, subject and mapping columns are null where the outer join found nothing.
+ */
+public record MappingViewRowDTO(
+        Long applicationId,
+        String studentFirstName,
+        String studentLastName,
+        Long documentId,
+        String filename,
+        String textPreview,
+        Integer textLength,
+        Long subjectId,
+        String rawName,
+        Float rawScore,
+        Scale rawScale,
+        Integer year,
+        Float sourceCoefficient,
+        Long mappingId,
+        String targetCode,
+        String targetName,
+        Float confidence,
+        String method,
+        Float normalizedScore
+) {}
@@ -4,8 +4,14 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
 
+/** {@code catalogVersion} echoes the catalog version the matcher actually matched against. */
 public record MatchResponseDTO(
         List<String> matched,
         @JsonProperty("coverage_pct") Double coveragePct,
-        List<MatchTraceDTO> trace
-) {}
+        List<MatchTraceDTO> trace,
+        @JsonProperty("catalog_version") String catalogVersion
+) {
+    public MatchResponseDTO(List<String> matched, Double coveragePct, List<MatchTraceDTO> trace) {
+        this(matched, coveragePct, trace, null);
+    }
+}
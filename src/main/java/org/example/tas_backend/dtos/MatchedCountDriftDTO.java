@@ -0,0 +1,7 @@
+package org.example.tas_backend.dtos;
+
+public record MatchedCountDriftDTO(
+        Long applicationId,
+        int storedCount,
+        long actualCount
+) {}
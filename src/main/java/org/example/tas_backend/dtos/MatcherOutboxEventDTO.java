@@ -0,0 +1,17 @@
+package org.example.tas_backend.dtos;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record MatcherOutboxEventDTO(
+        Long id,
+        String action,
+        String targetCode,
+        List<String> labels,
+        String status,
+        int attempts,
+        String lastError,
+        OffsetDateTime createdAt,
+        OffsetDateTime nextAttemptAt,
+        OffsetDateTime completedAt
+) {}
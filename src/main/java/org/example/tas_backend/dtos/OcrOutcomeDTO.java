@@ -0,0 +1,14 @@
+package org.example.tas_backend.dtos;
+
+import java.util.List;
+
+/** Result of one OCR round-trip, held in memory until the pipeline persists it. */
+public record OcrOutcomeDTO(
+        Long documentId,
+        String rawText,
+        List<String> courses
+) {
+    public boolean isEmpty() {
+        return rawText == null && (courses == null || courses.isEmpty());
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.tas_backend.dtos;
+
+import org.example.tas_backend.enums.PipelineStage;
+
+public record PipelineStateDTO(
+        Long applicationId,
+        String studentSub,
+        PipelineStage stage,
+        String error
+) {}
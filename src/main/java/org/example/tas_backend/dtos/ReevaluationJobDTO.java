@@ -0,0 +1,15 @@
+package org.example.tas_backend.dtos;
+
+import java.time.OffsetDateTime;
+
+public record ReevaluationJobDTO(
+        Long id,
+        String status,
+        int threshold,
+        long total,
+        long processed,
+        long changed,
+        String message,
+        OffsetDateTime createdAt,
+        OffsetDateTime finishedAt
+) {}
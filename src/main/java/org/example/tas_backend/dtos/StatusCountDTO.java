@@ -0,0 +1,8 @@
+package org.example.tas_backend.dtos;
+
+/** One row of the admin stats seed query: how many {@code kind} rows have {@code status}. */
+public record StatusCountDTO(
+        String kind,
+        String status,
+        long count
+) {}
@@ -0,0 +1,8 @@
+package org.example.tas_backend.dtos;
+
+public record ThresholdOutcomeDTO(
+        int threshold,
+        long passing,
+        long failing,
+        long flipping
+) {}
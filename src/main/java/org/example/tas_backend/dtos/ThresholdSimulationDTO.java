@@ -0,0 +1,10 @@
+package org.example.tas_backend.dtos;
+
+import java.util.List;
+
+public record ThresholdSimulationDTO(
+        int targetCount,
+        int currentThreshold,
+        long applications,
+        List<ThresholdOutcomeDTO> outcomes
+) {}
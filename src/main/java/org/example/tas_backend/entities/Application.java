@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.enums.PipelineStage;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.envers.Audited;
+import org.hibernate.envers.NotAudited;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -19,7 +22,8 @@ import static jakarta.persistence.GenerationType.IDENTITY;
 @Setter
 @Audited(withModifiedFlag = true)
 @Table(indexes = {@Index(name="ix_app_student", columnList="student_id"),
-        @Index(name="ix_app_status", columnList="status")})
+        @Index(name="ix_app_status", columnList="status"),
+        @Index(name="ix_app_matched_count", columnList="matched_count, id")})
 public class Application {
     @Id @GeneratedValue(strategy=IDENTITY) Long id;
 
@@ -33,6 +37,24 @@ public class Application {
     String decisionBy;
     Instant decisionDate;
 
+    // Mappings with a target across all documents; maintained by atomic JPQL updates only
+    // (ApplicationRepo.adjustMatchedCount / addMatchedSubjects), never by entity flushes
+    @NotAudited
+    @ColumnDefault("0")
+    @Column(nullable=false, updatable=false)
+    int matchedCount;
+
+    // Progress of the post-submit pipeline, so a restart can resume it and admins can retry
+    // failures; written by ApplicationRepo.updatePipelineStage only, and not audited
+    @NotAudited
+    @Enumerated(EnumType.STRING)
+    @Column(length=16, updatable=false)
+    PipelineStage pipelineStage;
+
+    @NotAudited
+    @Column(length=1000, updatable=false)
+    String pipelineError;
+
     // AI evaluation snapshot for the application
     @OneToMany(mappedBy="application", cascade=ALL, orphanRemoval=true)
     List<Evaluation> evaluations = new ArrayList<>();
@@ -14,7 +14,8 @@ import static jakarta.persistence.GenerationType.IDENTITY;
 @Setter
 @Audited(withModifiedFlag = true)
 @Table(indexes = {@Index(name="ix_doc_app", columnList="application_id"),
-        @Index(name="ix_doc_type", columnList="type")})
+        @Index(name="ix_doc_type", columnList="type"),
+        @Index(name="ix_doc_hash", columnList="contentHash")})
 public class Document {
     @Id
     @GeneratedValue(strategy=IDENTITY) Long id;
@@ -24,14 +25,17 @@ public class Document {
     DocumentType type;
     String filename;
     String storageKey; // S3/GCS path
+    @Column(length = 64)
+    String contentHash; // SHA-256 of the file, key into the blob store and OCR cache
     String mimeType;
     Long sizeBytes;
 
     // OCR output id or short text preview
     String ocrJobId;
-    @Lob
-    @Column(columnDefinition = "text")
-    String rawText;
+    // full OCR text lives in DocumentText; only a preview is kept on the row
+    @Column(length = 500)
+    String textPreview;
+    Integer textLength;
 
     @Embedded
     private Audit audit = new Audit();
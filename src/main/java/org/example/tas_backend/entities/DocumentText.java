@@ -0,0 +1,57 @@
+package org.example.tas_backend.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Full OCR text of a {@link Document}, kept out of the document row so that loading a
+ * document (or a mapping view) never reads it. Stored DEFLATE-compressed in {@code content_zip};
+ * rows written before compression keep plain {@code text} until DocumentTextCompaction rewrites them.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "document_text")
+public class DocumentText {
+    @Id
+    Long documentId; // same id as the Document
+
+    @Column(name = "content_zip", columnDefinition = "bytea")
+    byte[] contentZip;
+
+    // legacy uncompressed text, null once compacted
+    @JdbcTypeCode(SqlTypes.LONGVARCHAR)
+    @Column(name = "text", columnDefinition = "text")
+    String legacyText;
+
+    Integer charCount;
+
+    OffsetDateTime createdAt = OffsetDateTime.now();
+
+    @Transient
+    private String decoded;
+
+    /** Decompressed on first access only. */
+    public String getText() {
+        if (decoded == null) {
+            decoded = contentZip != null ? CompressedText.decompress(contentZip) : legacyText;
+        }
+        return decoded;
+    }
+
+    public void setText(String text) {
+        this.contentZip = text != null ? CompressedText.compress(text) : null;
+        this.legacyText = null;
+        this.charCount = text != null ? text.length() : null;
+        this.decoded = text;
+    }
+}
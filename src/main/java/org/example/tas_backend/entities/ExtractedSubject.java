@@ -7,7 +7,7 @@ import org.example.tas_backend.enums.Scale;
 import org.hibernate.envers.Audited;
 
 import static jakarta.persistence.FetchType.LAZY;
-import static jakarta.persistence.GenerationType.IDENTITY;
+import static jakarta.persistence.GenerationType.SEQUENCE;
 
 @Entity
 @Getter
@@ -15,7 +15,9 @@ import static jakarta.persistence.GenerationType.IDENTITY;
 @Audited(withModifiedFlag = true)
 @Table(indexes = {@Index(name="ix_subj_doc", columnList="document_id")})
 public class ExtractedSubject {
-    @Id @GeneratedValue(strategy=IDENTITY)
+    // pooled sequence (not IDENTITY) so Hibernate can batch the inserts; see IdSequenceInitializer
+    @Id @GeneratedValue(strategy=SEQUENCE, generator="extracted_subject_seq")
+    @SequenceGenerator(name="extracted_subject_seq", sequenceName="extracted_subject_seq", allocationSize=50)
     Long id;
     @ManyToOne(fetch=LAZY)
     Document document;
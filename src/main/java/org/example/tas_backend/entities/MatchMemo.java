@@ -0,0 +1,43 @@
+package org.example.tas_backend.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+import static jakarta.persistence.GenerationType.IDENTITY;
+
+/**
+ * Remote matcher result for a normalized label under a given catalog version (second cache level
+ * behind the in-memory memo). Rows are purged whenever targets or aliases change.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "match_memo",
+        uniqueConstraints = @UniqueConstraint(name = "ux_match_memo_label", columnNames = {"catalogVersion", "normLabel"}))
+public class MatchMemo {
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    Long id;
+
+    @Column(nullable = false, length = 64)
+    String catalogVersion;
+    @Column(nullable = false)
+    String normLabel;
+
+    String targetCode;   // null when the matcher found nothing
+    String method;
+    Double score;
+    String targetTitle;
+    Integer targetLevel;
+    Integer targetCoef;
+
+    OffsetDateTime createdAt = OffsetDateTime.now();
+}
@@ -0,0 +1,79 @@
+package org.example.tas_backend.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.example.tas_backend.enums.MatcherOutboxAction;
+import org.example.tas_backend.enums.MatcherOutboxStatus;
+
+import java.time.OffsetDateTime;
+
+import static jakarta.persistence.GenerationType.IDENTITY;
+
+/**
+ * A matcher (Django) side effect recorded in the transaction that caused it and performed later
+ * by {@code MatcherOutboxDispatcher}, with retries. {@code idempotencyKey} identifies the same
+ * side effect across enqueues, so a cleanup that is already pending is not queued twice.
+ * {@code pendingKey} holds the key only while the event is pending; its unique index enforces
+ * that (a partial unique index in all but name), and done or failed events release the key.
+ * {@code claimToken} names the dispatcher run that leased the event, see
+ * {@code MatcherOutboxRepo.claim}.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "matcher_outbox", indexes = {
+        @Index(name = "ix_matcher_outbox_due", columnList = "status, nextAttemptAt"),
+        @Index(name = "ux_matcher_outbox_pending_key", columnList = "pendingKey", unique = true),
+        @Index(name = "ix_matcher_outbox_claim", columnList = "claimToken")})
+public class MatcherOutboxEvent {
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    MatcherOutboxAction action;
+
+    @Column(nullable = false, length = 36)
+    String idempotencyKey;
+
+    @Column(length = 36)
+    String pendingKey;
+
+    @Column(length = 36)
+    String claimToken;
+
+    @Column(nullable = false)
+    String targetCode;
+
+    @Column(nullable = false, columnDefinition = "text")
+    String labels; // newline separated
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    MatcherOutboxStatus status = MatcherOutboxStatus.PENDING;
+
+    int attempts;
+    @Column(length = 1000)
+    String lastError;
+
+    OffsetDateTime createdAt = OffsetDateTime.now();
+    OffsetDateTime nextAttemptAt = OffsetDateTime.now();
+    OffsetDateTime completedAt;
+
+    @PrePersist
+    @PreUpdate
+    void syncPendingKey() {
+        pendingKey = status == MatcherOutboxStatus.PENDING ? idempotencyKey : null;
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.tas_backend.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * OCR response cached by the SHA-256 of the uploaded file, so identical uploads skip the OCR call.
+ * Stores the unfiltered service output; course filtering is re-applied on every use.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "ocr_result")
+public class OcrResult {
+    @Id
+    @Column(length = 64)
+    String contentHash;
+
+    @Lob
+    @Column(columnDefinition = "text")
+    String ocrText;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    List<String> courses;
+
+    OffsetDateTime createdAt = OffsetDateTime.now();
+}
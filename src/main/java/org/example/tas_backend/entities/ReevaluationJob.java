@@ -0,0 +1,46 @@
+package org.example.tas_backend.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.example.tas_backend.enums.ReevaluationJobStatus;
+
+import java.time.OffsetDateTime;
+
+import static jakarta.persistence.GenerationType.IDENTITY;
+
+/**
+ * A threshold re-evaluation run over all non-final applications, processed in keyset chunks.
+ * The cursor and counters are committed with each chunk, so a RUNNING job left behind by a
+ * restart resumes where it stopped.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "reevaluation_job", indexes = @Index(name = "ix_reevaluation_job_status", columnList = "status"))
+public class ReevaluationJob {
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    ReevaluationJobStatus status;
+
+    int threshold;
+    long lastApplicationId; // keyset cursor: applications up to this id are done
+    long total;
+    long processed;
+    long changed;
+    String message;
+
+    OffsetDateTime createdAt = OffsetDateTime.now();
+    OffsetDateTime finishedAt;
+}
@@ -6,16 +6,19 @@ import lombok.Setter;
 import org.hibernate.envers.Audited;
 
 import static jakarta.persistence.FetchType.LAZY;
-import static jakarta.persistence.GenerationType.IDENTITY;
+import static jakarta.persistence.GenerationType.SEQUENCE;
 
 @Entity
 @Getter
 @Setter
 @Audited(withModifiedFlag = true)
-@Table(uniqueConstraints = @UniqueConstraint(name="uk_map_subject_target", columnNames={"extractedSubject_id","targetSubject_id"}))
+@Table(uniqueConstraints = @UniqueConstraint(name="uk_map_subject_target", columnNames={"extractedSubject_id","targetSubject_id"}),
+        indexes = @Index(name="ix_map_auto_confidence", columnList="auto, confidence, id"))
 public class SubjectMapping {
+    // pooled sequence (not IDENTITY) so Hibernate can batch the inserts; see IdSequenceInitializer
     @Id
-    @GeneratedValue(strategy=IDENTITY)
+    @GeneratedValue(strategy=SEQUENCE, generator="subject_mapping_seq")
+    @SequenceGenerator(name="subject_mapping_seq", sequenceName="subject_mapping_seq", allocationSize=50)
     Long id;
     @ManyToOne(fetch=LAZY)
     ExtractedSubject extractedSubject;
@@ -0,0 +1,9 @@
+package org.example.tas_backend.enums;
+
+/** Orders of the admin applications list; every order ends on the id so keyset cursors are unique. */
+public enum ApplicationSort {
+    NEWEST,
+    OLDEST,
+    MOST_MATCHED,
+    LEAST_MATCHED
+}
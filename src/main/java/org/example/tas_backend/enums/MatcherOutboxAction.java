@@ -0,0 +1,6 @@
+package org.example.tas_backend.enums;
+
+public enum MatcherOutboxAction {
+    /** Delete the aliases of {@code targetCode} matching any of the labels. */
+    DELETE_ALIASES
+}
@@ -0,0 +1,7 @@
+package org.example.tas_backend.enums;
+
+public enum MatcherOutboxStatus {
+    PENDING,
+    DONE,
+    FAILED
+}
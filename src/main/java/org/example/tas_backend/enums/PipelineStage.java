@@ -0,0 +1,15 @@
+package org.example.tas_backend.enums;
+
+import java.util.Set;
+
+public enum PipelineStage {
+    QUEUED,
+    OCR,
+    MATCHING,
+    ACCEPTANCE,
+    COMPLETED,
+    FAILED;
+
+    /** Stages a submission is left in when the instance running its pipeline stops. */
+    public static final Set<PipelineStage> UNFINISHED = Set.of(QUEUED, OCR, MATCHING, ACCEPTANCE);
+}
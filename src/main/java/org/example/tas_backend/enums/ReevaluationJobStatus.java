@@ -0,0 +1,8 @@
+package org.example.tas_backend.enums;
+
+public enum ReevaluationJobStatus {
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
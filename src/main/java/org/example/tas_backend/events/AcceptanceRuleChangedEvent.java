@@ -0,0 +1,4 @@
+package org.example.tas_backend.events;
+
+/** Published when the acceptance threshold is saved, so the cached rule is reloaded after commit. */
+public record AcceptanceRuleChangedEvent(int thresholdCount) {}
@@ -0,0 +1,14 @@
+package org.example.tas_backend.events;
+
+import org.example.tas_backend.enums.ApplicationStatus;
+
+/**
+ * {@code count} applications moved from {@code from} to {@code to}. A null {@code from} means the
+ * applications were created.
+ */
+public record ApplicationStatusChangedEvent(ApplicationStatus from, ApplicationStatus to, long count) {
+
+    public ApplicationStatusChangedEvent(ApplicationStatus from, ApplicationStatus to) {
+        this(from, to, 1);
+    }
+}
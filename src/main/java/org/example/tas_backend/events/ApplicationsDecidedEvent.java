@@ -0,0 +1,11 @@
+package org.example.tas_backend.events;
+
+import org.example.tas_backend.dtos.ApplicationStatusNoticeDTO;
+
+import java.util.List;
+
+/** Admin decisions to announce to students on {@code /topic/app_status/{sub}} once committed. */
+public record ApplicationsDecidedEvent(List<Notice> notices) {
+
+    public record Notice(String studentSub, ApplicationStatusNoticeDTO payload) {}
+}
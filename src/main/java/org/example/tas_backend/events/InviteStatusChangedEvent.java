@@ -0,0 +1,6 @@
+package org.example.tas_backend.events;
+
+import org.example.tas_backend.enums.InviteStatus;
+
+/** An invite moved from {@code from} to {@code to}; a null {@code from} means it was created. */
+public record InviteStatusChangedEvent(InviteStatus from, InviteStatus to) {}
@@ -0,0 +1,9 @@
+package org.example.tas_backend.events;
+
+import java.util.Set;
+
+/**
+ * Published when admins re-map individual labels, so memoized matcher answers for just those
+ * normalized labels are evicted. Catalog-wide changes use {@link TargetCatalogChangedEvent}.
+ */
+public record MatchMemoStaleEvent(Set<String> normLabels, String reason) {}
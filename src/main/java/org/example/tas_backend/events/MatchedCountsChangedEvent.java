@@ -0,0 +1,7 @@
+package org.example.tas_backend.events;
+
+/**
+ * Published whenever applications' matched-subject counts or provisional statuses change, so
+ * aggregates over them (threshold simulation) can be recomputed.
+ */
+public record MatchedCountsChangedEvent(String reason) {}
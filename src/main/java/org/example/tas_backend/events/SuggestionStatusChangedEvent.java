@@ -0,0 +1,9 @@
+package org.example.tas_backend.events;
+
+import org.example.tas_backend.enums.SuggestionStatus;
+
+/**
+ * {@code count} mapping suggestions moved from {@code from} to {@code to}. A null {@code from}
+ * means they were created, a null {@code to} that they were deleted.
+ */
+public record SuggestionStatusChangedEvent(SuggestionStatus from, SuggestionStatus to, long count) {}
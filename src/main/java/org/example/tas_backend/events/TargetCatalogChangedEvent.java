@@ -0,0 +1,7 @@
+package org.example.tas_backend.events;
+
+/**
+ * Published whenever the target catalog or the set of accepted aliases changes, so in-memory
+ * views of the catalog (local matcher index, caches) can be rebuilt.
+ */
+public record TargetCatalogChangedEvent(String reason) {}
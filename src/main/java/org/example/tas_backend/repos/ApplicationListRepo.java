@@ -0,0 +1,19 @@
+package org.example.tas_backend.repos;
+
+import org.example.tas_backend.dtos.ApplicationListFilterDTO;
+import org.example.tas_backend.dtos.ApplicationListRowDTO;
+import org.example.tas_backend.enums.ApplicationSort;
+
+import java.util.List;
+
+public interface ApplicationListRepo {
+
+    /**
+     * One keyset page of the admin list in a single query: document count as a correlated
+     * subquery, matched count from the denormalized column. {@code afterId} (and
+     * {@code afterMatched} for the matched-count orders) is the last row of the previous page,
+     * null for the first page.
+     */
+    List<ApplicationListRowDTO> findAdminListRows(ApplicationListFilterDTO filter, ApplicationSort sort,
+                                                  Integer afterMatched, Long afterId, int limit);
+}
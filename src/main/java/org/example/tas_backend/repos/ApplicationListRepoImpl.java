@@ -0,0 +1,81 @@
+package org.example.tas_backend.repos;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.example.tas_backend.dtos.ApplicationListFilterDTO;
+import org.example.tas_backend.dtos.ApplicationListRowDTO;
+import org.example.tas_backend.enums.ApplicationSort;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+class ApplicationListRepoImpl implements ApplicationListRepo {
+
+    private static final String SELECT = """
+            select new org.example.tas_backend.dtos.ApplicationListRowDTO(
+                a.id, s.firstName, s.lastName, a.status, a.decisionBy, a.preferredProgram,
+                a.audit.createdAt, a.matchedCount,
+                (select count(d) from Document d where d.application = a))
+            from Application a
+            left join a.student s
+            where 1 = 1
+            """;
+
+    private final EntityManager em;
+
+    @Override
+    public List<ApplicationListRowDTO> findAdminListRows(ApplicationListFilterDTO filter, ApplicationSort sort,
+                                                         Integer afterMatched, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        Map<String, Object> params = new HashMap<>();
+
+        if (filter.status() != null) {
+            jpql.append(" and a.status = :status");
+            params.put("status", filter.status());
+        }
+        if (filter.decided() != null) {
+            jpql.append(filter.decided() ? " and a.decisionBy is not null" : " and a.decisionBy is null");
+        }
+        if (filter.program() != null) {
+            jpql.append(" and lower(a.preferredProgram) like :program");
+            params.put("program", "%" + filter.program().toLowerCase() + "%");
+        }
+        if (filter.submittedFrom() != null) {
+            jpql.append(" and a.audit.createdAt >= :from");
+            params.put("from", filter.submittedFrom());
+        }
+        if (filter.submittedBefore() != null) {
+            jpql.append(" and a.audit.createdAt < :before");
+            params.put("before", filter.submittedBefore());
+        }
+
+        if (afterId != null) {
+            switch (sort) {
+                case NEWEST -> jpql.append(" and a.id < :afterId");
+                case OLDEST -> jpql.append(" and a.id > :afterId");
+                case MOST_MATCHED -> jpql.append(
+                        " and (a.matchedCount < :afterMatched or (a.matchedCount = :afterMatched and a.id < :afterId))");
+                case LEAST_MATCHED -> jpql.append(
+                        " and (a.matchedCount > :afterMatched or (a.matchedCount = :afterMatched and a.id > :afterId))");
+            }
+            params.put("afterId", afterId);
+            if (sort == ApplicationSort.MOST_MATCHED || sort == ApplicationSort.LEAST_MATCHED) {
+                params.put("afterMatched", afterMatched);
+            }
+        }
+
+        jpql.append(switch (sort) {
+            case NEWEST -> " order by a.id desc";
+            case OLDEST -> " order by a.id asc";
+            case MOST_MATCHED -> " order by a.matchedCount desc, a.id desc";
+            case LEAST_MATCHED -> " order by a.matchedCount asc, a.id asc";
+        });
+
+        TypedQuery<ApplicationListRowDTO> query = em.createQuery(jpql.toString(), ApplicationListRowDTO.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
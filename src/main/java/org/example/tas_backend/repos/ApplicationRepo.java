@@ -1,14 +1,219 @@
 package org.example.tas_backend.repos;
 
+import jakarta.persistence.LockModeType;
 import org.example.tas_backend.entities.Application;
 import org.example.tas_backend.entities.StudentApplicant;
+import org.example.tas_backend.dtos.ApplicationDecisionTargetDTO;
+import org.example.tas_backend.dtos.ApplicationMatchCountDTO;
+import org.example.tas_backend.dtos.MappingViewRowDTO;
+import org.example.tas_backend.dtos.MatchedCountBucketDTO;
+import org.example.tas_backend.dtos.MatchedCountDriftDTO;
+import org.example.tas_backend.dtos.PipelineStateDTO;
+import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.enums.PipelineStage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface ApplicationRepo extends JpaRepository<Application, Long> {
+public interface ApplicationRepo extends JpaRepository<Application, Long>, ApplicationListRepo {
     Optional<Application> findTopByStudentOrderByIdDesc(StudentApplicant student);
     Optional<Application> findTopByStudent_KeycloakSubOrderByIdDesc(String keycloakSub);
-    List<Application> findTop20ByOrderByIdDesc();
+
+    /** Applications without a final admin decision; only these are (re-)evaluated. */
+    String NOT_FINAL = """
+            (a.decisionBy is null or a.status is null
+             or a.status not in (org.example.tas_backend.enums.ApplicationStatus.APPROVED,
+                                 org.example.tas_backend.enums.ApplicationStatus.REJECTED))
+            """;
+
+    @Query("select count(a) from Application a where " + NOT_FINAL)
+    long countReevaluable();
+
+    /** One keyset chunk of stored mapped-subject counts, in id order after {@code afterId}. */
+    @Query("""
+            select new org.example.tas_backend.dtos.ApplicationMatchCountDTO(a.id, a.status, a.matchedCount)
+            from Application a
+            where a.id > :afterId and
+            """ + NOT_FINAL + """
+            order by a.id
+            """)
+    List<ApplicationMatchCountDTO> findReevaluableMatchCountsAfter(@Param("afterId") long afterId, Pageable page);
+
+    /** Histogram of non-final applications by stored count and status, for threshold what-ifs. */
+    @Query("""
+            select new org.example.tas_backend.dtos.MatchedCountBucketDTO(a.matchedCount, a.status, count(a))
+            from Application a
+            where
+            """ + NOT_FINAL + """
+            group by a.matchedCount, a.status
+            """)
+    List<MatchedCountBucketDTO> findMatchedCountHistogram();
+
+    @Query("select a.matchedCount from Application a where a.id = :appId")
+    Optional<Integer> findMatchedCountById(@Param("appId") Long appId);
+
+    /** Atomic in-database increment/decrement, safe against concurrent mapping edits. */
+    @Modifying(flushAutomatically = true)
+    @Query("update Application a set a.matchedCount = a.matchedCount + :delta where a.id = :appId")
+    int adjustMatchedCount(@Param("appId") Long appId, @Param("delta") int delta);
+
+    /** Counts newly mapped subjects towards their applications in one statement. */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Application a
+            set a.matchedCount = a.matchedCount +
+                (select count(es) from ExtractedSubject es
+                 where es.id in :subjectIds and es.document.application = a)
+            where a.id in (select es.document.application.id from ExtractedSubject es
+                           where es.id in :subjectIds)
+            """)
+    int addMatchedSubjects(@Param("subjectIds") Collection<Long> subjectIds);
+
+    /** Applications whose stored count disagrees with their mappings. */
+    @Query("""
+            select new org.example.tas_backend.dtos.MatchedCountDriftDTO(a.id, a.matchedCount, count(t.id))
+            from Application a
+            left join Document d on d.application = a
+            left join ExtractedSubject es on es.document = d
+            left join SubjectMapping m on m.extractedSubject = es
+            left join m.targetSubject t
+            group by a.id, a.matchedCount
+            having count(t.id) <> a.matchedCount
+            """)
+    List<MatchedCountDriftDTO> findMatchedCountDrift();
+
+    /**
+     * Set-based backfill of counters still at their default 0 while the application has mapped
+     * subjects, i.e. applications created before the counter existed; no-op once they are set.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update Application a
+            set a.matchedCount = (select count(m) from SubjectMapping m
+                                  where m.extractedSubject.document.application = a and m.targetSubject is not null)
+            where a.matchedCount = 0
+              and exists (select m.id from SubjectMapping m
+                          where m.extractedSubject.document.application = a and m.targetSubject is not null)
+            """)
+    int backfillMatchedCounts();
+
+    /** Compare-and-set repair: skipped if the counter moved since the drift was read. */
+    @Modifying
+    @Query("""
+            update Application a set a.matchedCount = :actual
+            where a.id = :appId and a.matchedCount = :expected
+            """)
+    int repairMatchedCount(@Param("appId") Long appId,
+                           @Param("expected") int expected,
+                           @Param("actual") int actual);
+
+    /**
+     * Bulk provisional decision; re-checks the final-decision guard so an admin decision taken
+     * since the counts were read is never overwritten.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Application a
+            set a.status = case when a.id in :admissible
+                                then org.example.tas_backend.enums.ApplicationStatus.PRE_ADMISSIBLE
+                                else org.example.tas_backend.enums.ApplicationStatus.REJECTED end,
+                a.audit.updatedAt = :now
+            where a.id in :ids and
+            """ + NOT_FINAL)
+    int bulkApplyProvisionalStatus(@Param("ids") Collection<Long> ids,
+                                   @Param("admissible") Collection<Long> admissible,
+                                   @Param("now") Instant now);
+
+    /**
+     * Locks the given applications that are still open to provisional decisions, so an admin
+     * decision cannot land between this check and the bulk update.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a.id from Application a where a.id in :ids and " + NOT_FINAL)
+    List<Long> lockReevaluableIds(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select new org.example.tas_backend.dtos.ApplicationDecisionTargetDTO(a.id, a.status, s.keycloakSub)
+            from Application a left join a.student s
+            where a.id in :ids
+            """)
+    List<ApplicationDecisionTargetDTO> findDecisionTargets(@Param("ids") Collection<Long> ids);
+
+    /** Final admin decision for many applications at once; callers audit the rows themselves. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Application a
+            set a.status = :status, a.decisionBy = :actor, a.decisionDate = :now, a.audit.updatedAt = :now
+            where a.id in :ids
+            """)
+    int bulkDecide(@Param("ids") Collection<Long> ids,
+                   @Param("status") ApplicationStatus status,
+                   @Param("actor") String actor,
+                   @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update Application a set a.pipelineStage = :stage, a.pipelineError = :error where a.id = :appId")
+    int updatePipelineStage(@Param("appId") Long appId,
+                            @Param("stage") PipelineStage stage,
+                            @Param("error") String error);
+
+    /** Moves the pipeline from {@code expected} to {@code stage}; 0 when another caller got there first. */
+    @Transactional
+    @Modifying
+    @Query("""
+            update Application a set a.pipelineStage = :stage, a.pipelineError = null
+            where a.id = :appId and a.pipelineStage = :expected
+            """)
+    int compareAndSetPipelineStage(@Param("appId") Long appId,
+                                   @Param("expected") PipelineStage expected,
+                                   @Param("stage") PipelineStage stage);
+
+    String PIPELINE_STATE_SELECT = """
+            select new org.example.tas_backend.dtos.PipelineStateDTO(a.id, s.keycloakSub, a.pipelineStage, a.pipelineError)
+            from Application a left join a.student s
+            """;
+
+    @Query(PIPELINE_STATE_SELECT + "where a.id = :appId")
+    Optional<PipelineStateDTO> findPipelineState(@Param("appId") Long appId);
+
+    @Query(PIPELINE_STATE_SELECT + "where a.pipelineStage in :stages order by a.id")
+    List<PipelineStateDTO> findByPipelineStageIn(@Param("stages") Collection<PipelineStage> stages);
+
+    String MAPPING_VIEW_SELECT = """
+            select new org.example.tas_backend.dtos.MappingViewRowDTO(
+                a.id, s.firstName, s.lastName,
+                d.id, d.filename, d.textPreview, d.textLength,
+                es.id, es.rawName, es.rawScore, es.rawScale, es.year, es.sourceCoefficient,
+                m.id, t.code, t.name, m.confidence, m.method, m.normalizedScore)
+            from Application a
+            left join a.student s
+            left join Document d on d.application = a
+            left join ExtractedSubject es on es.document = d
+            left join SubjectMapping m on m.extractedSubject = es
+            left join m.targetSubject t
+            """;
+
+    /** Whole mapping view of one application in a single round-trip, ordered for grouping. */
+    @Query(MAPPING_VIEW_SELECT + """
+            where a.id = :appId
+            order by d.id, es.id, m.id
+            """)
+    List<MappingViewRowDTO> findMappingViewRows(@Param("appId") Long appId);
+
+    @Query(MAPPING_VIEW_SELECT + """
+            where a.id = (select max(a2.id) from Application a2 where a2.student.keycloakSub = :sub)
+            order by d.id, es.id, m.id
+            """)
+    List<MappingViewRowDTO> findLatestMappingViewRowsForStudent(@Param("sub") String sub);
 }
@@ -2,10 +2,25 @@ package org.example.tas_backend.repos;
 
 import org.example.tas_backend.entities.Document;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface DocumentRepo extends JpaRepository<Document, Long> {
     List<Document> findByApplication(org.example.tas_backend.entities.Application application);
     long countByApplication(org.example.tas_backend.entities.Application application);
+
+    /** Documents whose OCR outcome was never persisted (no text and no extracted subjects yet). */
+    @Query("""
+            select d.id from Document d
+            where d.application.id = :appId and d.textLength is null
+              and not exists (select es.id from ExtractedSubject es where es.document = d)
+            order by d.id
+            """)
+    List<Long> findIdsWithoutOcrByApplicationId(@Param("appId") Long appId);
+
+    boolean existsByIdAndApplication_Id(Long id, Long applicationId);
+
+    boolean existsByIdAndApplication_Student_KeycloakSub(Long id, String keycloakSub);
 }
@@ -0,0 +1,14 @@
+package org.example.tas_backend.repos;
+
+import org.example.tas_backend.entities.DocumentText;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface DocumentTextRepo extends JpaRepository<DocumentText, Long> {
+
+    @Query("select t from DocumentText t where t.contentZip is null and t.legacyText is not null order by t.documentId")
+    List<DocumentText> findUncompressed(Pageable page);
+}
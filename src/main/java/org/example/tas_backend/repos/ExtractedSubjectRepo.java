@@ -2,11 +2,22 @@ package org.example.tas_backend.repos;
 
 import org.example.tas_backend.entities.Document;
 import org.example.tas_backend.entities.ExtractedSubject;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ExtractedSubjectRepo extends JpaRepository<ExtractedSubject, Long> {
     List<ExtractedSubject> findByDocument(Document document);
     List<ExtractedSubject> findByDocumentIn(List<Document> documents);
+    List<ExtractedSubject> findByDocument_Application_IdOrderByIdAsc(Long applicationId);
+
+    /** Row-locks the subjects in id order, so writers of their mappings take turns. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select es.id from ExtractedSubject es where es in :subjects order by es.id")
+    List<Long> lockAll(@Param("subjects") Collection<ExtractedSubject> subjects);
 }
@@ -0,0 +1,16 @@
+package org.example.tas_backend.repos;
+
+import org.example.tas_backend.dtos.MappingReviewRowDTO;
+
+import java.util.List;
+
+public interface MappingReviewRepo {
+
+    /**
+     * One keyset page of weak auto mappings across all applications (confidence below
+     * {@code maxConfidence}, missing, or a fuzzy/LLM method), lowest confidence first with
+     * missing confidences before all others. {@code afterId} is the last row of the previous page
+     * (null for the first page) and {@code afterConfidence} its confidence, which may be null.
+     */
+    List<MappingReviewRowDTO> findReviewRows(float maxConfidence, Float afterConfidence, Long afterId, int limit);
+}
@@ -0,0 +1,46 @@
+package org.example.tas_backend.repos;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.example.tas_backend.dtos.MappingReviewRowDTO;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class MappingReviewRepoImpl implements MappingReviewRepo {
+
+    private static final String SELECT = """
+            select new org.example.tas_backend.dtos.MappingReviewRowDTO(
+                m.id, d.application.id, e.id, e.rawName, t.code, t.name, m.confidence, m.method)
+            from SubjectMapping m
+            join m.extractedSubject e
+            left join e.document d
+            left join m.targetSubject t
+            where m.auto = true
+              and (m.confidence is null or m.confidence < :maxConfidence
+                   or lower(m.method) like '%fuzzy%' or lower(m.method) like '%llm%')
+            """;
+
+    private final EntityManager em;
+
+    @Override
+    public List<MappingReviewRowDTO> findReviewRows(float maxConfidence, Float afterConfidence, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        if (afterId != null) {
+            jpql.append(afterConfidence == null
+                    ? " and ((m.confidence is null and m.id > :afterId) or m.confidence is not null)"
+                    : " and (m.confidence > :afterConfidence or (m.confidence = :afterConfidence and m.id > :afterId))");
+        }
+        // served by ix_map_auto_confidence (auto, confidence, id)
+        jpql.append(" order by m.confidence asc nulls first, m.id asc");
+
+        TypedQuery<MappingReviewRowDTO> query = em.createQuery(jpql.toString(), MappingReviewRowDTO.class)
+                .setParameter("maxConfidence", maxConfidence);
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+            if (afterConfidence != null) query.setParameter("afterConfidence", afterConfidence);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
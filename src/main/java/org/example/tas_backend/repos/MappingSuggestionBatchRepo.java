@@ -0,0 +1,15 @@
+package org.example.tas_backend.repos;
+
+import org.example.tas_backend.entities.MappingSuggestion;
+
+import java.util.List;
+
+public interface MappingSuggestionBatchRepo {
+
+    /**
+     * JDBC batch insert that skips rows hitting the (normLabel, proposedTargetCode, language)
+     * unique key instead of failing the transaction. Returns the number of rows inserted, also
+     * when the driver reports batched rows as SUCCESS_NO_INFO.
+     */
+    int insertIgnoringDuplicates(List<MappingSuggestion> suggestions);
+}
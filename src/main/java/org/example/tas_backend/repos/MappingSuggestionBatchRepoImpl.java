@@ -0,0 +1,61 @@
+package org.example.tas_backend.repos;
+
+import lombok.RequiredArgsConstructor;
+import org.example.tas_backend.entities.MappingSuggestion;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class MappingSuggestionBatchRepoImpl implements MappingSuggestionBatchRepo {
+
+    private static final String INSERT = """
+            insert into mapping_suggestion
+                (id, src_label, norm_label, proposed_target_code, language, score, method, status,
+                 reason, created_by, created_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            on conflict do nothing
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertIgnoringDuplicates(List<MappingSuggestion> suggestions) {
+        if (suggestions.isEmpty()) return 0;
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT, suggestions, suggestions.size(), (ps, s) -> {
+            if (s.getId() == null) s.setId(UUID.randomUUID());
+            ps.setObject(1, s.getId());
+            ps.setString(2, s.getSrcLabel());
+            ps.setString(3, s.getNormLabel());
+            ps.setString(4, s.getProposedTargetCode());
+            ps.setString(5, s.getLanguage());
+            ps.setDouble(6, s.getScore());
+            ps.setString(7, s.getMethod());
+            ps.setString(8, s.getStatus().name());
+            ps.setString(9, s.getReason());
+            ps.setString(10, s.getCreatedBy());
+            ps.setObject(11, s.getCreatedAt());
+        });
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int c : batch) {
+                // pgjdbc with reWriteBatchedInserts reports SUCCESS_NO_INFO for every row,
+                // conflicts included: count the fresh ids that made it in instead
+                if (c == Statement.SUCCESS_NO_INFO) return countStored(suggestions);
+                if (c > 0) inserted += c;
+            }
+        }
+        return inserted;
+    }
+
+    private int countStored(List<MappingSuggestion> suggestions) {
+        String in = String.join(",", Collections.nCopies(suggestions.size(), "?"));
+        Integer stored = jdbcTemplate.queryForObject(
+                "select count(*) from mapping_suggestion where id in (" + in + ")",
+                Integer.class, suggestions.stream().map(MappingSuggestion::getId).toArray());
+        return stored == null ? 0 : stored;
+    }
+}
@@ -9,7 +9,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface MappingSuggestionRepo extends JpaRepository<MappingSuggestion, UUID> {
+public interface MappingSuggestionRepo extends JpaRepository<MappingSuggestion, UUID>, MappingSuggestionBatchRepo {
     Optional<MappingSuggestion> findByNormLabelAndProposedTargetCodeAndLanguage(String n, String t, String l);
 
     List<MappingSuggestion> findBySrcLabelIgnoreCaseAndProposedTargetCodeAndStatus(String srcLabel,
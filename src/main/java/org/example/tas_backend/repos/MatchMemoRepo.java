@@ -0,0 +1,19 @@
+package org.example.tas_backend.repos;
+
+import org.example.tas_backend.entities.MatchMemo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface MatchMemoRepo extends JpaRepository<MatchMemo, Long> {
+    List<MatchMemo> findByCatalogVersionAndNormLabelIn(String catalogVersion, Collection<String> normLabels);
+
+    /** Drops the memo rows of these labels under every catalog version. */
+    @Modifying
+    @Query("delete from MatchMemo m where m.normLabel in :normLabels")
+    int deleteByNormLabelIn(@Param("normLabels") Collection<String> normLabels);
+}
@@ -0,0 +1,67 @@
+package org.example.tas_backend.repos;
+
+import org.example.tas_backend.entities.MatcherOutboxEvent;
+import org.example.tas_backend.enums.MatcherOutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface MatcherOutboxRepo extends JpaRepository<MatcherOutboxEvent, Long> {
+
+    @Query("""
+            select e.id from MatcherOutboxEvent e
+            where e.status = org.example.tas_backend.enums.MatcherOutboxStatus.PENDING and e.nextAttemptAt <= :now
+            order by e.id
+            """)
+    List<Long> findDueIds(@Param("now") OffsetDateTime now, Pageable page);
+
+    /**
+     * Leases the given events to one dispatcher run: those still pending and due get
+     * {@code token} and are not due again before {@code leaseUntil}. Concurrent claims on the
+     * same rows serialize on the row lock and re-check the due condition, so each event goes
+     * to exactly one run; the losers get 0 for it.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update MatcherOutboxEvent e set e.claimToken = :token, e.nextAttemptAt = :leaseUntil
+            where e.id in :ids
+              and e.status = org.example.tas_backend.enums.MatcherOutboxStatus.PENDING
+              and e.nextAttemptAt <= :now
+            """)
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("token") String token,
+              @Param("now") OffsetDateTime now,
+              @Param("leaseUntil") OffsetDateTime leaseUntil);
+
+    List<MatcherOutboxEvent> findByClaimTokenOrderByIdAsc(String claimToken);
+
+    List<MatcherOutboxEvent> findByStatusOrderByIdDesc(MatcherOutboxStatus status, Pageable page);
+
+    boolean existsByIdempotencyKeyAndStatus(String idempotencyKey, MatcherOutboxStatus status);
+
+    /**
+     * Queues a pending event unless one with the same key is already pending (unique pending_key);
+     * returns 0 when it was already queued.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            insert into matcher_outbox
+                (action, idempotency_key, pending_key, target_code, labels, status, attempts,
+                 created_at, next_attempt_at)
+            values (:action, :key, :key, :targetCode, :labels, 'PENDING', 0, :now, :now)
+            on conflict do nothing
+            """)
+    int insertPendingIfAbsent(@Param("action") String action,
+                              @Param("key") String idempotencyKey,
+                              @Param("targetCode") String targetCode,
+                              @Param("labels") String labels,
+                              @Param("now") OffsetDateTime now);
+}
@@ -0,0 +1,7 @@
+package org.example.tas_backend.repos;
+
+import org.example.tas_backend.entities.OcrResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OcrResultRepo extends JpaRepository<OcrResult, String> {
+}
@@ -0,0 +1,40 @@
+package org.example.tas_backend.repos;
+
+import jakarta.persistence.LockModeType;
+import org.example.tas_backend.entities.ReevaluationJob;
+import org.example.tas_backend.enums.ReevaluationJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReevaluationJobRepo extends JpaRepository<ReevaluationJob, Long> {
+
+    List<ReevaluationJob> findByStatusOrderByIdDesc(ReevaluationJobStatus status);
+
+    Optional<ReevaluationJob> findTopByOrderByIdDesc();
+
+    /** Held for the whole chunk, so a cancel waits for the chunk instead of being overwritten by it. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select j from ReevaluationJob j where j.id = :id")
+    Optional<ReevaluationJob> findForUpdate(@Param("id") Long id);
+
+    /** Ends a job that is still running; no-op (0) for finished jobs. */
+    @Transactional
+    @Modifying
+    @Query("""
+            update ReevaluationJob j
+            set j.status = :status, j.message = :message, j.finishedAt = :now
+            where j.id = :id and j.status = org.example.tas_backend.enums.ReevaluationJobStatus.RUNNING
+            """)
+    int finishRunning(@Param("id") Long id,
+                      @Param("status") ReevaluationJobStatus status,
+                      @Param("message") String message,
+                      @Param("now") OffsetDateTime now);
+}
@@ -5,17 +5,26 @@ import org.example.tas_backend.entities.SubjectMapping;
 import org.example.tas_backend.entities.TargetSubject;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public interface SubjectMappingRepo extends JpaRepository<SubjectMapping, Long> {
+public interface SubjectMappingRepo extends JpaRepository<SubjectMapping, Long>, MappingReviewRepo {
 
     @EntityGraph(attributePaths = {"targetSubject"})
     List<SubjectMapping> findByExtractedSubjectIn(List<ExtractedSubject> subjects);
 
     List<SubjectMapping> findByExtractedSubject(ExtractedSubject subject);
 
+    @Query("select distinct m.extractedSubject.id from SubjectMapping m where m.extractedSubject in :subjects")
+    Set<Long> findMappedSubjectIds(@Param("subjects") List<ExtractedSubject> subjects);
+
+    @EntityGraph(attributePaths = {"targetSubject", "extractedSubject.document"})
+    List<SubjectMapping> findByExtractedSubject_RawNameIgnoreCase(String rawName);
+
     Optional<SubjectMapping> findByExtractedSubjectAndTargetSubject(ExtractedSubject subject,
                                                                     TargetSubject target);
 }
@@ -2,53 +2,124 @@ package org.example.tas_backend.services;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.dtos.ApplicationMatchCountDTO;
 import org.example.tas_backend.entities.AcceptanceRule;
 import org.example.tas_backend.entities.Application;
+import org.example.tas_backend.entities.ReevaluationJob;
 import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.enums.ReevaluationJobStatus;
+import org.example.tas_backend.events.AcceptanceRuleChangedEvent;
+import org.example.tas_backend.events.ApplicationStatusChangedEvent;
+import org.example.tas_backend.events.MatchedCountsChangedEvent;
+import org.example.tas_backend.events.TargetCatalogChangedEvent;
 import org.example.tas_backend.repos.AcceptanceRuleRepo;
 import org.example.tas_backend.repos.ApplicationRepo;
+import org.example.tas_backend.repos.ReevaluationJobRepo;
 import org.example.tas_backend.repos.TargetSubjectRepo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AcceptanceService {
 
     private final AcceptanceRuleRepo ruleRepo;
     private final ApplicationRepo applicationRepo;
     private final MappingQueryService mappingQueryService;
     private final TargetSubjectRepo targetSubjectRepo;
+    private final BulkAuditWriter bulkAuditWriter;
+    private final ReevaluationJobRepo jobRepo;
+    private final ApplicationEventPublisher events;
+
+    // rule with the targetCount clamp applied; reloaded only after the rule or the catalog changes
+    private volatile RuleSnapshot cachedRule;
+
+    private record RuleSnapshot(Long id, int thresholdCount, int targetCount) {
+        AcceptanceRule toRule() {
+            // a fresh, unmanaged copy: callers may not change the cached values
+            AcceptanceRule r = new AcceptanceRule();
+            r.setId(id);
+            r.setThresholdCount(thresholdCount);
+            r.setTargetCount(targetCount);
+            return r;
+        }
+    }
 
-    @Transactional
     public AcceptanceRule getRule() {
-        AcceptanceRule rule = ruleRepo.findById(1L).orElseGet(() -> {
-            var r = new AcceptanceRule();
+        RuleSnapshot s = cachedRule;
+        if (s == null) {
+            synchronized (this) {
+                s = cachedRule;
+                if (s == null) {
+                    s = loadRule();
+                    cachedRule = s;
+                }
+            }
+        }
+        return s.toRule();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRuleChanged(AcceptanceRuleChangedEvent event) {
+        cachedRule = null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(TargetCatalogChangedEvent event) {
+        // target count changed: reload and re-apply the clamp
+        cachedRule = null;
+    }
+
+    /** Reads the rule and clamps it to the catalog size; writes only when the clamp changed something. */
+    private RuleSnapshot loadRule() {
+        AcceptanceRule r = ruleRepo.findById(1L).orElse(null);
+        boolean dirty = r == null;
+        if (r == null) {
+            r = new AcceptanceRule();
             r.setId(1L);
-            return ruleRepo.save(r);
-        });
+        }
         int targetCount = Math.toIntExact(targetSubjectRepo.count());
-        rule.setTargetCount(targetCount);
-        if (rule.getThresholdCount() > targetCount) {
-            rule.setThresholdCount(targetCount);
+        if (r.getTargetCount() != targetCount) {
+            r.setTargetCount(targetCount);
+            dirty = true;
         }
-        return ruleRepo.save(rule);
+        if (r.getThresholdCount() > targetCount) {
+            r.setThresholdCount(targetCount);
+            dirty = true;
+        }
+        if (dirty) r = ruleRepo.save(r);
+        return new RuleSnapshot(r.getId(), r.getThresholdCount(), r.getTargetCount());
     }
 
+    /** Stores the new threshold; applications are re-evaluated by a {@link ReevaluationJobService} job. */
     @Transactional
     public AcceptanceRule updateThreshold(int threshold) {
-        AcceptanceRule rule = getRule();
+        AcceptanceRule rule = ruleRepo.findById(1L).orElseGet(AcceptanceRule::new);
         int targetCount = Math.toIntExact(targetSubjectRepo.count());
         rule.setTargetCount(targetCount);
         if (threshold > targetCount) {
             threshold = targetCount;
         }
         rule.setThresholdCount(threshold);
-        ruleRepo.save(rule);
-        reevaluateApplications(rule);
-        return rule;
+        AcceptanceRule saved = ruleRepo.save(rule);
+        events.publishEvent(new AcceptanceRuleChangedEvent(saved.getThresholdCount()));
+        return saved;
     }
 
     /** Re-evaluate a single application after mappings change. */
@@ -60,12 +131,72 @@ public class AcceptanceService {
         applyRule(app, rule);
     }
 
+    /** Re-evaluates several applications against one rule read, e.g. after a bulk mapping override. */
     @Transactional
-    public void reevaluateApplications(AcceptanceRule rule) {
-        List<Application> apps = applicationRepo.findAll();
-        for (Application app : apps) {
-            applyRule(app, rule);
+    public void reevaluateApplications(Collection<Long> appIds) {
+        if (appIds.isEmpty()) return;
+        AcceptanceRule rule = getRule();
+        applicationRepo.findAllById(appIds).forEach(app -> applyRule(app, rule));
+    }
+
+    /**
+     * Next keyset chunk of a re-evaluation job, in one short transaction: bulk updates for the
+     * applications whose provisional status changes, one Envers revision, and the job's cursor and
+     * counters committed together so a restart resumes exactly after this chunk.
+     */
+    @Transactional
+    public ReevaluationJob reevaluateNextChunk(Long jobId, int chunkSize) {
+        ReevaluationJob job = jobRepo.findForUpdate(jobId)
+                .orElseThrow(() -> new NoSuchElementException("re-evaluation job not found: " + jobId));
+        if (job.getStatus() != ReevaluationJobStatus.RUNNING) return job;
+
+        List<ApplicationMatchCountDTO> rows = applicationRepo.findReevaluableMatchCountsAfter(
+                job.getLastApplicationId(), PageRequest.of(0, chunkSize));
+        int updated = applyProvisional(rows, job.getThreshold());
+
+        job.setProcessed(job.getProcessed() + rows.size());
+        job.setChanged(job.getChanged() + updated);
+        if (!rows.isEmpty()) job.setLastApplicationId(rows.get(rows.size() - 1).applicationId());
+        if (rows.size() < chunkSize) {
+            job.setStatus(ReevaluationJobStatus.COMPLETED);
+            job.setFinishedAt(OffsetDateTime.now());
+            log.info("Re-evaluation job {} at threshold {} completed: {} applications, {} status changes",
+                    job.getId(), job.getThreshold(), job.getProcessed(), job.getChanged());
         }
+        // the bulk update cleared the persistence context
+        return jobRepo.save(job);
+    }
+
+    private int applyProvisional(List<ApplicationMatchCountDTO> rows, int threshold) {
+        Map<Long, ApplicationStatusChangedEvent> transitions = new LinkedHashMap<>();
+        for (ApplicationMatchCountDTO row : rows) {
+            ApplicationStatus target = row.matchedCount() >= threshold
+                    ? ApplicationStatus.PRE_ADMISSIBLE
+                    : ApplicationStatus.REJECTED;
+            if (target != row.status()) {
+                transitions.put(row.applicationId(), new ApplicationStatusChangedEvent(row.status(), target));
+            }
+        }
+        if (transitions.isEmpty()) return 0;
+
+        // rows an admin decided since the chunk was read drop out here and are neither updated,
+        // audited nor counted
+        List<Long> open = applicationRepo.lockReevaluableIds(transitions.keySet());
+        if (open.isEmpty()) return 0;
+        List<Long> admissible = open.stream()
+                .filter(id -> transitions.get(id).to() == ApplicationStatus.PRE_ADMISSIBLE)
+                .toList();
+
+        // an empty IN list is not portable; -1 never matches an id
+        int updated = applicationRepo.bulkApplyProvisionalStatus(open,
+                admissible.isEmpty() ? List.of(-1L) : admissible, Instant.now());
+        bulkAuditWriter.recordModified("application", open, Set.of("status", "audit"));
+        events.publishEvent(new MatchedCountsChangedEvent("bulk re-evaluation"));
+        open.stream()
+                .map(transitions::get)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .forEach((t, n) -> events.publishEvent(new ApplicationStatusChangedEvent(t.from(), t.to(), n)));
+        return updated;
     }
 
     private void applyRule(Application app, AcceptanceRule rule) {
@@ -75,11 +206,16 @@ public class AcceptanceService {
             return;
         }
         int matched = mappingQueryService.countMappedSubjects(app.getId());
+        ApplicationStatus previous = app.getStatus();
         if (matched >= rule.getThresholdCount()) {
             app.setStatus(ApplicationStatus.PRE_ADMISSIBLE); // provisional accept
         } else {
             app.setStatus(ApplicationStatus.REJECTED); // provisional deny; admin can still override (admin UI will label as pre-rejected)
         }
         applicationRepo.save(app);
+        if (app.getStatus() != previous) {
+            events.publishEvent(new MatchedCountsChangedEvent("application re-evaluated: " + app.getId()));
+            events.publishEvent(new ApplicationStatusChangedEvent(previous, app.getStatus()));
+        }
     }
 }
@@ -0,0 +1,88 @@
+package org.example.tas_backend.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.dtos.MatchedCountBucketDTO;
+import org.example.tas_backend.dtos.ThresholdOutcomeDTO;
+import org.example.tas_backend.dtos.ThresholdSimulationDTO;
+import org.example.tas_backend.entities.AcceptanceRule;
+import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.events.MatchedCountsChangedEvent;
+import org.example.tas_backend.events.TargetCatalogChangedEvent;
+import org.example.tas_backend.repos.ApplicationRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only "what if" for {@code AcceptanceRule.thresholdCount}: pass/fail/flip counts for every
+ * threshold from 0 to the target count, derived from one aggregate query over the stored
+ * {@code matchedCount}. Cached until mappings, statuses or the target catalog change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AcceptanceSimulationService {
+
+    private final ApplicationRepo applicationRepo;
+    private final AcceptanceService acceptanceService;
+
+    private volatile Outcomes outcomes;
+
+    private record Outcomes(int targetCount, long applications, List<ThresholdOutcomeDTO> rows) {}
+
+    @Transactional(readOnly = true)
+    public ThresholdSimulationDTO simulate() {
+        AcceptanceRule rule = acceptanceService.getRule();
+        Outcomes o = outcomes(rule.getTargetCount());
+        return new ThresholdSimulationDTO(o.targetCount(), rule.getThresholdCount(), o.applications(), o.rows());
+    }
+
+    private Outcomes outcomes(int targetCount) {
+        // keyed on the target count too: the rule and this cache are invalidated by separate listeners
+        Outcomes o = outcomes;
+        if (o == null || o.targetCount() != targetCount) {
+            synchronized (this) {
+                o = outcomes;
+                if (o == null || o.targetCount() != targetCount) {
+                    o = compute(targetCount, applicationRepo.findMatchedCountHistogram());
+                    outcomes = o;
+                }
+            }
+        }
+        return o;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCountsChanged(MatchedCountsChangedEvent event) {
+        log.debug("Threshold simulation invalidated: {}", event.reason());
+        outcomes = null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(TargetCatalogChangedEvent event) {
+        // the target count bounds the simulated thresholds
+        outcomes = null;
+    }
+
+    /** A bucket flips when the status it would get at {@code t} differs from its current one. */
+    private static Outcomes compute(int targetCount, List<MatchedCountBucketDTO> histogram) {
+        long total = histogram.stream().mapToLong(MatchedCountBucketDTO::applications).sum();
+        List<ThresholdOutcomeDTO> rows = new ArrayList<>(targetCount + 1);
+        for (int t = 0; t <= targetCount; t++) {
+            long passing = 0;
+            long flipping = 0;
+            for (MatchedCountBucketDTO b : histogram) {
+                boolean pass = b.matchedCount() >= t;
+                if (pass) passing += b.applications();
+                ApplicationStatus target = pass ? ApplicationStatus.PRE_ADMISSIBLE : ApplicationStatus.REJECTED;
+                if (b.status() != target) flipping += b.applications();
+            }
+            rows.add(new ThresholdOutcomeDTO(t, passing, total - passing, flipping));
+        }
+        return new Outcomes(targetCount, total, List.copyOf(rows));
+    }
+}
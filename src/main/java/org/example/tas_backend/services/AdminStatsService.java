@@ -0,0 +1,208 @@
+package org.example.tas_backend.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.dtos.AdminStatsDTO;
+import org.example.tas_backend.dtos.StatusCountDTO;
+import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.enums.InviteStatus;
+import org.example.tas_backend.enums.SuggestionStatus;
+import org.example.tas_backend.events.ApplicationStatusChangedEvent;
+import org.example.tas_backend.events.InviteStatusChangedEvent;
+import org.example.tas_backend.events.SuggestionStatusChangedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admin dashboard counts (applications, mapping suggestions and invites by status) kept in memory
+ * so open dashboards never scan those tables. Counters are seeded by one aggregate query, moved by
+ * the status-changed events after commit, and every change is pushed as a delta on
+ * {@value #TOPIC}. The periodic resync re-runs the seed query and pushes whatever drifted
+ * (bulk SQL, races with concurrent decisions, a missed event).
+ * <p>
+ * Events and the resync reset share one lock. Events that arrive while the resync query runs
+ * are applied at once and replayed on top of the reset, because the query may not see them.
+ * What is left is approximate: an event committed before the query started but delivered only
+ * after it is counted twice until the next resync.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminStatsService {
+
+    static final String TOPIC = "/topic/admin/stats";
+
+    private static final String COUNTS_SQL = """
+            select 'application' as kind, status, count(*) as n from application where status is not null group by status
+            union all
+            select 'suggestion', status, count(*) from mapping_suggestion group by status
+            union all
+            select 'invite', status, count(*) from invite group by status
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SimpMessagingTemplate broker;
+
+    private final Counters<ApplicationStatus> applications = new Counters<>(ApplicationStatus.class);
+    private final Counters<SuggestionStatus> suggestions = new Counters<>(SuggestionStatus.class);
+    private final Counters<InviteStatus> invites = new Counters<>(InviteStatus.class);
+
+    private final Object resyncLock = new Object();
+    // guarded by this
+    private boolean resyncing;
+    private final List<Runnable> duringResync = new ArrayList<>();
+
+    public AdminStatsDTO snapshot() {
+        return new AdminStatsDTO(applications.snapshot(), suggestions.snapshot(), invites.snapshot(),
+                false, Instant.now());
+    }
+
+    /** Seeds the counters at startup, then corrects drift; pushes only what changed. */
+    @Scheduled(initialDelayString = "${admin.stats.resync-initial-delay-ms:0}",
+            fixedDelayString = "${admin.stats.resync-interval-ms:600000}")
+    public void resync() {
+        synchronized (resyncLock) {
+            startResync();
+            try {
+                resyncCounters();
+            } finally {
+                endResync();
+            }
+        }
+    }
+
+    private void resyncCounters() {
+        Map<ApplicationStatus, Long> actualApps = new EnumMap<>(ApplicationStatus.class);
+        Map<SuggestionStatus, Long> actualSuggestions = new EnumMap<>(SuggestionStatus.class);
+        Map<InviteStatus, Long> actualInvites = new EnumMap<>(InviteStatus.class);
+        List<StatusCountDTO> rows = jdbcTemplate.query(COUNTS_SQL,
+                (rs, i) -> new StatusCountDTO(rs.getString(1), rs.getString(2), rs.getLong(3)));
+        for (StatusCountDTO row : rows) {
+            try {
+                switch (row.kind()) {
+                    case "application" -> actualApps.put(ApplicationStatus.valueOf(row.status()), row.count());
+                    case "suggestion" -> actualSuggestions.put(SuggestionStatus.valueOf(row.status()), row.count());
+                    case "invite" -> actualInvites.put(InviteStatus.valueOf(row.status()), row.count());
+                    default -> { }
+                }
+            } catch (IllegalArgumentException ex) {
+                log.warn("Ignoring unknown {} status {} in admin stats", row.kind(), row.status());
+            }
+        }
+
+        AdminStatsDTO drift = reset(actualApps, actualSuggestions, actualInvites);
+        if (!drift.applications().isEmpty() || !drift.suggestions().isEmpty() || !drift.invites().isEmpty()) {
+            log.debug("Admin stats resync moved {} / {} / {}", drift.applications(), drift.suggestions(), drift.invites());
+            broker.convertAndSend(TOPIC, drift);
+        }
+    }
+
+    private synchronized void startResync() {
+        resyncing = true;
+        duringResync.clear();
+    }
+
+    private synchronized void endResync() {
+        resyncing = false;
+        duringResync.clear();
+    }
+
+    /** Counters := database counts plus the events seen since the query started; returns the net change. */
+    private synchronized AdminStatsDTO reset(Map<ApplicationStatus, Long> actualApps,
+                                             Map<SuggestionStatus, Long> actualSuggestions,
+                                             Map<InviteStatus, Long> actualInvites) {
+        Map<ApplicationStatus, Long> appsBefore = applications.snapshot();
+        Map<SuggestionStatus, Long> suggestionsBefore = suggestions.snapshot();
+        Map<InviteStatus, Long> invitesBefore = invites.snapshot();
+        applications.reset(actualApps);
+        suggestions.reset(actualSuggestions);
+        invites.reset(actualInvites);
+        duringResync.forEach(Runnable::run);
+        return new AdminStatsDTO(applications.changedSince(appsBefore), suggestions.changedSince(suggestionsBefore),
+                invites.changedSince(invitesBefore), true, Instant.now());
+    }
+
+    /** Applies one event's move now and, while a resync is running, again after its reset. */
+    private synchronized <E extends Enum<E>> Map<E, Long> apply(Counters<E> counters, E from, E to, long count) {
+        if (resyncing) duringResync.add(() -> counters.move(from, to, count));
+        return counters.move(from, to, count);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onApplicationStatusChanged(ApplicationStatusChangedEvent event) {
+        push(apply(applications, event.from(), event.to(), event.count()), Map.of(), Map.of());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSuggestionStatusChanged(SuggestionStatusChangedEvent event) {
+        push(Map.of(), apply(suggestions, event.from(), event.to(), event.count()), Map.of());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInviteStatusChanged(InviteStatusChangedEvent event) {
+        push(Map.of(), Map.of(), apply(invites, event.from(), event.to(), 1));
+    }
+
+    private void push(Map<ApplicationStatus, Long> apps, Map<SuggestionStatus, Long> sugg, Map<InviteStatus, Long> inv) {
+        if (apps.isEmpty() && sugg.isEmpty() && inv.isEmpty()) return;
+        broker.convertAndSend(TOPIC, new AdminStatsDTO(apps, sugg, inv, true, Instant.now()));
+    }
+
+    /** One striped counter per status; reads are a sum, so they are only as atomic as the dashboard needs. */
+    private static final class Counters<E extends Enum<E>> {
+
+        private final Class<E> type;
+        private final Map<E, LongAdder> adders;
+
+        Counters(Class<E> type) {
+            this.type = type;
+            this.adders = new EnumMap<>(type);
+            for (E e : type.getEnumConstants()) adders.put(e, new LongAdder());
+        }
+
+        Map<E, Long> move(E from, E to, long count) {
+            Map<E, Long> delta = new EnumMap<>(type);
+            if (from == to || count == 0) return delta;
+            if (from != null) {
+                adders.get(from).add(-count);
+                delta.put(from, -count);
+            }
+            if (to != null) {
+                adders.get(to).add(count);
+                delta.put(to, count);
+            }
+            return delta;
+        }
+
+        void reset(Map<E, Long> actual) {
+            for (E e : type.getEnumConstants()) {
+                adders.get(e).add(actual.getOrDefault(e, 0L) - adders.get(e).sum());
+            }
+        }
+
+        Map<E, Long> changedSince(Map<E, Long> before) {
+            Map<E, Long> delta = new EnumMap<>(type);
+            for (E e : type.getEnumConstants()) {
+                long diff = adders.get(e).sum() - before.getOrDefault(e, 0L);
+                if (diff != 0) delta.put(e, diff);
+            }
+            return delta;
+        }
+
+        Map<E, Long> snapshot() {
+            Map<E, Long> out = new EnumMap<>(type);
+            adders.forEach((e, adder) -> out.put(e, adder.sum()));
+            return out;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestTemplate;
 
@@ -26,6 +27,8 @@ public class AiService {
     private final OAuthClientTokenService tokens;
     private final String matcherBase;
     private final ObjectMapper objectMapper;
+    // last catalog version the matcher accepted in full; later calls reference it by version only
+    private volatile String acknowledgedCatalogVersion;
 
     public AiService(RestClient.Builder b,
                          RestTemplate restTemplate,
@@ -119,13 +122,13 @@ public class AiService {
 
     public void deleteAlias(String idOrUuid) {
         log.debug("Calling AI deleteAlias id={}", idOrUuid);
-        auth(rest.delete().uri("aliases/{id}/"))
+        auth(rest.delete().uri("aliases/{id}/", idOrUuid))
                 .retrieve().toBodilessEntity();
     }
 
     // ---------- Matching ----------
     public MatchResponseDTO matchSubjects(List<String> subjects) {
-        return matchSubjects(subjects, null);
+        return matchSubjects(subjects, (List<java.util.Map<String, Object>>) null);
     }
 
     public MatchResponseDTO matchSubjects(List<String> subjects,
@@ -140,7 +143,67 @@ public class AiService {
             payload.put("targets", targets);
             log.debug("Including {} targets in matcher payload", targets.size());
         }
-        log.debug("Calling AI matchSubjects payload={} ({} items)", payload, subjects.size());
+        return postMatch(payload, subjects.size());
+    }
+
+    /**
+     * Versioned catalog protocol: every call carries {@code catalog_version}; the full
+     * {@code targets} list is only sent while the matcher has not yet echoed that version back
+     * in a response. If the matcher no longer knows the version (409/412, e.g. after a restart),
+     * or answers a version-only call without echoing it (an older replica that ignores the
+     * version), the call is retried once with the full catalog.
+     */
+    public MatchResponseDTO matchSubjects(List<String> subjects, TargetCatalogService.CatalogSnapshot catalog) {
+        if (subjects == null || subjects.isEmpty()) {
+            log.debug("matchSubjects called with empty subjects list");
+            return null;
+        }
+        boolean sendCatalog = !catalog.version().equals(acknowledgedCatalogVersion);
+        MatchResponseDTO response;
+        try {
+            response = postMatch(versionedPayload(subjects, catalog, sendCatalog), subjects.size());
+        } catch (HttpClientErrorException ex) {
+            int status = ex.getStatusCode().value();
+            if (sendCatalog || (status != 409 && status != 412)) throw ex;
+            log.info("Matcher does not know catalog {} (status {}); resending full catalog", catalog.version(), status);
+            return resendWithCatalog(subjects, catalog);
+        }
+        if (echoes(response, catalog)) {
+            acknowledgedCatalogVersion = catalog.version();
+            return response;
+        }
+        acknowledgedCatalogVersion = null;
+        if (sendCatalog) return response;
+        log.info("Matcher did not confirm catalog {}; resending full catalog", catalog.version());
+        return resendWithCatalog(subjects, catalog);
+    }
+
+    private MatchResponseDTO resendWithCatalog(List<String> subjects, TargetCatalogService.CatalogSnapshot catalog) {
+        acknowledgedCatalogVersion = null;
+        MatchResponseDTO response = postMatch(versionedPayload(subjects, catalog, true), subjects.size());
+        if (echoes(response, catalog)) acknowledgedCatalogVersion = catalog.version();
+        return response;
+    }
+
+    private static boolean echoes(MatchResponseDTO response, TargetCatalogService.CatalogSnapshot catalog) {
+        return response != null && catalog.version().equals(response.catalogVersion());
+    }
+
+    private java.util.Map<String, Object> versionedPayload(List<String> subjects,
+                                                           TargetCatalogService.CatalogSnapshot catalog,
+                                                           boolean includeTargets) {
+        var payload = new java.util.HashMap<String, Object>();
+        payload.put("subjects", subjects);
+        payload.put("catalog_version", catalog.version());
+        if (includeTargets && !catalog.payload().isEmpty()) {
+            payload.put("targets", catalog.payload());
+            log.debug("Including {} targets for catalog {} in matcher payload", catalog.payload().size(), catalog.version());
+        }
+        return payload;
+    }
+
+    private MatchResponseDTO postMatch(java.util.Map<String, Object> payload, int items) {
+        log.debug("Calling AI matchSubjects payload={} ({} items)", payload, items);
 
         String json;
         try {
@@ -0,0 +1,84 @@
+package org.example.tas_backend.services;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.dtos.ApplicationDecisionTargetDTO;
+import org.example.tas_backend.dtos.ApplicationStatusNoticeDTO;
+import org.example.tas_backend.dtos.BulkDecisionResultDTO;
+import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.events.ApplicationStatusChangedEvent;
+import org.example.tas_backend.events.ApplicationsDecidedEvent;
+import org.example.tas_backend.events.MatchedCountsChangedEvent;
+import org.example.tas_backend.repos.ApplicationRepo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Final admin decisions for many applications at once: one read, one bulk UPDATE and one Envers
+ * revision per request. Students are notified by {@link StudentStatusNotifier} after commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApplicationDecisionService {
+
+    /** Bounds the IN lists of the read, the update and the audit copy. */
+    static final int MAX_BATCH = 1000;
+
+    private final ApplicationRepo applicationRepo;
+    private final BulkAuditWriter bulkAuditWriter;
+    private final ApplicationEventPublisher events;
+
+    /**
+     * @param status {@code APPROVED} or {@code REJECTED}
+     * @throws IllegalArgumentException when no ids or more than {@value #MAX_BATCH} are given
+     */
+    @Transactional
+    public BulkDecisionResultDTO decideAll(Collection<Long> applicationIds, ApplicationStatus status, String actor) {
+        Set<Long> requested = applicationIds == null ? Set.of() : applicationIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (requested.isEmpty()) throw new IllegalArgumentException("applicationIds is required");
+        if (requested.size() > MAX_BATCH) {
+            throw new IllegalArgumentException("at most " + MAX_BATCH + " applications per request");
+        }
+
+        List<ApplicationDecisionTargetDTO> targets = applicationRepo.findDecisionTargets(requested);
+        List<Long> found = targets.stream().map(ApplicationDecisionTargetDTO::applicationId).toList();
+        List<Long> notFound = new ArrayList<>(requested);
+        notFound.removeAll(Set.copyOf(found));
+        if (found.isEmpty()) return new BulkDecisionResultDTO(status.name(), 0, notFound);
+
+        Instant now = Instant.now();
+        int decided = applicationRepo.bulkDecide(found, status, actor, now);
+        bulkAuditWriter.recordModified("application", found, Set.of("status", "decision_by", "decision_date", "audit"));
+
+        // final decisions take the applications out of the threshold simulation
+        events.publishEvent(new MatchedCountsChangedEvent("applications decided: " + decided));
+        Map<ApplicationStatus, Long> transitions = new HashMap<>(); // status may be null
+        for (ApplicationDecisionTargetDTO t : targets) {
+            if (t.status() != status) transitions.merge(t.status(), 1L, Long::sum);
+        }
+        transitions.forEach((from, n) -> events.publishEvent(new ApplicationStatusChangedEvent(from, status, n)));
+        events.publishEvent(new ApplicationsDecidedEvent(targets.stream()
+                .filter(t -> t.studentSub() != null)
+                .map(t -> new ApplicationsDecidedEvent.Notice(t.studentSub(),
+                        new ApplicationStatusNoticeDTO(t.applicationId(), status.name(), now)))
+                .toList()));
+
+        log.info("{} decided {} applications as {} ({} not found)", actor, decided, status, notFound.size());
+        return new BulkDecisionResultDTO(status.name(), decided, notFound);
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.tas_backend.services;
+
+import lombok.RequiredArgsConstructor;
+import org.example.tas_backend.dtos.ApplicationListFilterDTO;
+import org.example.tas_backend.dtos.ApplicationListRowDTO;
+import org.example.tas_backend.dtos.ApplicationPageDTO;
+import org.example.tas_backend.dtos.ApplicationSummaryDTO;
+import org.example.tas_backend.enums.ApplicationSort;
+import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.repos.ApplicationRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Admin applications list: keyset pages with filters, one query per page. The cursor is opaque
+ * to clients (base64 of sort, matched count and id of the last row) and only valid for the sort
+ * it was issued for.
+ */
+@Service
+@RequiredArgsConstructor
+public class ApplicationListService {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    private final ApplicationRepo applicationRepo;
+    private final AcceptanceService acceptanceService;
+
+    /**
+     * @param status display status (as shown by the admin list, including PRE_REJECTED), optional
+     * @throws IllegalArgumentException for an unknown status or sort, or a malformed cursor
+     */
+    @Transactional(readOnly = true)
+    public ApplicationPageDTO page(String status, String program, LocalDate from, LocalDate to,
+                                   String sort, Integer size, String cursor) {
+        ApplicationSort order = StringUtils.hasText(sort)
+                ? ApplicationSort.valueOf(sort.trim().toUpperCase(Locale.ROOT))
+                : ApplicationSort.NEWEST;
+        int limit = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        ApplicationListFilterDTO filter = filter(status, program, from, to);
+
+        Integer afterMatched = null;
+        Long afterId = null;
+        if (StringUtils.hasText(cursor)) {
+            String[] parts = decode(cursor);
+            if (!order.name().equals(parts[0])) {
+                throw new IllegalArgumentException("cursor was issued for sort " + parts[0]);
+            }
+            afterMatched = Integer.valueOf(parts[1]);
+            afterId = Long.valueOf(parts[2]);
+        }
+
+        // one extra row tells whether there is a next page
+        List<ApplicationListRowDTO> rows = applicationRepo.findAdminListRows(filter, order, afterMatched, afterId, limit + 1);
+        boolean more = rows.size() > limit;
+        if (more) rows = rows.subList(0, limit);
+
+        Integer threshold = acceptanceService.getRule().getThresholdCount();
+        List<ApplicationSummaryDTO> items = rows.stream().map(r -> summary(r, threshold)).toList();
+        String next = null;
+        if (more) {
+            ApplicationListRowDTO last = rows.get(rows.size() - 1);
+            next = encode(order.name() + ":" + last.matchedCount() + ":" + last.id());
+        }
+        return new ApplicationPageDTO(items, next);
+    }
+
+    /** Admin-facing status: provisional rejections (no decisionBy) are shown as PRE_REJECTED. */
+    public static String adminStatus(ApplicationStatus status, String decisionBy) {
+        if (status == null) return ApplicationStatus.SUBMITTED.name();
+        if (status == ApplicationStatus.REJECTED && decisionBy == null) return "PRE_REJECTED";
+        return status.name();
+    }
+
+    private static ApplicationListFilterDTO filter(String status, String program, LocalDate from, LocalDate to) {
+        ApplicationStatus st = null;
+        Boolean decided = null;
+        if (StringUtils.hasText(status)) {
+            String s = status.trim().toUpperCase(Locale.ROOT);
+            if (s.equals("PRE_REJECTED")) {
+                st = ApplicationStatus.REJECTED;
+                decided = false;
+            } else {
+                st = ApplicationStatus.valueOf(s);
+                if (st == ApplicationStatus.REJECTED) decided = true;
+            }
+        }
+        return new ApplicationListFilterDTO(st, decided,
+                StringUtils.hasText(program) ? program.trim() : null,
+                from != null ? from.atStartOfDay().toInstant(ZoneOffset.UTC) : null,
+                to != null ? to.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC) : null);
+    }
+
+    private static ApplicationSummaryDTO summary(ApplicationListRowDTO r, Integer threshold) {
+        String name = ((r.firstName() != null ? r.firstName().trim() : "") + " "
+                + (r.lastName() != null ? r.lastName().trim() : "")).trim();
+        return new ApplicationSummaryDTO(r.id(), name, adminStatus(r.status(), r.decisionBy()),
+                Math.toIntExact(r.documentsCount()), r.matchedCount(), threshold,
+                r.preferredProgram(), r.submittedAt());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("malformed cursor");
+        }
+        if (parts.length != 3) throw new IllegalArgumentException("malformed cursor");
+        return parts;
+    }
+}
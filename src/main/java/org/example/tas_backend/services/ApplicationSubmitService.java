@@ -4,30 +4,28 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.example.tas_backend.dtos.ApplicationSubmitDTO;
 import org.example.tas_backend.dtos.AddressDTO;
-import org.example.tas_backend.dtos.MatchResponseDTO;
-import org.example.tas_backend.dtos.MatchTraceDTO;
+import org.example.tas_backend.dtos.OcrOutcomeDTO;
 import org.example.tas_backend.dtos.OcrResponse;
+import org.example.tas_backend.dtos.PipelineStateDTO;
 import org.example.tas_backend.entities.Application;
 import org.example.tas_backend.entities.Document;
 import org.example.tas_backend.entities.ExtractedSubject;
-import org.example.tas_backend.entities.SubjectMapping;
+import org.example.tas_backend.entities.OcrResult;
 import org.example.tas_backend.entities.StudentApplicant;
-import org.example.tas_backend.entities.TargetSubject;
 import org.example.tas_backend.entities.Address;
 import org.example.tas_backend.enums.ApplicationStatus;
 import org.example.tas_backend.enums.DocumentType;
+import org.example.tas_backend.enums.PipelineStage;
+import org.example.tas_backend.events.ApplicationStatusChangedEvent;
 import org.example.tas_backend.repos.ApplicationRepo;
 import org.example.tas_backend.repos.DocumentRepo;
 import org.example.tas_backend.repos.ExtractedSubjectRepo;
-import org.example.tas_backend.repos.SubjectMappingRepo;
+import org.example.tas_backend.repos.OcrResultRepo;
 import org.example.tas_backend.repos.StudentApplicantRepo;
-import org.example.tas_backend.repos.TargetSubjectRepo;
-import org.example.tas_backend.repos.MappingSuggestionRepo;
-import org.example.tas_backend.entities.MappingSuggestion;
-import org.example.tas_backend.enums.SuggestionStatus;
-import org.example.tas_backend.services.AcceptanceService;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -40,17 +38,11 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.io.ByteArrayOutputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.HashMap;
 import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.UUID;
 import java.text.Normalizer;
 
 import lombok.extern.slf4j.Slf4j;
@@ -60,9 +52,6 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ApplicationSubmitService {
 
-    @Value("${storage.upload-root:uploads}")
-    private String uploadRoot;
-
     // MUST include trailing slash:  http://127.0.0.1:8000/ocr/
     @Value("${ai.ocr-url}")
     private String ocrUrl;
@@ -71,22 +60,23 @@ public class ApplicationSubmitService {
     private final ApplicationRepo applicationRepo;
     private final DocumentRepo documentRepo;
     private final ExtractedSubjectRepo extractedSubjectRepo;
-    private final SubjectMappingRepo subjectMappingRepo;
-    private final TargetSubjectRepo targetSubjectRepo;
-    private final MappingSuggestionRepo mappingSuggestionRepo;
-    private final AiService aiService;
-    private final AcceptanceService acceptanceService;
+    private final SubjectMatchingService matchingService;
+    private final SubmissionResultWriter resultWriter;
+    private final OcrResultRepo ocrResultRepo;
+    private final BlobStore blobStore;
+    private final ApplicationEventPublisher events;
 
     private final RestTemplate restTemplate;
 
-    // Used to avoid duplicate subject rows when mixing OCR array + fallback parsing
-    private final java.util.Set<String> extractedLabels = new java.util.HashSet<>();
-
     private StudentApplicant findBySub(String sub) {
         return studentRepo.findByKeycloakSub(sub)
                 .orElseThrow(() -> new NoSuchElementException("student profile not found"));
     }
 
+    /**
+     * Persists the profile changes, the {@link Application} and its uploaded {@link Document}s.
+     * OCR, matching and acceptance run afterwards in {@link SubmissionPipeline}.
+     */
     @Transactional
     public Application submit(String sub, ApplicationSubmitDTO dto, List<MultipartFile> files) throws IOException {
         StudentApplicant student = findBySub(sub);
@@ -109,16 +99,12 @@ public class ApplicationSubmitService {
         app.setPreferredProgram(dto.preferredProgram());
         app.setLanguageLevel(dto.languageLevel());
         app.setStatus(ApplicationStatus.SUBMITTED);
+        app.setPipelineStage(PipelineStage.QUEUED);
 
         app = applicationRepo.save(app);
-
-        List<ExtractedSubject> pendingExtracted = new ArrayList<>();
+        events.publishEvent(new ApplicationStatusChangedEvent(null, ApplicationStatus.SUBMITTED));
 
         if (files != null && !files.isEmpty()) {
-            String subKey = student.getKeycloakSub();
-            Path userDir = Path.of(uploadRoot, subKey);
-            Files.createDirectories(userDir);
-
             for (MultipartFile mf : files) {
                 if (mf.isEmpty()) continue;
 
@@ -126,250 +112,167 @@ public class ApplicationSubmitService {
                 String cleanName = StringUtils.cleanPath(
                         originalName != null ? originalName : "uploaded-file"
                 );
-                String newName = UUID.randomUUID() + "_" + cleanName;
-                Path target = userDir.resolve(newName);
-
-                mf.transferTo(target);
+                // content-addressed: a re-uploaded transcript reuses the stored blob (and its cached OCR)
+                BlobStore.StoredBlob blob = blobStore.store(mf, cleanName);
 
                 Document doc = new Document();
                 doc.setApplication(app);
                 doc.setType(DocumentType.TRANSCRIPT);
                 doc.setFilename(cleanName);
-                doc.setStorageKey(target.toString());
+                doc.setStorageKey(blob.path().toString());
+                doc.setContentHash(blob.sha256());
                 doc.setMimeType(mf.getContentType());
-                doc.setSizeBytes(mf.getSize());
+                doc.setSizeBytes(blob.sizeBytes());
                 doc.setOcrJobId(null);
-                doc.setRawText(null);
-
-                doc = documentRepo.save(doc);
-
-                // ======================
-                // *** OCR CALL ***
-                // ======================
-                try {
-                    FileSystemResource fileResource = new FileSystemResource(target.toFile());
-
-                    // Step 2: sanity check
-                    log.debug("OCR sanity file exists={} readable={} sizeBytes={} path={}",
-                            fileResource.exists(), fileResource.isReadable(), Files.size(target), target);
-
-                    // Build multipart body manually to force Content-Length (Django/WSGI rejects chunked)
-                    String boundary = "----TASBoundary" + UUID.randomUUID();
-                    String contentType = StringUtils.hasText(mf.getContentType())
-                            ? mf.getContentType()
-                            : MediaType.APPLICATION_OCTET_STREAM_VALUE;
-
-                    ByteArrayOutputStream bos = new ByteArrayOutputStream();
-                    // opening boundary + headers
-                    bos.write(("--" + boundary + "\r\n").getBytes(StandardCharsets.UTF_8));
-                    bos.write(("Content-Disposition: form-data; name=\"image\"; filename=\"" +
-                            fileResource.getFilename() + "\"\r\n").getBytes(StandardCharsets.UTF_8));
-                    bos.write(("Content-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
-                    // file bytes
-                    bos.write(Files.readAllBytes(target));
-                    bos.write("\r\n".getBytes(StandardCharsets.UTF_8));
-                    // closing boundary
-                    bos.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
-
-                    byte[] multipartBytes = bos.toByteArray();
-                    HttpHeaders headers = new HttpHeaders();
-                    headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-                    headers.setContentType(MediaType.parseMediaType("multipart/form-data; boundary=" + boundary));
-                    headers.setContentLength(multipartBytes.length);
-
-                    log.debug("Spring -> Django OCR POST {} file={} boundary={} contentLength={}",
-                            ocrUrl, fileResource.getFilename(), boundary, multipartBytes.length);
-
-                    ResponseEntity<OcrResponse> resp =
-                            restTemplate.postForEntity(ocrUrl, new HttpEntity<>(multipartBytes, headers), OcrResponse.class);
-
-                    log.debug("Spring -> Django OCR status={} body={}", resp.getStatusCode(), resp.getBody());
-
-                    if (resp.getStatusCode().is2xxSuccessful() && resp.getBody() != null) {
-                        var body = resp.getBody();
-                        doc.setRawText(body.ocr_text());
-                        documentRepo.save(doc);
-
-                        List<String> courses = body.courses() != null ? body.courses() : List.of();
-                        courses = filterCourses(courses);
-                        if (courses.isEmpty()) {
-                            courses = fallbackExtractFromRaw(body.ocr_text());
-                            log.debug("OCR fallback extracted {} subjects from raw_text", courses.size());
-                        }
-
-                        for (String course : courses) {
-                            if (!StringUtils.hasText(course)) continue;
-                            ExtractedSubject es = new ExtractedSubject();
-                            es.setDocument(doc);
-                            es.setRawName(course.trim());
-                            pendingExtracted.add(es);
-                        }
-                    } else {
-                        log.warn("OCR non-2xx for {}: {}", cleanName, resp.getStatusCode());
-                    }
-
-                } catch (HttpStatusCodeException ex) {
-                    log.error("OCR HTTP error for file {}: {} body={}", cleanName, ex.getStatusCode(), ex.getResponseBodyAsString());
-
-                } catch (RestClientException ex) {
-                    log.error("OCR call failed for file {}: {}", cleanName, ex.getMessage());
-                }
+
+                documentRepo.save(doc);
             }
         }
 
-        // persist extracted subjects and run matching
-        var savedSubjects = saveExtractedSubjects(pendingExtracted);
-        log.debug("Persisted {} extracted subjects (pre-match): {}", savedSubjects.size(),
-                savedSubjects.stream().map(ExtractedSubject::getRawName).toList());
-        runMatching(savedSubjects);
-        acceptanceService.reevaluateApplication(app.getId());
-
         return app;
     }
 
-    private List<ExtractedSubject> saveExtractedSubjects(List<ExtractedSubject> subjects) {
-        if (subjects == null || subjects.isEmpty()) return List.of();
-
-        var saved = new ArrayList<ExtractedSubject>(subjects.size());
-        for (ExtractedSubject es : subjects) {
-            saved.add(extractedSubjectRepo.save(es));
-        }
-        return saved;
+    /** Documents still waiting for OCR; on a resumed or retried run, those already persisted are skipped. */
+    public List<Long> documentIdsWithoutOcr(Long appId) {
+        return documentRepo.findIdsWithoutOcrByApplicationId(appId);
     }
 
-    private List<Map<String, Object>> buildTargetPayload() {
-        var targets = targetSubjectRepo.findAll();
-        if (targets == null || targets.isEmpty()) return List.of();
+    /** Records the stage the pipeline of {@code appId} reached; {@code error} only with FAILED. */
+    public void recordStage(Long appId, PipelineStage stage, String error) {
+        applicationRepo.updatePipelineStage(appId, stage,
+                error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+    }
 
-        var payload = new ArrayList<Map<String, Object>>(targets.size());
-        for (TargetSubject t : targets) {
-            if (!StringUtils.hasText(t.getCode())) continue;
+    public Optional<PipelineStateDTO> pipelineState(Long appId) {
+        return applicationRepo.findPipelineState(appId);
+    }
 
-            Map<String, Object> row = new HashMap<>();
-            row.put("code", t.getCode());
-            String label = StringUtils.hasText(t.getName()) ? t.getName() : t.getCode();
-            row.put("title_fr", label);
-            if (t.getCoefficient() != null) {
-                row.put("coef", t.getCoefficient().intValue());
-            }
-            payload.add(row);
-        }
-        return payload;
+    /** Submissions whose pipeline was still queued or running when the previous instance stopped. */
+    public List<PipelineStateDTO> unfinishedPipelines() {
+        return applicationRepo.findByPipelineStageIn(PipelineStage.UNFINISHED);
     }
 
-    private void runMatching(List<ExtractedSubject> subjects) {
-        if (subjects == null || subjects.isEmpty()) return;
+    /** Puts a FAILED pipeline back to QUEUED; false if it is not (or no longer) FAILED. */
+    public boolean requeueFailed(Long appId) {
+        return applicationRepo.compareAndSetPipelineStage(appId, PipelineStage.FAILED, PipelineStage.QUEUED) == 1;
+    }
 
-        var labels = subjects.stream()
-                .map(ExtractedSubject::getRawName)
-                .map(this::normalizeForMatch)
-                .filter(StringUtils::hasText)
-                .toList();
-        log.debug("Sending {} subjects to matcher: {}", labels.size(), labels);
-        if (labels.isEmpty()) return;
+    /**
+     * Local half of pipeline stage 1: persists an OCR outcome (raw text + extracted subjects).
+     * The pipeline calls this in document order so subject ids stay stable.
+     */
+    public int saveOcr(OcrOutcomeDTO outcome) {
+        if (outcome.isEmpty()) return 0;
+        return resultWriter.saveOcrResult(outcome.documentId(), outcome.rawText(), outcome.courses()).size();
+    }
 
-        // Send the admin-managed catalog to the matcher so its view of targets stays aligned.
-        var targets = buildTargetPayload();
-        if (targets.isEmpty()) {
-            log.warn("No target subjects found in Spring DB; matcher will not have a catalog to use");
+    /**
+     * Remote half of stage 1: deliberately not transactional, so the OCR round-trip does not pin a
+     * pooled connection. Returns the filtered OCR result for one document without writing to it,
+     * so several documents can be OCR'd concurrently by {@link SubmissionPipeline}. Identical uploads
+     * are served from the {@link OcrResult} cache keyed by content hash.
+     */
+    public OcrOutcomeDTO runOcr(Long documentId) {
+        Document doc = documentRepo.findById(documentId)
+                .orElseThrow(() -> new NoSuchElementException("document not found: " + documentId));
+        Path target = Path.of(doc.getStorageKey());
+        String cleanName = doc.getFilename();
+
+        OcrResult cached = doc.getContentHash() != null
+                ? ocrResultRepo.findById(doc.getContentHash()).orElse(null)
+                : null;
+        if (cached != null) {
+            log.debug("OCR cache hit for {} hash={}", cleanName, doc.getContentHash());
+            return toOutcome(documentId, cached.getOcrText(), cached.getCourses());
         }
 
-        MatchResponseDTO match;
+        // ======================
+        // *** OCR CALL ***
+        // ======================
         try {
-            log.debug("Calling AI matcher with labels={} targets={}", labels, targets.size());
-            match = aiService.matchSubjects(labels, targets);
-        } catch (Exception ex) {
-            log.error("Matcher call failed", ex);
-            return;
-        }
-        if (match == null || match.trace() == null || match.trace().isEmpty()) {
-            log.warn("Matcher returned empty trace for labels={}", labels);
-            return;
-        }
-
-        log.debug("Matcher response coverage_pct={} matched={}", match.coveragePct(), match.matched());
+            String contentType = StringUtils.hasText(doc.getMimeType())
+                    ? doc.getMimeType()
+                    : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+            // Streams the file from disk with a precomputed Content-Length (Django/WSGI rejects chunked)
+            MultipartFileResource multipart = new MultipartFileResource(target, "image", target.getFileName().toString(), contentType);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+            headers.setContentType(multipart.contentType());
+            headers.setContentLength(multipart.contentLength());
+
+            log.debug("Spring -> Django OCR POST {} file={} path={} contentLength={}",
+                    ocrUrl, cleanName, target, multipart.contentLength());
+
+            ResponseEntity<OcrResponse> resp =
+                    restTemplate.postForEntity(ocrUrl, new HttpEntity<Resource>(multipart, headers), OcrResponse.class);
+
+            log.debug("Spring -> Django OCR status={} body={}", resp.getStatusCode(), resp.getBody());
+
+            if (resp.getStatusCode().is2xxSuccessful() && resp.getBody() != null) {
+                var body = resp.getBody();
+                cacheOcr(doc.getContentHash(), body);
+                return toOutcome(documentId, body.ocr_text(), body.courses());
+            } else {
+                log.warn("OCR non-2xx for {}: {}", cleanName, resp.getStatusCode());
+            }
 
-        int limit = Math.min(subjects.size(), match.trace().size());
-        for (int i = 0; i < limit; i++) {
-            ExtractedSubject subject = subjects.get(i);
-            MatchTraceDTO trace = match.trace().get(i);
+        } catch (HttpStatusCodeException ex) {
+            log.error("OCR HTTP error for file {}: {} body={}", cleanName, ex.getStatusCode(), ex.getResponseBodyAsString());
 
-            // skip if already mapped (idempotent)
-            if (!subjectMappingRepo.findByExtractedSubject(subject).isEmpty()) {
-                continue;
-            }
+        } catch (RestClientException | IOException ex) {
+            log.error("OCR call failed for file {}: {}", cleanName, ex.getMessage());
+        }
 
-            String targetCode = trace.target();
-            if (!StringUtils.hasText(targetCode)) {
-                log.debug("No target code for extracted subject {} rawName={}", subject.getId(), subject.getRawName());
-                continue;
-            }
+        return new OcrOutcomeDTO(documentId, null, List.of());
+    }
 
-            TargetSubject target = upsertTarget(targetCode, trace.targetTitle(), trace.targetCoef());
-            if (target == null) {
-                log.warn("Skipping mapping for extractedId={} because target code '{}' not found", subject.getId(), targetCode);
-                continue;
-            }
+    private OcrOutcomeDTO toOutcome(Long documentId, String rawText, List<String> rawCourses) {
+        List<String> courses = filterCourses(rawCourses != null ? rawCourses : List.of());
+        if (courses.isEmpty()) {
+            courses = fallbackExtractFromRaw(rawText);
+            log.debug("OCR fallback extracted {} subjects from raw_text", courses.size());
+        }
+        return new OcrOutcomeDTO(documentId, rawText, courses);
+    }
 
-            SubjectMapping mapping = new SubjectMapping();
-            mapping.setExtractedSubject(subject);
-            mapping.setTargetSubject(target);
-            mapping.setConfidence(trace.score() != null ? trace.score().floatValue() : null);
-            mapping.setNormalizedScore(mapping.getConfidence());
-            mapping.setAuto(true);
-            mapping.setMethod(trace.method());
-            subjectMappingRepo.save(mapping);
-            log.debug("Saved auto mapping extractedId={} -> targetCode={} score={} method={}",
-                    subject.getId(), targetCode, mapping.getConfidence(), trace.method());
-
-            maybeRecordSuggestion(trace, subject);
+    private void cacheOcr(String contentHash, OcrResponse body) {
+        if (contentHash == null) return;
+        OcrResult entry = new OcrResult();
+        entry.setContentHash(contentHash);
+        entry.setOcrText(body.ocr_text());
+        entry.setCourses(body.courses() != null ? new ArrayList<>(body.courses()) : new ArrayList<>());
+        try {
+            ocrResultRepo.save(entry);
+        } catch (DataIntegrityViolationException ex) {
+            // the same content was OCR'd concurrently; either row is fine
+            log.debug("OCR cache entry for {} already present", contentHash);
         }
     }
 
-    private String normalizeForMatch(String raw) {
-        if (!StringUtils.hasText(raw)) return raw;
-        String noDiacritics = Normalizer.normalize(raw, Normalizer.Form.NFD)
-                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
-        String cleaned = noDiacritics.replaceAll("[^\\p{IsAlphabetic}\\p{IsDigit}\\s]+", " ");
-        String compact = cleaned.trim().replaceAll("\\s+", " ");
-        return compact.toLowerCase();
+    /**
+     * Pipeline stage 2: send every extracted subject of the application to the matcher.
+     * Reads and writes are separate short transactions; the matcher call runs with none.
+     */
+    public void matchApplication(Long appId) {
+        runMatching(extractedSubjectRepo.findByDocument_Application_IdOrderByIdAsc(appId));
     }
 
-    private void maybeRecordSuggestion(MatchTraceDTO trace, ExtractedSubject subject) {
-        if (trace == null || subject == null) return;
-        String method = trace.method();
-        if (!StringUtils.hasText(method)) return;
-
-        String m = method.toLowerCase();
-        boolean isLlm = m.contains("llm");
-        boolean isFuzzy = m.contains("fuzzy") && (trace.score() == null || trace.score() < 0.95);
-
-        if (!isLlm && !isFuzzy) return;
-
-        String targetCode = trace.target();
-        String rawLabel = subject.getRawName();
-        String normLabel = normalizeForMatch(rawLabel);
-        if (!StringUtils.hasText(targetCode) || !StringUtils.hasText(normLabel)) return;
-
-        String language = "fr"; // default fallback
-
-        Optional<MappingSuggestion> existing = mappingSuggestionRepo
-                .findByNormLabelAndProposedTargetCodeAndLanguage(normLabel, targetCode, language);
-        if (existing.isPresent()) return; // idempotent
-
-        MappingSuggestion s = new MappingSuggestion();
-        s.setSrcLabel(rawLabel);
-        s.setNormLabel(normLabel);
-        s.setProposedTargetCode(targetCode);
-        s.setLanguage(language);
-        s.setScore(trace.score() != null ? trace.score() : 0d);
-        s.setMethod(method);
-        s.setStatus(SuggestionStatus.PENDING);
-        s.setCreatedBy(isLlm ? "matcher-llm" : "matcher-fuzzy");
-
-        mappingSuggestionRepo.save(s);
-        log.debug("Recorded suggestion for raw='{}' target='{}' method={} score={}",
-                rawLabel, targetCode, method, trace.score());
+    private void runMatching(List<ExtractedSubject> subjects) {
+        if (subjects == null || subjects.isEmpty()) return;
+
+        // keep subjects and labels index-aligned so trace[i] maps back to subjects[i]
+        var matchable = subjects.stream()
+                .filter(es -> StringUtils.hasText(LabelNormalizer.normalize(es.getRawName())))
+                .toList();
+        var labels = matchable.stream()
+                .map(ExtractedSubject::getRawName)
+                .map(LabelNormalizer::normalize)
+                .toList();
+        log.debug("Matching {} subjects: {}", labels.size(), labels);
+        if (labels.isEmpty()) return;
+
+        resultWriter.saveMatches(matchable, matchingService.match(labels));
     }
 
     /**
@@ -451,16 +354,6 @@ public class ApplicationSubmitService {
         return cleaned;
     }
 
-    private TargetSubject upsertTarget(String code, String title, Integer coef) {
-        // Target list is static; do not create or update here
-        Optional<TargetSubject> maybe = targetSubjectRepo.findByCode(code);
-        if (maybe.isEmpty()) {
-            log.warn("Target code '{}' not found; skipping (targets are admin-managed only)", code);
-            return null;
-        }
-        return maybe.get();
-    }
-
     private Address mergeAddress(Address current, AddressDTO dto) {
         Address a = current == null ? new Address() : current;
         if (dto.line1()          != null) a.setLine1(dto.line1());
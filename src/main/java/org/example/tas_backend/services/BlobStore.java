@@ -0,0 +1,75 @@
+package org.example.tas_backend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Content-addressed store for uploaded documents under {@code <upload-root>/blobs/<h0h1>/<sha256>.<ext>}.
+ * The hash is computed while the upload is streamed to disk; identical files share one blob.
+ */
+@Service
+@Slf4j
+public class BlobStore {
+
+    @Value("${storage.upload-root:uploads}")
+    private String uploadRoot;
+
+    public record StoredBlob(String sha256, Path path, long sizeBytes) {}
+
+    public StoredBlob store(MultipartFile file, String filename) throws IOException {
+        Path blobDir = Path.of(uploadRoot, "blobs");
+        Files.createDirectories(blobDir);
+        Path tmp = Files.createTempFile(blobDir, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                size = Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            Path target = blobDir.resolve(hash.substring(0, 2)).resolve(hash + extension(filename));
+            if (Files.exists(target)) {
+                log.debug("Upload {} deduplicated to existing blob {}", filename, target);
+            } else {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException ignored) {
+                    // a concurrent upload of the same content won the race; its blob is identical
+                }
+            }
+            return new StoredBlob(hash, target, size);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static String extension(String filename) {
+        String ext = StringUtils.getFilenameExtension(filename);
+        if (!StringUtils.hasText(ext) || !ext.matches("[A-Za-z0-9]{1,10}")) return "";
+        return "." + ext.toLowerCase();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
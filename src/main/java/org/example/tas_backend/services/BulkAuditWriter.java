@@ -0,0 +1,116 @@
+package org.example.tas_backend.services;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.envers.RevInfo;
+import org.hibernate.envers.AuditReaderFactory;
+import org.hibernate.envers.RevisionType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Envers rows for changes made with bulk JPQL/SQL updates, which bypass the Envers listeners.
+ * Copies the current state of the touched rows into {@code <table>_aud} with one
+ * INSERT ... SELECT per chunk, all under a single revision of the current transaction.
+ * Call it after the bulk update, inside the same transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkAuditWriter {
+
+    private static final int CHUNK = 1000;
+    private static final String MOD_SUFFIX = "_mod";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<String, List<String>> auditColumns = new ConcurrentHashMap<>();
+
+    /**
+     * @param table          entity table, e.g. {@code application}
+     * @param ids            primary keys of the modified rows
+     * @param modifiedFlags  audited properties that changed, e.g. {@code status}; their
+     *                       {@code _mod} flag is set, all others are cleared
+     * @return number of audit rows written
+     */
+    public int recordModified(String table, Collection<Long> ids, Set<String> modifiedFlags) {
+        if (ids.isEmpty()) return 0;
+        String auditTable = table + "_aud";
+        List<String> columns = auditColumns.computeIfAbsent(auditTable, this::columnsOf);
+        if (columns.isEmpty()) {
+            log.warn("Audit table {} not found; {} bulk changes to {} are not audited", auditTable, ids.size(), table);
+            return 0;
+        }
+
+        Integer rev = AuditReaderFactory.get(entityManager).getCurrentRevision(RevInfo.class, true).getId();
+
+        List<String> insertCols = new ArrayList<>(List.of("rev", "revtype"));
+        List<String> selectExprs = new ArrayList<>(List.of(String.valueOf(rev), String.valueOf(RevisionType.MOD.getRepresentation())));
+        for (String column : columns) {
+            if (column.equals("rev") || column.equals("revtype")) continue;
+            insertCols.add(column);
+            if (column.endsWith(MOD_SUFFIX)) {
+                String property = column.substring(0, column.length() - MOD_SUFFIX.length());
+                selectExprs.add(modifiedFlags.contains(property) ? "true" : "false");
+            } else {
+                selectExprs.add(column);
+            }
+        }
+
+        int written = 0;
+        List<Long> all = List.copyOf(ids);
+        for (int from = 0; from < all.size(); from += CHUNK) {
+            List<Long> chunk = all.subList(from, Math.min(all.size(), from + CHUNK));
+            String sql = "insert into " + auditTable + " (" + String.join(", ", insertCols) + ") select "
+                    + String.join(", ", selectExprs) + " from " + table
+                    + " where id in (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+            written += jdbcTemplate.update(sql, chunk.toArray());
+        }
+        log.debug("Recorded {} bulk audit rows in {} (rev {}, modified {})", written, auditTable, rev, modifiedFlags);
+        return written;
+    }
+
+    /** Columns of the audit table that can be filled from the entity table (plus rev/revtype/_mod). */
+    private List<String> columnsOf(String auditTable) {
+        String table = auditTable.substring(0, auditTable.length() - "_aud".length());
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) c -> {
+            DatabaseMetaData meta = c.getMetaData();
+            Set<String> base = columnNames(meta, c.getCatalog(), c.getSchema(), table);
+            List<String> result = new ArrayList<>();
+            for (String column : columnNames(meta, c.getCatalog(), c.getSchema(), auditTable)) {
+                if (column.equals("rev") || column.equals("revtype") || column.endsWith(MOD_SUFFIX)
+                        || base.contains(column)) {
+                    result.add(column);
+                }
+            }
+            return result;
+        });
+    }
+
+    private static Set<String> columnNames(DatabaseMetaData meta, String catalog, String schema, String table)
+            throws java.sql.SQLException {
+        Set<String> names = new LinkedHashSet<>();
+        for (String candidate : List.of(table, table.toUpperCase(Locale.ROOT))) {
+            try (ResultSet rs = meta.getColumns(catalog, schema, candidate, null)) {
+                while (rs.next()) names.add(rs.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+            }
+            if (!names.isEmpty()) break;
+        }
+        return names;
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.tas_backend.services;
+
+import lombok.RequiredArgsConstructor;
+import org.example.tas_backend.dtos.DocumentTextDTO;
+import org.example.tas_backend.entities.DocumentText;
+import org.example.tas_backend.repos.DocumentTextRepo;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Serves OCR text by character range. The text is stored compressed, so a page decompresses the
+ * row (a fraction of the raw size on the wire) and cuts the range in memory.
+ */
+@Service
+@RequiredArgsConstructor
+public class DocumentTextService {
+
+    public static final int PREVIEW_CHARS = 500;
+    public static final int DEFAULT_PAGE_CHARS = 20_000;
+    public static final int MAX_PAGE_CHARS = 100_000;
+
+    private final DocumentTextRepo documentTextRepo;
+
+    public static String preview(String text) {
+        if (text == null) return null;
+        return text.length() <= PREVIEW_CHARS ? text : text.substring(0, PREVIEW_CHARS);
+    }
+
+    /**
+     * A range of the document's OCR text. A document without text (OCR still pending, failed or
+     * skipped) reads as empty with total length 0.
+     */
+    @Transactional(readOnly = true)
+    public DocumentTextDTO slice(Long documentId, int offset, Integer limit) {
+        int count = limit == null ? DEFAULT_PAGE_CHARS : Math.min(Math.max(limit, 1), MAX_PAGE_CHARS);
+
+        String full = documentTextRepo.findById(documentId)
+                .map(DocumentText::getText)
+                .orElse("");
+        int total = full.length();
+        if (offset >= total) {
+            return new DocumentTextDTO(documentId, offset, total, "", null);
+        }
+        int end = Math.min(total, offset + count);
+        return new DocumentTextDTO(documentId, offset, total, full.substring(offset, end), end < total ? end : null);
+    }
+
+    /**
+     * Compresses up to {@code chunkSize} legacy plain-text rows; returns how many were rewritten
+     * (0 when nothing is left). One transaction per chunk.
+     */
+    @Transactional
+    public int compactChunk(int chunkSize) {
+        List<DocumentText> rows = documentTextRepo.findUncompressed(PageRequest.of(0, chunkSize));
+        for (DocumentText row : rows) {
+            row.setText(row.getText());
+        }
+        return rows.size();
+    }
+}
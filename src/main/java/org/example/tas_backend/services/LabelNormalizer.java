@@ -0,0 +1,19 @@
+package org.example.tas_backend.services;
+
+import org.springframework.util.StringUtils;
+
+import java.text.Normalizer;
+
+/** Normalizes course labels the same way the matcher does (no diacritics, no punctuation, lower case). */
+public final class LabelNormalizer {
+    private LabelNormalizer() {}
+
+    public static String normalize(String raw) {
+        if (!StringUtils.hasText(raw)) return raw;
+        String noDiacritics = Normalizer.normalize(raw, Normalizer.Form.NFD)
+                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+        String cleaned = noDiacritics.replaceAll("[^\\p{IsAlphabetic}\\p{IsDigit}\\s]+", " ");
+        String compact = cleaned.trim().replaceAll("\\s+", " ");
+        return compact.toLowerCase();
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.tas_backend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.dtos.MatchTraceDTO;
+import org.example.tas_backend.services.TargetCatalogService.AcceptedAlias;
+import org.example.tas_backend.services.TargetCatalogService.CatalogSnapshot;
+import org.example.tas_backend.services.TargetCatalogService.CatalogTarget;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * First matching tier, in process: an exact map over normalized target names/codes and accepted
+ * aliases, then a trigram index for near-misses (typos, missing accents, extra words). A fuzzy
+ * hit must carry the same sequence numbers (digits, roman numerals) as the label, so
+ * "algebre lineaire 1" never resolves to "algebre lineaire 2".
+ * Labels it cannot resolve are left for the remote matcher. The index is derived from a
+ * {@link CatalogSnapshot} and rebuilt when the snapshot version changes.
+ */
+@Service
+@Slf4j
+public class LocalSubjectMatcher {
+
+    static final String METHOD_EXACT = "local_exact";
+    static final String METHOD_FUZZY = "local_fuzzy";
+
+    private static final Map<String, String> ROMAN = Map.ofEntries(
+            Map.entry("i", "1"), Map.entry("ii", "2"), Map.entry("iii", "3"), Map.entry("iv", "4"),
+            Map.entry("v", "5"), Map.entry("vi", "6"), Map.entry("vii", "7"), Map.entry("viii", "8"),
+            Map.entry("ix", "9"), Map.entry("x", "10"), Map.entry("xi", "11"), Map.entry("xii", "12"));
+
+    private final double fuzzyThreshold;
+
+    private volatile Index index;
+
+    public LocalSubjectMatcher(@Value("${matcher.local.fuzzy-threshold:0.85}") double fuzzyThreshold) {
+        this.fuzzyThreshold = fuzzyThreshold;
+    }
+
+    /** Label must already be normalized with {@link LabelNormalizer}. */
+    public Optional<MatchTraceDTO> match(CatalogSnapshot catalog, String normLabel) {
+        if (!StringUtils.hasText(normLabel)) return Optional.empty();
+        Index idx = index(catalog);
+
+        CatalogTarget exact = idx.exact.get(normLabel);
+        if (exact != null) {
+            return Optional.of(trace(normLabel, exact, METHOD_EXACT, 1.0));
+        }
+
+        Set<String> grams = trigrams(normLabel);
+        Set<String> sequence = sequenceTokens(normLabel);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String g : grams) {
+            List<Integer> postings = idx.postings.get(g);
+            if (postings == null) continue;
+            for (Integer entry : postings) shared.merge(entry, 1, Integer::sum);
+        }
+
+        int best = -1;
+        double bestScore = 0;
+        for (var e : shared.entrySet()) {
+            // trigrams barely see a differing digit; numbered courses are distinct subjects
+            if (!idx.entrySequences.get(e.getKey()).equals(sequence)) continue;
+            int entrySize = idx.gramCounts.get(e.getKey());
+            double dice = 2.0 * e.getValue() / (grams.size() + entrySize);
+            if (dice > bestScore) {
+                bestScore = dice;
+                best = e.getKey();
+            }
+        }
+        if (best < 0 || bestScore < fuzzyThreshold) return Optional.empty();
+
+        double score = Math.round(bestScore * 1000) / 1000.0;
+        return Optional.of(trace(normLabel, idx.entryTargets.get(best), METHOD_FUZZY, score));
+    }
+
+    private Index index(CatalogSnapshot catalog) {
+        Index idx = index;
+        if (idx == null || !idx.version.equals(catalog.version())) {
+            synchronized (this) {
+                idx = index;
+                if (idx == null || !idx.version.equals(catalog.version())) {
+                    idx = build(catalog);
+                    index = idx;
+                }
+            }
+        }
+        return idx;
+    }
+
+    private static Index build(CatalogSnapshot catalog) {
+        Map<String, CatalogTarget> byCode = new HashMap<>();
+        Map<String, CatalogTarget> exact = new LinkedHashMap<>();
+        for (CatalogTarget t : catalog.targets()) {
+            byCode.put(t.code(), t);
+            putKey(exact, t.name(), t);
+            putKey(exact, t.code(), t);
+        }
+        // accepted suggestions are the aliases admins confirmed; names and codes take precedence
+        for (AcceptedAlias a : catalog.aliases()) {
+            CatalogTarget t = byCode.get(a.targetCode());
+            if (t == null) continue;
+            putKey(exact, a.normLabel(), t);
+            putKey(exact, a.srcLabel(), t);
+        }
+
+        Map<String, List<Integer>> postings = new HashMap<>();
+        List<Integer> gramCounts = new ArrayList<>(exact.size());
+        List<CatalogTarget> entryTargets = new ArrayList<>(exact.size());
+        List<Set<String>> entrySequences = new ArrayList<>(exact.size());
+        for (var e : exact.entrySet()) {
+            int entry = entryTargets.size();
+            Set<String> grams = trigrams(e.getKey());
+            for (String g : grams) postings.computeIfAbsent(g, k -> new ArrayList<>()).add(entry);
+            gramCounts.add(grams.size());
+            entryTargets.add(e.getValue());
+            entrySequences.add(sequenceTokens(e.getKey()));
+        }
+        log.debug("Local matcher index built for catalog {}: {} keys, {} trigrams",
+                catalog.version(), exact.size(), postings.size());
+        return new Index(catalog.version(), exact, postings, gramCounts, entryTargets, entrySequences);
+    }
+
+    private static void putKey(Map<String, CatalogTarget> exact, String label, CatalogTarget target) {
+        String key = LabelNormalizer.normalize(label);
+        if (StringUtils.hasText(key)) exact.putIfAbsent(key, target);
+    }
+
+    static Set<String> trigrams(String normLabel) {
+        String padded = "  " + normLabel + " ";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /** Numbers in a normalized label, roman numerals as digits: "analyse ii" and "analyse 2" both give {2}. */
+    static Set<String> sequenceTokens(String normLabel) {
+        Set<String> tokens = new HashSet<>();
+        for (String token : normLabel.split(" ")) {
+            if (!token.isEmpty() && token.chars().allMatch(Character::isDigit)) {
+                tokens.add(token.replaceFirst("^0+(?=.)", ""));
+            } else if (ROMAN.containsKey(token)) {
+                tokens.add(ROMAN.get(token));
+            }
+        }
+        return tokens;
+    }
+
+    private static MatchTraceDTO trace(String label, CatalogTarget t, String method, double score) {
+        return new MatchTraceDTO(label, t.code(), method, score, t.name(), null,
+                t.coefficient() != null ? t.coefficient().intValue() : null);
+    }
+
+    private record Index(String version,
+                         Map<String, CatalogTarget> exact,
+                         Map<String, List<Integer>> postings,
+                         List<Integer> gramCounts,
+                         List<CatalogTarget> entryTargets,
+                         List<Set<String>> entrySequences) {}
+}
@@ -0,0 +1,233 @@
+package org.example.tas_backend.services;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.dtos.MappingBulkUpdateDTO;
+import org.example.tas_backend.dtos.MappingBulkUpdateResultDTO;
+import org.example.tas_backend.dtos.SubjectMappingViewDTO;
+import org.example.tas_backend.entities.ExtractedSubject;
+import org.example.tas_backend.entities.SubjectMapping;
+import org.example.tas_backend.entities.TargetSubject;
+import org.example.tas_backend.enums.SuggestionStatus;
+import org.example.tas_backend.events.MatchMemoStaleEvent;
+import org.example.tas_backend.events.MatchedCountsChangedEvent;
+import org.example.tas_backend.events.SuggestionStatusChangedEvent;
+import org.example.tas_backend.repos.ApplicationRepo;
+import org.example.tas_backend.repos.MappingSuggestionRepo;
+import org.example.tas_backend.repos.SubjectMappingRepo;
+import org.example.tas_backend.repos.TargetSubjectRepo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Admin overrides of subject mappings, one at a time or in bulk. Follow-up work is coalesced per
+ * request: one matchedCount adjustment and one re-evaluation per affected application, one
+ * outbox entry per previous target for the fuzzy-alias cleanup, and one event of each kind.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MappingOverrideService {
+
+    /** Bounds a bulk override (and the IN lists it produces). */
+    static final int MAX_BATCH = 1000;
+
+    private final SubjectMappingRepo mappingRepo;
+    private final TargetSubjectRepo targetRepo;
+    private final MappingSuggestionRepo suggestionRepo;
+    private final ApplicationRepo applicationRepo;
+    private final MatcherOutboxService outbox;
+    private final AcceptanceService acceptanceService;
+    private final ApplicationEventPublisher events;
+
+    /**
+     * @throws NoSuchElementException   when the mapping does not exist
+     * @throws IllegalArgumentException when the target code is missing or unknown
+     */
+    @Transactional
+    public SubjectMappingViewDTO override(Long mappingId, String targetCode, Float confidence) {
+        Batch batch = new Batch(target(targetCode), confidence);
+        SubjectMapping mapping = mappingRepo.findById(mappingId)
+                .orElseThrow(() -> new NoSuchElementException("mapping not found"));
+        SubjectMapping saved = batch.apply(mapping);
+        finish(batch, "mapping overridden: " + mappingId);
+        return new SubjectMappingViewDTO(
+                saved.getId(),
+                saved.getTargetSubject() != null ? saved.getTargetSubject().getCode() : null,
+                saved.getTargetSubject() != null ? saved.getTargetSubject().getName() : null,
+                saved.getConfidence(),
+                saved.getMethod(),
+                saved.getNormalizedScore()
+        );
+    }
+
+    /**
+     * Reassigns the listed mappings, or every mapping of a raw label across applications.
+     *
+     * @throws IllegalArgumentException when the target is missing or unknown, neither ids nor a
+     *                                  label are given, or more than {@value #MAX_BATCH} mappings match
+     */
+    @Transactional
+    public MappingBulkUpdateResultDTO overrideAll(MappingBulkUpdateDTO body) {
+        Batch batch = new Batch(target(body.targetCode()), body.confidence());
+
+        List<SubjectMapping> mappings;
+        List<Long> notFound = new ArrayList<>();
+        if (body.mappingIds() != null && !body.mappingIds().isEmpty()) {
+            Set<Long> ids = new LinkedHashSet<>(body.mappingIds());
+            ids.remove(null);
+            checkSize(ids.size());
+            mappings = mappingRepo.findAllById(ids);
+            notFound.addAll(ids);
+            mappings.forEach(m -> notFound.remove(m.getId()));
+        } else if (StringUtils.hasText(body.rawLabel())) {
+            mappings = mappingRepo.findByExtractedSubject_RawNameIgnoreCase(body.rawLabel().trim());
+            checkSize(mappings.size());
+        } else {
+            throw new IllegalArgumentException("mappingIds or rawLabel is required");
+        }
+
+        mappings.forEach(batch::apply);
+        finish(batch, "bulk mapping override: " + mappings.size());
+        log.info("Reassigned {} mappings to {} across {} applications",
+                mappings.size(), batch.target.getCode(), batch.applications.size());
+        return new MappingBulkUpdateResultDTO(batch.target.getCode(), mappings.size(),
+                batch.applications.size(), notFound);
+    }
+
+    private TargetSubject target(String targetCode) {
+        if (!StringUtils.hasText(targetCode)) throw new IllegalArgumentException("targetCode is required");
+        return targetRepo.findByCode(targetCode)
+                .orElseThrow(() -> new IllegalArgumentException("target code not found: " + targetCode));
+    }
+
+    private static void checkSize(int size) {
+        if (size > MAX_BATCH) {
+            throw new IllegalArgumentException("at most " + MAX_BATCH + " mappings per request, got " + size);
+        }
+    }
+
+    private void finish(Batch batch, String reason) {
+        boolean countsChanged = false;
+        for (Map.Entry<Long, Integer> delta : batch.deltas.entrySet()) {
+            if (delta.getValue() == 0) continue;
+            applicationRepo.adjustMatchedCount(delta.getKey(), delta.getValue());
+            countsChanged = true;
+        }
+        if (countsChanged) events.publishEvent(new MatchedCountsChangedEvent(reason));
+        if (!batch.staleLabels.isEmpty()) {
+            // memoized matcher answers for these labels are now known to be wrong; the catalog
+            // itself is unchanged (alias deletions publish their own catalog event)
+            events.publishEvent(new MatchMemoStaleEvent(batch.staleLabels, reason));
+        }
+
+        batch.droppedSuggestions.forEach(this::dropSuggestion);
+        // performed after commit by MatcherOutboxDispatcher
+        batch.droppedAliases.forEach(outbox::enqueueAliasDeletion);
+
+        // Re-evaluate acceptance status once per owning application
+        acceptanceService.reevaluateApplications(batch.applications);
+    }
+
+    private void dropSuggestion(LabelTarget key) {
+        var pending = suggestionRepo.findBySrcLabelIgnoreCaseAndProposedTargetCodeAndStatus(
+                key.rawLabel(), key.targetCode(), SuggestionStatus.PENDING);
+        pending.forEach(suggestionRepo::delete);
+        if (!pending.isEmpty()) {
+            events.publishEvent(new SuggestionStatusChangedEvent(SuggestionStatus.PENDING, null, pending.size()));
+        }
+    }
+
+    private record LabelTarget(String rawLabel, String targetCode) {}
+
+    /** Applies overrides to one target and collects the follow-up work for {@link #finish}. */
+    private final class Batch {
+
+        final TargetSubject target;
+        final Float confidence;
+        // matchedCount delta per application
+        final Map<Long, Integer> deltas = new LinkedHashMap<>();
+        final Set<Long> applications = new LinkedHashSet<>();
+        // previous target code -> raw labels whose fuzzy aliases must go
+        final Map<String, Set<String>> droppedAliases = new LinkedHashMap<>();
+        final Set<LabelTarget> droppedSuggestions = new LinkedHashSet<>();
+        // normalized labels whose memoized matcher answer is superseded
+        final Set<String> staleLabels = new LinkedHashSet<>();
+
+        Batch(TargetSubject target, Float confidence) {
+            this.target = target;
+            this.confidence = confidence;
+        }
+
+        SubjectMapping apply(SubjectMapping mapping) {
+            TargetSubject previousTarget = mapping.getTargetSubject();
+            String previousMethod = mapping.getMethod();
+            ExtractedSubject extracted = mapping.getExtractedSubject();
+            Long appId = extracted != null && extracted.getDocument() != null && extracted.getDocument().getApplication() != null
+                    ? extracted.getDocument().getApplication().getId()
+                    : null;
+
+            Optional<SubjectMapping> duplicate = mappingRepo.findByExtractedSubjectAndTargetSubject(extracted, target);
+            SubjectMapping toSave = mapping;
+            // matchedCount delta: mapping gained a target (+1), or a targeted mapping folded into its duplicate (-1)
+            int delta = 0;
+
+            if (duplicate.isPresent() && !duplicate.get().getId().equals(mapping.getId())) {
+                // Avoid unique constraint clashes; reuse the existing mapping record for this target.
+                mappingRepo.delete(mapping);
+                toSave = duplicate.get();
+                if (previousTarget != null) delta = -1;
+            } else if (previousTarget == null) {
+                delta = 1;
+            }
+
+            toSave.setTargetSubject(target);
+            toSave.setAuto(false);
+            if (confidence != null) {
+                toSave.setConfidence(confidence);
+                toSave.setNormalizedScore(confidence);
+            }
+            toSave.setMethod("admin_override");
+            SubjectMapping saved = mappingRepo.save(toSave);
+
+            if (appId != null) {
+                applications.add(appId);
+                deltas.merge(appId, delta, Integer::sum);
+            }
+
+            boolean changed = previousTarget == null
+                    || !previousTarget.getCode().equalsIgnoreCase(target.getCode());
+            if (changed) {
+                String normLabel = extracted != null ? LabelNormalizer.normalize(extracted.getRawName()) : null;
+                if (StringUtils.hasText(normLabel)) staleLabels.add(normLabel);
+                collectCleanup(previousMethod, previousTarget != null ? previousTarget.getCode() : null,
+                        extracted != null ? extracted.getRawName() : null);
+            }
+            return saved;
+        }
+
+        private void collectCleanup(String previousMethod, String previousTargetCode, String rawLabel) {
+            if (!StringUtils.hasText(previousMethod) || !StringUtils.hasText(rawLabel)
+                    || !StringUtils.hasText(previousTargetCode)) return;
+
+            String lower = previousMethod.toLowerCase();
+            if (lower.contains("fuzzy")) {
+                droppedAliases.computeIfAbsent(previousTargetCode, k -> new LinkedHashSet<>()).add(rawLabel);
+            }
+            if (lower.contains("llm")) {
+                droppedSuggestions.add(new LabelTarget(rawLabel, previousTargetCode));
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.tas_backend.services;
+
+import org.example.tas_backend.dtos.MappingReviewPageDTO;
+import org.example.tas_backend.dtos.MappingReviewRowDTO;
+import org.example.tas_backend.repos.SubjectMappingRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Review queue of weak auto mappings across all applications, weakest first, so staff do not
+ * have to open every application's mapping view. One indexed query per page; the cursor is
+ * opaque (base64 of confidence and id of the last row).
+ */
+@Service
+public class MappingReviewService {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    private static final String NO_CONFIDENCE = "-";
+
+    private final SubjectMappingRepo mappingRepo;
+    private final float defaultMaxConfidence;
+
+    public MappingReviewService(SubjectMappingRepo mappingRepo,
+                                @Value("${mappings.review.max-confidence:0.9}") float defaultMaxConfidence) {
+        this.mappingRepo = mappingRepo;
+        this.defaultMaxConfidence = defaultMaxConfidence;
+    }
+
+    /** @throws IllegalArgumentException for a malformed cursor */
+    @Transactional(readOnly = true)
+    public MappingReviewPageDTO page(Float maxConfidence, Integer size, String cursor) {
+        float threshold = maxConfidence != null ? maxConfidence : defaultMaxConfidence;
+        int limit = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        Float afterConfidence = null;
+        Long afterId = null;
+        if (StringUtils.hasText(cursor)) {
+            String[] parts = decode(cursor);
+            try {
+                afterConfidence = NO_CONFIDENCE.equals(parts[0]) ? null : Float.valueOf(parts[0]);
+                afterId = Long.valueOf(parts[1]);
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("malformed cursor");
+            }
+        }
+
+        // one extra row tells whether there is a next page
+        List<MappingReviewRowDTO> rows = mappingRepo.findReviewRows(threshold, afterConfidence, afterId, limit + 1);
+        boolean more = rows.size() > limit;
+        if (more) rows = rows.subList(0, limit);
+
+        String next = null;
+        if (more) {
+            MappingReviewRowDTO last = rows.get(rows.size() - 1);
+            String confidence = last.confidence() != null ? last.confidence().toString() : NO_CONFIDENCE;
+            next = encode(confidence + ":" + last.mappingId());
+        }
+        return new MappingReviewPageDTO(List.copyOf(rows), next);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("malformed cursor");
+        }
+        if (parts.length != 2) throw new IllegalArgumentException("malformed cursor");
+        return parts;
+    }
+}
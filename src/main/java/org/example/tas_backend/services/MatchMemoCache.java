@@ -0,0 +1,141 @@
+package org.example.tas_backend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.dtos.MatchTraceDTO;
+import org.example.tas_backend.entities.MatchMemo;
+import org.example.tas_backend.events.MatchMemoStaleEvent;
+import org.example.tas_backend.events.TargetCatalogChangedEvent;
+import org.example.tas_backend.repos.MatchMemoRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-level memo of remote matcher results keyed by (catalog version, normalized label):
+ * a bounded Caffeine (W-TinyLFU) cache in front of the {@code match_memo} table.
+ * Both levels are purged on {@link TargetCatalogChangedEvent}; single labels are evicted on
+ * {@link MatchMemoStaleEvent}. Metrics are published as
+ * {@code cache.*{cache=matchMemo}} plus {@code matcher.memo.db} hit/miss counters.
+ */
+@Service
+@Slf4j
+public class MatchMemoCache implements MeterBinder {
+
+    private final MatchMemoRepo repo;
+    private final Cache<String, MatchTraceDTO> local;
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder dbHits = new LongAdder();
+    private final LongAdder dbMisses = new LongAdder();
+
+    public MatchMemoCache(MatchMemoRepo repo,
+                          @Value("${matcher.memo.max-size:50000}") long maxSize) {
+        this.repo = repo;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    /** Current purge generation; pass it back to {@link #putAll} so results computed before a purge are dropped. */
+    public long generation() {
+        return generation.get();
+    }
+
+    /** Returns the memoized traces for {@code labels}; memory first, then one DB query for the rest. */
+    public Map<String, MatchTraceDTO> getAll(String catalogVersion, Collection<String> labels) {
+        Map<String, MatchTraceDTO> found = new HashMap<>();
+        List<String> misses = labels.stream()
+                .filter(label -> {
+                    MatchTraceDTO hit = local.getIfPresent(key(catalogVersion, label));
+                    if (hit != null) found.put(label, hit);
+                    return hit == null;
+                })
+                .toList();
+        if (misses.isEmpty()) return found;
+
+        for (MatchMemo row : repo.findByCatalogVersionAndNormLabelIn(catalogVersion, misses)) {
+            MatchTraceDTO trace = new MatchTraceDTO(row.getNormLabel(), row.getTargetCode(), row.getMethod(),
+                    row.getScore(), row.getTargetTitle(), row.getTargetLevel(), row.getTargetCoef());
+            local.put(key(catalogVersion, row.getNormLabel()), trace);
+            found.put(row.getNormLabel(), trace);
+        }
+        int hits = found.size() - (labels.size() - misses.size());
+        dbHits.add(hits);
+        dbMisses.add(misses.size() - hits);
+        return found;
+    }
+
+    public void putAll(String catalogVersion, long generationAtLookup, Map<String, MatchTraceDTO> traces) {
+        if (generation.get() != generationAtLookup) {
+            log.debug("Catalog changed while matching; not memoizing {} traces", traces.size());
+            return;
+        }
+        traces.forEach((label, trace) -> {
+            local.put(key(catalogVersion, label), trace);
+            MatchMemo row = new MatchMemo();
+            row.setCatalogVersion(catalogVersion);
+            row.setNormLabel(label);
+            row.setTargetCode(trace.target());
+            row.setMethod(trace.method());
+            row.setScore(trace.score());
+            row.setTargetTitle(trace.targetTitle());
+            row.setTargetLevel(trace.targetLevel());
+            row.setTargetCoef(trace.targetCoef());
+            try {
+                repo.save(row);
+            } catch (DataIntegrityViolationException ex) {
+                // memoized concurrently by another submission
+                log.debug("Memo for '{}' already stored", label);
+            }
+        });
+    }
+
+    // after-commit listeners need their own transaction to write
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void onCatalogChanged(TargetCatalogChangedEvent event) {
+        generation.incrementAndGet();
+        local.invalidateAll();
+        repo.deleteAllInBatch();
+        log.debug("Match memo purged: {}", event.reason());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void onMemoStale(MatchMemoStaleEvent event) {
+        if (event.normLabels().isEmpty()) return;
+        // drops in-flight results too, which may carry the stale answer
+        generation.incrementAndGet();
+        local.asMap().keySet().removeIf(k -> event.normLabels().contains(k.substring(k.indexOf('|') + 1)));
+        int rows = repo.deleteByNormLabelIn(event.normLabels());
+        log.debug("Match memo evicted {} labels ({} rows): {}", event.normLabels().size(), rows, event.reason());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, local, "matchMemo");
+        FunctionCounter.builder("matcher.memo.db", dbHits, LongAdder::sum)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("matcher.memo.db", dbMisses, LongAdder::sum)
+                .tag("result", "miss").register(registry);
+    }
+
+    private static String key(String catalogVersion, String label) {
+        return catalogVersion + '|' + label;
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.tas_backend.services;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.dtos.MatchedCountDriftDTO;
+import org.example.tas_backend.events.MatchedCountsChangedEvent;
+import org.example.tas_backend.repos.ApplicationRepo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Safety net for {@code Application.matchedCount}: recomputes the counts from the mappings with
+ * one aggregate query and repairs applications that drifted (manual SQL, cascaded deletes, bugs).
+ * Applications created before the counter existed are backfilled at startup by MatchedCountBackfill.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MatchedCountReconciler {
+
+    private final ApplicationRepo applicationRepo;
+    private final ApplicationEventPublisher events;
+
+    @Scheduled(initialDelayString = "${applications.matched-count.reconcile-initial-delay-ms:30000}",
+            fixedDelayString = "${applications.matched-count.reconcile-interval-ms:3600000}")
+    @Transactional
+    public int reconcile() {
+        int repaired = 0;
+        for (MatchedCountDriftDTO drift : applicationRepo.findMatchedCountDrift()) {
+            repaired += applicationRepo.repairMatchedCount(drift.applicationId(), drift.storedCount(),
+                    Math.toIntExact(drift.actualCount()));
+            log.warn("matchedCount drift on application {}: stored {}, actual {}",
+                    drift.applicationId(), drift.storedCount(), drift.actualCount());
+        }
+        if (repaired > 0) {
+            log.info("Repaired matchedCount on {} applications", repaired);
+            events.publishEvent(new MatchedCountsChangedEvent("drift repaired"));
+        }
+        return repaired;
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.tas_backend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.dtos.MatchResponseDTO;
+import org.example.tas_backend.dtos.MatchTraceDTO;
+import org.example.tas_backend.services.TargetCatalogService.CatalogSnapshot;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Coalesces matcher requests from concurrent submissions. Labels are collected for
+ * {@code matcher.batch.window-ms} or until {@code matcher.batch.max-labels} distinct labels are
+ * pending, sent in one {@code /match/} call, and the traces are fanned back out to every waiting
+ * caller. A label already pending is shared, not sent twice. A batch never mixes catalog versions.
+ */
+@Service
+@Slf4j
+public class MatcherBatcher {
+
+    private final AiService aiService;
+    private final TaskScheduler scheduler;
+    private final long windowMs;
+    private final int maxLabels;
+
+    private Map<String, CompletableFuture<MatchTraceDTO>> pending = new LinkedHashMap<>();
+    private CatalogSnapshot pendingCatalog;
+
+    public MatcherBatcher(AiService aiService,
+                          @Qualifier("matcherBatchScheduler") TaskScheduler scheduler,
+                          @Value("${matcher.batch.window-ms:25}") long windowMs,
+                          @Value("${matcher.batch.max-labels:200}") int maxLabels) {
+        this.aiService = aiService;
+        this.scheduler = scheduler;
+        this.windowMs = windowMs;
+        this.maxLabels = maxLabels;
+    }
+
+    /**
+     * Blocks until every label has been answered. The map holds a trace per label the matcher
+     * answered; a failed batch is rethrown to all of its callers.
+     */
+    public Map<String, MatchTraceDTO> match(CatalogSnapshot catalog, Collection<String> labels) {
+        Map<String, CompletableFuture<MatchTraceDTO>> mine = new LinkedHashMap<>();
+        synchronized (this) {
+            if (!pending.isEmpty() && !pendingCatalog.version().equals(catalog.version())) {
+                sendNow();
+            }
+            boolean wasEmpty = pending.isEmpty();
+            pendingCatalog = catalog;
+            for (String label : labels) {
+                mine.put(label, pending.computeIfAbsent(label, k -> new CompletableFuture<>()));
+            }
+            if (windowMs <= 0 || pending.size() >= maxLabels) {
+                sendNow();
+            } else if (wasEmpty && !pending.isEmpty()) {
+                scheduler.schedule(this::flush, Instant.now().plus(Duration.ofMillis(windowMs)));
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(mine.values().toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException re ? re : ex;
+        }
+        Map<String, MatchTraceDTO> out = new HashMap<>();
+        mine.forEach((label, f) -> {
+            MatchTraceDTO trace = f.join();
+            if (trace != null) out.put(label, trace);
+        });
+        return out;
+    }
+
+    private void flush() {
+        Map<String, CompletableFuture<MatchTraceDTO>> batch;
+        CatalogSnapshot catalog;
+        synchronized (this) {
+            catalog = pendingCatalog;
+            batch = drain();
+        }
+        send(catalog, batch);
+    }
+
+    /** Caller holds the lock. */
+    private void sendNow() {
+        CatalogSnapshot catalog = pendingCatalog;
+        Map<String, CompletableFuture<MatchTraceDTO>> batch = drain();
+        scheduler.schedule(() -> send(catalog, batch), Instant.now());
+    }
+
+    private Map<String, CompletableFuture<MatchTraceDTO>> drain() {
+        Map<String, CompletableFuture<MatchTraceDTO>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void send(CatalogSnapshot catalog, Map<String, CompletableFuture<MatchTraceDTO>> batch) {
+        if (batch.isEmpty()) return;
+        List<String> labels = List.copyOf(batch.keySet());
+        try {
+            if (catalog.targets().isEmpty()) {
+                log.warn("No target subjects found in Spring DB; matcher will not have a catalog to use");
+            }
+            log.debug("Calling AI matcher with batch of {} labels, catalog={}", labels.size(), catalog.version());
+            MatchResponseDTO match = aiService.matchSubjects(labels, catalog);
+
+            List<MatchTraceDTO> trace = match != null && match.trace() != null ? match.trace() : List.of();
+            if (trace.isEmpty()) {
+                log.warn("Matcher returned empty trace for labels={}", labels);
+            } else {
+                log.debug("Matcher response coverage_pct={} matched={}", match.coveragePct(), match.matched());
+            }
+            for (int i = 0; i < labels.size(); i++) {
+                batch.get(labels.get(i)).complete(i < trace.size() ? trace.get(i) : null);
+            }
+        } catch (Exception ex) {
+            log.error("Matcher call failed for batch of {} labels", labels.size(), ex);
+            batch.values().forEach(f -> f.completeExceptionally(ex));
+        }
+    }
+}
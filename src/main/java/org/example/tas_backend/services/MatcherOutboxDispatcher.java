@@ -0,0 +1,133 @@
+package org.example.tas_backend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.dtos.SubjectAliasDTO;
+import org.example.tas_backend.entities.MatcherOutboxEvent;
+import org.example.tas_backend.enums.MatcherOutboxStatus;
+import org.example.tas_backend.events.TargetCatalogChangedEvent;
+import org.example.tas_backend.repos.MatcherOutboxRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Drains the matcher outbox outside any request: due events are performed in id order, and a
+ * failure is retried with exponential backoff until {@code matcher.outbox.max-attempts}, after
+ * which the event is parked as FAILED (and logged) for an admin retry. Side effects are
+ * idempotent — an alias already gone counts as deleted — so a retry after a partial run is safe.
+ * Each run first claims its batch ({@link MatcherOutboxRepo#claim}), so several instances never
+ * work the same event; a run that dies mid-batch leaves its events due again once the
+ * {@code matcher.outbox.lease-ms} lease runs out.
+ */
+@Service
+@Slf4j
+public class MatcherOutboxDispatcher {
+
+    static final int BATCH = 20;
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final MatcherOutboxRepo outboxRepo;
+    private final AiService ai;
+    private final ApplicationEventPublisher events;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration lease;
+
+    public MatcherOutboxDispatcher(MatcherOutboxRepo outboxRepo,
+                                   AiService ai,
+                                   ApplicationEventPublisher events,
+                                   @Value("${matcher.outbox.max-attempts:8}") int maxAttempts,
+                                   @Value("${matcher.outbox.backoff-ms:10000}") long backoffMs,
+                                   @Value("${matcher.outbox.lease-ms:300000}") long leaseMs) {
+        this.outboxRepo = outboxRepo;
+        this.ai = ai;
+        this.events = events;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = Duration.ofMillis(Math.max(1, backoffMs));
+        this.lease = Duration.ofMillis(Math.max(1, leaseMs));
+    }
+
+    /** @return number of events processed (done or failed) */
+    @Scheduled(initialDelayString = "${matcher.outbox.initial-delay-ms:10000}",
+            fixedDelayString = "${matcher.outbox.poll-interval-ms:5000}")
+    public int dispatch() {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Long> dueIds = outboxRepo.findDueIds(now, PageRequest.of(0, BATCH));
+        if (dueIds.isEmpty()) return 0;
+        String token = UUID.randomUUID().toString();
+        if (outboxRepo.claim(dueIds, token, now, now.plus(lease)) == 0) return 0;
+        List<MatcherOutboxEvent> due = outboxRepo.findByClaimTokenOrderByIdAsc(token);
+        for (MatcherOutboxEvent event : due) {
+            try {
+                int deleted = switch (event.getAction()) {
+                    case DELETE_ALIASES -> deleteAliases(event.getTargetCode(), List.of(event.getLabels().split("\n")));
+                };
+                event.setStatus(MatcherOutboxStatus.DONE);
+                event.setCompletedAt(OffsetDateTime.now());
+                event.setLastError(null);
+                if (deleted > 0) {
+                    events.publishEvent(new TargetCatalogChangedEvent("aliases deleted for " + event.getTargetCode()));
+                }
+            } catch (RuntimeException ex) {
+                failed(event, ex);
+            }
+            outboxRepo.save(event);
+        }
+        return due.size();
+    }
+
+    private void failed(MatcherOutboxEvent event, RuntimeException ex) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        String error = ex.getClass().getSimpleName() + ": " + ex.getMessage();
+        event.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (attempts >= maxAttempts) {
+            event.setStatus(MatcherOutboxStatus.FAILED);
+            log.error("Matcher outbox event {} ({} {}) failed after {} attempts: {}",
+                    event.getId(), event.getAction(), event.getTargetCode(), attempts, error);
+            return;
+        }
+        Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (delay.compareTo(MAX_BACKOFF) > 0) delay = MAX_BACKOFF;
+        event.setNextAttemptAt(OffsetDateTime.now().plus(delay));
+        log.warn("Matcher outbox event {} attempt {} failed, retrying in {}s: {}",
+                event.getId(), attempts, delay.toSeconds(), error);
+    }
+
+    /** One alias listing for the target, then deletes every alias matching one of the labels. */
+    private int deleteAliases(String targetCode, List<String> rawLabels) {
+        int deleted = 0;
+        Set<UUID> seen = new HashSet<>();
+        for (SubjectAliasDTO a : ai.listAliases(null, targetCode, null)) {
+            if (a == null || a.id() == null || !seen.add(a.id())) continue;
+            if (rawLabels.stream().noneMatch(label -> matchesAlias(a, label, LabelNormalizer.normalize(label)))) continue;
+            try {
+                ai.deleteAlias(a.id().toString());
+                deleted++;
+            } catch (HttpClientErrorException.NotFound ignored) {
+                // deleted by an earlier, partially failed attempt
+            }
+        }
+        return deleted;
+    }
+
+    private boolean matchesAlias(SubjectAliasDTO a, String rawLabel, String normalized) {
+        String label = a.label();
+        String norm = a.norm_label();
+        return (StringUtils.hasText(label) && label.equalsIgnoreCase(rawLabel))
+                || (StringUtils.hasText(label) && StringUtils.hasText(normalized) && label.equalsIgnoreCase(normalized))
+                || (StringUtils.hasText(norm) && StringUtils.hasText(normalized) && norm.equalsIgnoreCase(normalized))
+                || (StringUtils.hasText(norm) && norm.equalsIgnoreCase(rawLabel));
+    }
+}
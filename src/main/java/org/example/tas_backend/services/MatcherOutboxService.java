@@ -0,0 +1,80 @@
+package org.example.tas_backend.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.dtos.MatcherOutboxEventDTO;
+import org.example.tas_backend.entities.MatcherOutboxEvent;
+import org.example.tas_backend.enums.MatcherOutboxAction;
+import org.example.tas_backend.enums.MatcherOutboxStatus;
+import org.example.tas_backend.repos.MatcherOutboxRepo;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Records matcher side effects in the caller's transaction (transactional outbox); they are
+ * performed after commit by {@link MatcherOutboxDispatcher}, so admin requests do not wait on
+ * Django and a failed side effect stays visible instead of being logged and dropped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MatcherOutboxService {
+
+    private final MatcherOutboxRepo outboxRepo;
+
+    /** Queues deletion of the aliases of {@code targetCode} that match any of {@code labels}. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAliasDeletion(String targetCode, Collection<String> labels) {
+        // case-insensitive, order-independent: the same cleanup gets the same key
+        TreeSet<String> distinct = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        distinct.addAll(labels);
+        if (distinct.isEmpty()) return;
+        String key = UUID.nameUUIDFromBytes((MatcherOutboxAction.DELETE_ALIASES + "|" + targetCode + "|"
+                + String.join("\n", distinct).toLowerCase(Locale.ROOT)).getBytes(StandardCharsets.UTF_8)).toString();
+        // the unique pending key settles concurrent enqueues of the same cleanup in the database
+        int queued = outboxRepo.insertPendingIfAbsent(MatcherOutboxAction.DELETE_ALIASES.name(), key, targetCode,
+                String.join("\n", distinct), OffsetDateTime.now());
+        if (queued == 0) log.debug("Alias cleanup {} for {} already queued", distinct, targetCode);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MatcherOutboxEventDTO> list(MatcherOutboxStatus status, int limit) {
+        return outboxRepo.findByStatusOrderByIdDesc(status, PageRequest.of(0, Math.max(1, Math.min(limit, 200))))
+                .stream().map(MatcherOutboxService::toDto).toList();
+    }
+
+    /** Puts a failed (or pending) event back at the head of the queue with a fresh attempt budget. */
+    @Transactional
+    public MatcherOutboxEventDTO retry(Long id) {
+        MatcherOutboxEvent event = outboxRepo.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("outbox event not found: " + id));
+        if (event.getStatus() == MatcherOutboxStatus.DONE) {
+            throw new IllegalStateException("outbox event " + id + " is already done");
+        }
+        if (event.getStatus() != MatcherOutboxStatus.PENDING
+                && outboxRepo.existsByIdempotencyKeyAndStatus(event.getIdempotencyKey(), MatcherOutboxStatus.PENDING)) {
+            throw new IllegalStateException("the same cleanup is already queued again");
+        }
+        event.setStatus(MatcherOutboxStatus.PENDING);
+        event.setAttempts(0);
+        event.setNextAttemptAt(OffsetDateTime.now());
+        return toDto(outboxRepo.save(event));
+    }
+
+    static MatcherOutboxEventDTO toDto(MatcherOutboxEvent e) {
+        return new MatcherOutboxEventDTO(e.getId(), e.getAction().name(), e.getTargetCode(),
+                List.of(e.getLabels().split("\n")), e.getStatus().name(), e.getAttempts(), e.getLastError(),
+                e.getCreatedAt(), e.getNextAttemptAt(), e.getCompletedAt());
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.tas_backend.services;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A single-part multipart/form-data body backed by a file on disk.
+ * The length (preamble + file + epilogue) is known up front, so RestTemplate sends a fixed
+ * Content-Length (Django/WSGI rejects chunked uploads) while the file itself is streamed from a
+ * {@link FileChannel} instead of being copied onto the heap.
+ */
+final class MultipartFileResource extends AbstractResource {
+
+    private final Path file;
+    private final String boundary;
+    private final byte[] preamble;
+    private final byte[] epilogue;
+    private final long fileSize;
+
+    MultipartFileResource(Path file, String fieldName, String filename, String contentType) throws IOException {
+        this.file = file;
+        this.fileSize = Files.size(file);
+        this.boundary = "----TASBoundary" + UUID.randomUUID();
+        this.preamble = ("--" + boundary + "\r\n" +
+                "Content-Disposition: form-data; name=\"" + fieldName + "\"; filename=\"" + filename + "\"\r\n" +
+                "Content-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        this.epilogue = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    MediaType contentType() {
+        return MediaType.parseMediaType("multipart/form-data; boundary=" + boundary);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        return new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream(preamble),
+                Channels.newInputStream(channel),
+                new ByteArrayInputStream(epilogue))));
+    }
+
+    @Override
+    public long contentLength() {
+        return preamble.length + fileSize + epilogue.length;
+    }
+
+    @Override
+    public boolean exists() {
+        return Files.isReadable(file);
+    }
+
+    @Override
+    public String getDescription() {
+        return "multipart body [" + file + "]";
+    }
+}
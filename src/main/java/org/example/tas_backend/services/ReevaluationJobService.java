@@ -0,0 +1,126 @@
+package org.example.tas_backend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.dtos.ReevaluationJobDTO;
+import org.example.tas_backend.entities.ReevaluationJob;
+import org.example.tas_backend.enums.ReevaluationJobStatus;
+import org.example.tas_backend.repos.ApplicationRepo;
+import org.example.tas_backend.repos.ReevaluationJobRepo;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Runs threshold re-evaluations in the background, one chunk per transaction
+ * ({@link AcceptanceService#reevaluateNextChunk}), and pushes progress to
+ * {@code /topic/admin/reevaluation}. The executor has a single thread, so jobs never overlap;
+ * starting a job supersedes (cancels) the one still running.
+ */
+@Service
+@Slf4j
+public class ReevaluationJobService {
+
+    static final String TOPIC = "/topic/admin/reevaluation";
+
+    private final ReevaluationJobRepo jobRepo;
+    private final ApplicationRepo applicationRepo;
+    private final AcceptanceService acceptanceService;
+    private final SimpMessagingTemplate broker;
+    private final TaskExecutor executor;
+    private final int chunkSize;
+
+    public ReevaluationJobService(ReevaluationJobRepo jobRepo,
+                                  ApplicationRepo applicationRepo,
+                                  AcceptanceService acceptanceService,
+                                  SimpMessagingTemplate broker,
+                                  @Qualifier("reevaluationExecutor") TaskExecutor executor,
+                                  @Value("${acceptance.reevaluation.chunk-size:500}") int chunkSize) {
+        this.jobRepo = jobRepo;
+        this.applicationRepo = applicationRepo;
+        this.acceptanceService = acceptanceService;
+        this.broker = broker;
+        this.executor = executor;
+        // bounds the IN lists of the bulk status update
+        this.chunkSize = Math.max(1, Math.min(chunkSize, 1000));
+    }
+
+    public synchronized ReevaluationJobDTO start(int threshold) {
+        for (ReevaluationJob running : jobRepo.findByStatusOrderByIdDesc(ReevaluationJobStatus.RUNNING)) {
+            jobRepo.finishRunning(running.getId(), ReevaluationJobStatus.CANCELLED, "superseded", OffsetDateTime.now());
+        }
+        ReevaluationJob job = new ReevaluationJob();
+        job.setStatus(ReevaluationJobStatus.RUNNING);
+        job.setThreshold(threshold);
+        job.setTotal(applicationRepo.countReevaluable());
+        job = jobRepo.save(job);
+        log.info("Re-evaluation job {} queued at threshold {} ({} applications)", job.getId(), threshold, job.getTotal());
+        publish(job);
+        submit(job.getId());
+        return toDto(job);
+    }
+
+    /** Takes effect at the next chunk boundary; the chunk in flight still commits. */
+    public Optional<ReevaluationJobDTO> cancel(Long jobId) {
+        jobRepo.finishRunning(jobId, ReevaluationJobStatus.CANCELLED, "cancelled by admin", OffsetDateTime.now());
+        Optional<ReevaluationJob> job = jobRepo.findById(jobId);
+        job.ifPresent(this::publish);
+        return job.map(ReevaluationJobService::toDto);
+    }
+
+    public Optional<ReevaluationJobDTO> latest() {
+        return jobRepo.findTopByOrderByIdDesc().map(ReevaluationJobService::toDto);
+    }
+
+    /** Picks up the job a restart interrupted; older leftovers are superseded by it. */
+    public void resumeRunning() {
+        List<ReevaluationJob> running = jobRepo.findByStatusOrderByIdDesc(ReevaluationJobStatus.RUNNING);
+        if (running.isEmpty()) return;
+        for (ReevaluationJob stale : running.subList(1, running.size())) {
+            jobRepo.finishRunning(stale.getId(), ReevaluationJobStatus.CANCELLED, "superseded", OffsetDateTime.now());
+        }
+        ReevaluationJob job = running.get(0);
+        log.info("Resuming re-evaluation job {} after application {}", job.getId(), job.getLastApplicationId());
+        submit(job.getId());
+    }
+
+    private void submit(Long jobId) {
+        executor.execute(() -> run(jobId));
+    }
+
+    void run(Long jobId) {
+        try {
+            ReevaluationJob job;
+            do {
+                if (Thread.currentThread().isInterrupted()) {
+                    // shutting down: leave it RUNNING so the next start resumes it
+                    return;
+                }
+                job = acceptanceService.reevaluateNextChunk(jobId, chunkSize);
+                publish(job);
+            } while (job.getStatus() == ReevaluationJobStatus.RUNNING);
+        } catch (Exception ex) {
+            log.error("Re-evaluation job {} failed", jobId, ex);
+            jobRepo.finishRunning(jobId, ReevaluationJobStatus.FAILED, ex.getMessage(), OffsetDateTime.now());
+            jobRepo.findById(jobId).ifPresent(this::publish);
+        }
+    }
+
+    private void publish(ReevaluationJob job) {
+        try {
+            broker.convertAndSend(TOPIC, toDto(job));
+        } catch (Exception ex) {
+            log.debug("Unable to push progress for re-evaluation job {}: {}", job.getId(), ex.getMessage());
+        }
+    }
+
+    private static ReevaluationJobDTO toDto(ReevaluationJob job) {
+        return new ReevaluationJobDTO(job.getId(), job.getStatus().name(), job.getThreshold(), job.getTotal(),
+                job.getProcessed(), job.getChanged(), job.getMessage(), job.getCreatedAt(), job.getFinishedAt());
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.tas_backend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.events.ApplicationsDecidedEvent;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Sends decision notices to {@code /topic/app_status/{sub}} after the decisions commit, as one
+ * background task per batch, so a bulk decision neither waits on the broker nor announces
+ * decisions that were rolled back.
+ */
+@Service
+@Slf4j
+public class StudentStatusNotifier {
+
+    private final SimpMessagingTemplate broker;
+    private final TaskExecutor executor;
+
+    public StudentStatusNotifier(SimpMessagingTemplate broker,
+                                 @Qualifier("notificationExecutor") TaskExecutor executor) {
+        this.broker = broker;
+        this.executor = executor;
+    }
+
+    @TransactionalEventListener
+    public void onDecided(ApplicationsDecidedEvent event) {
+        if (event.notices().isEmpty()) return;
+        executor.execute(() -> send(event.notices()));
+    }
+
+    private void send(List<ApplicationsDecidedEvent.Notice> notices) {
+        int failed = 0;
+        for (ApplicationsDecidedEvent.Notice notice : notices) {
+            try {
+                broker.convertAndSend("/topic/app_status/" + notice.studentSub(), notice.payload());
+            } catch (RuntimeException ex) {
+                failed++;
+                log.debug("Status notice for application {} not sent", notice.payload().applicationId(), ex);
+            }
+        }
+        if (failed > 0) log.warn("{} of {} status notices could not be sent", failed, notices.size());
+    }
+}
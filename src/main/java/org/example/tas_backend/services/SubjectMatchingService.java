@@ -0,0 +1,68 @@
+package org.example.tas_backend.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.dtos.MatchTraceDTO;
+import org.example.tas_backend.services.TargetCatalogService.CatalogSnapshot;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tiered subject matching: {@link LocalSubjectMatcher} first, then the {@link MatchMemoCache} of
+ * earlier remote results, and the remote matcher (through {@link MatcherBatcher}) only for
+ * distinct labels still unresolved.
+ * Not transactional; the remote call must not hold a connection.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SubjectMatchingService {
+
+    private final TargetCatalogService catalogService;
+    private final LocalSubjectMatcher localMatcher;
+    private final MatchMemoCache memo;
+    private final MatcherBatcher batcher;
+
+    /**
+     * Matches normalized labels; the result is index-aligned with {@code labels} and holds
+     * {@code null} where neither tier produced a trace.
+     */
+    public List<MatchTraceDTO> match(List<String> labels) {
+        // one snapshot for the whole call so local, memo and remote tiers agree on the catalog
+        CatalogSnapshot catalog = catalogService.snapshot();
+        MatchTraceDTO[] traces = new MatchTraceDTO[labels.size()];
+        Map<String, List<Integer>> unresolved = new LinkedHashMap<>();
+        for (int i = 0; i < labels.size(); i++) {
+            int pos = i;
+            localMatcher.match(catalog, labels.get(i)).ifPresentOrElse(t -> traces[pos] = t,
+                    () -> unresolved.computeIfAbsent(labels.get(pos), k -> new ArrayList<>()).add(pos));
+        }
+        log.debug("Local matcher left {} distinct labels unresolved out of {}", unresolved.size(), labels.size());
+        if (unresolved.isEmpty()) return Arrays.asList(traces);
+
+        String catalogVersion = catalog.version();
+        long memoGeneration = memo.generation();
+        memo.getAll(catalogVersion, unresolved.keySet()).forEach((label, trace) -> {
+            for (int pos : unresolved.remove(label)) traces[pos] = trace;
+        });
+        if (unresolved.isEmpty()) return Arrays.asList(traces);
+
+        Map<String, MatchTraceDTO> fresh;
+        try {
+            fresh = batcher.match(catalog, unresolved.keySet());
+        } catch (Exception ex) {
+            log.error("Matcher call failed", ex);
+            return Arrays.asList(traces);
+        }
+        fresh.forEach((label, trace) -> {
+            for (int pos : unresolved.get(label)) traces[pos] = trace;
+        });
+        memo.putAll(catalogVersion, memoGeneration, fresh);
+        return Arrays.asList(traces);
+    }
+}
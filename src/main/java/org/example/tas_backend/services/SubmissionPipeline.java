@@ -0,0 +1,204 @@
+package org.example.tas_backend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.dtos.ApplicationProgressDTO;
+import org.example.tas_backend.dtos.OcrOutcomeDTO;
+import org.example.tas_backend.dtos.PipelineStateDTO;
+import org.example.tas_backend.enums.PipelineStage;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the post-submit stages (OCR, matching, acceptance) off the request thread and
+ * pushes per-stage progress to /topic/app_progress/{studentSub}. At most
+ * {@code pipeline.workers + pipeline.queue-capacity} submissions are admitted at a time;
+ * callers claim a slot with {@link #tryReserve()} before persisting anything.
+ * <p>
+ * Each stage is recorded on the {@code Application} ({@code pipelineStage}), so submissions
+ * a restart interrupted are resumed by SubmissionPipelineResumer, and FAILED ones can be
+ * retried by an admin.
+ */
+@Service
+@Slf4j
+public class SubmissionPipeline {
+
+    private final ApplicationSubmitService submitService;
+    private final AcceptanceService acceptanceService;
+    private final SimpMessagingTemplate broker;
+    private final TaskExecutor executor;
+    private final TaskExecutor ocrExecutor;
+    // one permit per queued or running submission
+    private final Semaphore slots;
+
+    public SubmissionPipeline(ApplicationSubmitService submitService,
+                              AcceptanceService acceptanceService,
+                              SimpMessagingTemplate broker,
+                              @Qualifier("submissionExecutor") TaskExecutor executor,
+                              @Qualifier("ocrExecutor") TaskExecutor ocrExecutor,
+                              @Value("${pipeline.workers:4}") int workers,
+                              @Value("${pipeline.queue-capacity:200}") int queueCapacity) {
+        this.submitService = submitService;
+        this.acceptanceService = acceptanceService;
+        this.broker = broker;
+        this.executor = executor;
+        this.ocrExecutor = ocrExecutor;
+        this.slots = new Semaphore(workers + queueCapacity);
+    }
+
+    /** Claims a pipeline slot for a new submission; false when workers and queue are all taken. */
+    public boolean tryReserve() {
+        return slots.tryAcquire();
+    }
+
+    /** Gives back a slot claimed by {@link #tryReserve()} for a submission that never reached {@link #start}. */
+    public void release() {
+        slots.release();
+    }
+
+    /**
+     * Queue the pipeline for an application whose upload has already been committed. The caller
+     * must hold a slot from {@link #tryReserve()}; it is released when the pipeline finishes.
+     */
+    public void start(Long appId, String sub) {
+        enqueue(appId, sub, PipelineStage.QUEUED);
+    }
+
+    /**
+     * Re-queues a FAILED submission; the caller must hold a slot from {@link #tryReserve()}.
+     * Stages redo only what is missing: documents with persisted OCR and subjects that already
+     * have a mapping are skipped. False (and the slot is given back) if it is not FAILED.
+     */
+    public boolean retryFailed(Long appId, String sub) {
+        if (!submitService.requeueFailed(appId)) {
+            slots.release();
+            return false;
+        }
+        enqueue(appId, sub, PipelineStage.QUEUED);
+        return true;
+    }
+
+    /**
+     * Re-queues the submissions a previous instance left queued or half-way, each from the stage
+     * it had reached. Runs on its own thread, which waits for free slots, so the admission bound
+     * holds and startup is not held up.
+     */
+    public void resumeUnfinished() {
+        List<PipelineStateDTO> unfinished = submitService.unfinishedPipelines();
+        if (unfinished.isEmpty()) return;
+        log.info("Re-queuing {} submissions left unfinished by the previous run", unfinished.size());
+        Thread.ofPlatform().daemon().name("submission-pipeline-resume").start(() -> {
+            for (PipelineStateDTO app : unfinished) {
+                slots.acquireUninterruptibly();
+                enqueue(app.applicationId(), app.studentSub(), app.stage());
+            }
+        });
+    }
+
+    private void enqueue(Long appId, String sub, PipelineStage from) {
+        publish(sub, appId, PipelineStage.QUEUED, 0, 0, null);
+        try {
+            executor.execute(() -> {
+                try {
+                    run(appId, sub, from);
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RuntimeException ex) {
+            slots.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Runs the stages from {@code from} on, recording each one on the application before it
+     * starts; a failure is recorded as FAILED with its stage and message.
+     */
+    void run(Long appId, String sub, PipelineStage from) {
+        PipelineStage stage = PipelineStage.OCR;
+        try {
+            if (from.compareTo(PipelineStage.MATCHING) < 0) {
+                submitService.recordStage(appId, stage, null);
+                runOcr(appId, sub);
+            }
+
+            stage = PipelineStage.MATCHING;
+            if (from.compareTo(PipelineStage.ACCEPTANCE) < 0) {
+                submitService.recordStage(appId, stage, null);
+                publish(sub, appId, stage, 0, 1, null);
+                submitService.matchApplication(appId);
+                publish(sub, appId, stage, 1, 1, null);
+            }
+
+            stage = PipelineStage.ACCEPTANCE;
+            submitService.recordStage(appId, stage, null);
+            publish(sub, appId, stage, 0, 1, null);
+            acceptanceService.reevaluateApplication(appId);
+            publish(sub, appId, stage, 1, 1, null);
+
+            submitService.recordStage(appId, PipelineStage.COMPLETED, null);
+            publish(sub, appId, PipelineStage.COMPLETED, 1, 1, null);
+        } catch (Exception ex) {
+            log.error("Submission pipeline failed for application {} at stage {}", appId, stage, ex);
+            String message = stage.name() + ": " + ex.getMessage();
+            try {
+                submitService.recordStage(appId, PipelineStage.FAILED, message);
+            } catch (RuntimeException recordEx) {
+                // left at its running stage: the next start resumes it
+                log.error("Could not record the failed pipeline of application {}", appId, recordEx);
+            }
+            publish(sub, appId, PipelineStage.FAILED, 0, 0, message);
+        }
+    }
+
+    /**
+     * Fans OCR out over {@code ocrExecutor}, so the stage takes about as long as the slowest
+     * document. Results are persisted afterwards in document-id order, keeping the
+     * {@code ExtractedSubject} order independent of which OCR call returned first.
+     */
+    private void runOcr(Long appId, String sub) {
+        List<Long> docIds = submitService.documentIdsWithoutOcr(appId);
+        int total = docIds.size();
+        publish(sub, appId, PipelineStage.OCR, 0, total, null);
+        if (total == 0) return;
+
+        AtomicInteger done = new AtomicInteger();
+        List<CompletableFuture<OcrOutcomeDTO>> pending = new ArrayList<>(total);
+        for (Long docId : docIds) {
+            pending.add(CompletableFuture
+                    .supplyAsync(() -> submitService.runOcr(docId), ocrExecutor)
+                    .whenComplete((r, ex) ->
+                            publish(sub, appId, PipelineStage.OCR, done.incrementAndGet(), total, null)));
+        }
+
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException re ? re : ex;
+        }
+        for (CompletableFuture<OcrOutcomeDTO> f : pending) {
+            submitService.saveOcr(f.join());
+        }
+    }
+
+    private void publish(String sub, Long appId, PipelineStage stage, int completed, int total, String message) {
+        if (sub == null) return;
+        try {
+            broker.convertAndSend("/topic/app_progress/" + sub,
+                    new ApplicationProgressDTO(appId, stage.name(), completed, total, message, Instant.now()));
+        } catch (Exception ex) {
+            log.debug("Unable to push progress for application {}: {}", appId, ex.getMessage());
+        }
+    }
+}
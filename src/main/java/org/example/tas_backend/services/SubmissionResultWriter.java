@@ -0,0 +1,190 @@
+package org.example.tas_backend.services;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.dtos.MatchTraceDTO;
+import org.example.tas_backend.entities.Document;
+import org.example.tas_backend.entities.DocumentText;
+import org.example.tas_backend.entities.ExtractedSubject;
+import org.example.tas_backend.entities.MappingSuggestion;
+import org.example.tas_backend.entities.SubjectMapping;
+import org.example.tas_backend.entities.TargetSubject;
+import org.example.tas_backend.enums.SuggestionStatus;
+import org.example.tas_backend.events.MatchedCountsChangedEvent;
+import org.example.tas_backend.events.SuggestionStatusChangedEvent;
+import org.example.tas_backend.repos.ApplicationRepo;
+import org.example.tas_backend.repos.DocumentRepo;
+import org.example.tas_backend.repos.DocumentTextRepo;
+import org.example.tas_backend.repos.ExtractedSubjectRepo;
+import org.example.tas_backend.repos.MappingSuggestionRepo;
+import org.example.tas_backend.repos.SubjectMappingRepo;
+import org.example.tas_backend.repos.TargetSubjectRepo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Short write transactions of the submission pipeline. Remote OCR/matcher calls happen in
+ * {@link ApplicationSubmitService} outside any transaction; only their results are persisted here.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionResultWriter {
+
+    private final DocumentRepo documentRepo;
+    private final DocumentTextRepo documentTextRepo;
+    private final ExtractedSubjectRepo extractedSubjectRepo;
+    private final SubjectMappingRepo subjectMappingRepo;
+    private final TargetSubjectRepo targetSubjectRepo;
+    private final MappingSuggestionRepo mappingSuggestionRepo;
+    private final ApplicationRepo applicationRepo;
+    private final ApplicationEventPublisher events;
+
+    @Transactional
+    public List<ExtractedSubject> saveOcrResult(Long documentId, String rawText, List<String> courses) {
+        Document doc = documentRepo.findById(documentId)
+                .orElseThrow(() -> new NoSuchElementException("document not found: " + documentId));
+        doc.setTextPreview(DocumentTextService.preview(rawText));
+        doc.setTextLength(rawText != null ? rawText.length() : null);
+        documentRepo.save(doc);
+        if (rawText != null) {
+            DocumentText text = documentTextRepo.findById(documentId).orElseGet(DocumentText::new);
+            text.setDocumentId(documentId);
+            text.setText(rawText);
+            documentTextRepo.save(text);
+        }
+
+        var subjects = new ArrayList<ExtractedSubject>(courses.size());
+        for (String course : courses) {
+            if (!StringUtils.hasText(course)) continue;
+            ExtractedSubject es = new ExtractedSubject();
+            es.setDocument(doc);
+            es.setRawName(course.trim());
+            subjects.add(es);
+        }
+        // sequence ids: inserted as one JDBC batch at flush
+        List<ExtractedSubject> saved = extractedSubjectRepo.saveAll(subjects);
+        log.debug("Persisted {} extracted subjects (pre-match): {}", saved.size(),
+                saved.stream().map(ExtractedSubject::getRawName).toList());
+        return saved;
+    }
+
+    /**
+     * Persist matcher traces; {@code traces.get(i)} belongs to {@code subjects.get(i)}.
+     * Set-based: one query for already-mapped subjects, one for the referenced targets, then a
+     * batched insert of mappings and of suggestions (duplicates of existing suggestions are skipped).
+     * The subjects are row-locked before the already-mapped check, so a concurrent run for the
+     * same subjects (a retried or resumed pipeline) waits and then skips them instead of hitting
+     * uk_map_subject_target and rolling back the whole stage.
+     * The owning applications' {@code matchedCount} is bumped in the same transaction.
+     */
+    @Transactional
+    public void saveMatches(List<ExtractedSubject> subjects, List<MatchTraceDTO> traces) {
+        int limit = Math.min(subjects.size(), traces.size());
+        if (limit == 0) return;
+
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < limit; i++) {
+            MatchTraceDTO trace = traces.get(i);
+            if (trace != null && StringUtils.hasText(trace.target())) codes.add(trace.target());
+        }
+        if (codes.isEmpty()) return;
+
+        // skip subjects that are already mapped (idempotent); the lock keeps it true until commit
+        extractedSubjectRepo.lockAll(subjects.subList(0, limit));
+        Set<Long> mapped = subjectMappingRepo.findMappedSubjectIds(subjects.subList(0, limit));
+        // Target list is static; do not create or update here
+        Map<String, TargetSubject> targets = new HashMap<>();
+        for (TargetSubject t : targetSubjectRepo.findByCodeIn(codes)) {
+            targets.put(t.getCode(), t);
+        }
+
+        List<SubjectMapping> mappings = new ArrayList<>();
+        Map<String, MappingSuggestion> suggestions = new LinkedHashMap<>();
+        for (int i = 0; i < limit; i++) {
+            ExtractedSubject subject = subjects.get(i);
+            MatchTraceDTO trace = traces.get(i);
+            if (trace == null || mapped.contains(subject.getId())) continue;
+
+            String targetCode = trace.target();
+            if (!StringUtils.hasText(targetCode)) {
+                log.debug("No target code for extracted subject {} rawName={}", subject.getId(), subject.getRawName());
+                continue;
+            }
+
+            TargetSubject target = targets.get(targetCode);
+            if (target == null) {
+                log.warn("Skipping mapping for extractedId={} because target code '{}' not found (targets are admin-managed only)",
+                        subject.getId(), targetCode);
+                continue;
+            }
+
+            SubjectMapping mapping = new SubjectMapping();
+            mapping.setExtractedSubject(subject);
+            mapping.setTargetSubject(target);
+            mapping.setConfidence(trace.score() != null ? trace.score().floatValue() : null);
+            mapping.setNormalizedScore(mapping.getConfidence());
+            mapping.setAuto(true);
+            mapping.setMethod(trace.method());
+            mappings.add(mapping);
+            log.debug("Auto mapping extractedId={} -> targetCode={} score={} method={}",
+                    subject.getId(), targetCode, mapping.getConfidence(), trace.method());
+
+            MappingSuggestion suggestion = suggestionFor(trace, subject);
+            if (suggestion != null) {
+                suggestions.putIfAbsent(suggestion.getNormLabel() + "|" + suggestion.getProposedTargetCode()
+                        + "|" + suggestion.getLanguage(), suggestion);
+            }
+        }
+
+        subjectMappingRepo.saveAll(mappings);
+        if (!mappings.isEmpty()) {
+            applicationRepo.addMatchedSubjects(mappings.stream().map(m -> m.getExtractedSubject().getId()).toList());
+            events.publishEvent(new MatchedCountsChangedEvent("auto mappings saved"));
+        }
+        int inserted = mappingSuggestionRepo.insertIgnoringDuplicates(List.copyOf(suggestions.values()));
+        if (inserted > 0) {
+            events.publishEvent(new SuggestionStatusChangedEvent(null, SuggestionStatus.PENDING, inserted));
+        }
+        log.debug("Saved {} auto mappings and {} new suggestions ({} candidates)",
+                mappings.size(), inserted, suggestions.size());
+    }
+
+    private MappingSuggestion suggestionFor(MatchTraceDTO trace, ExtractedSubject subject) {
+        String method = trace.method();
+        if (!StringUtils.hasText(method)) return null;
+
+        String m = method.toLowerCase();
+        boolean isLlm = m.contains("llm");
+        boolean isFuzzy = m.contains("fuzzy") && (trace.score() == null || trace.score() < 0.95);
+
+        if (!isLlm && !isFuzzy) return null;
+
+        String targetCode = trace.target();
+        String rawLabel = subject.getRawName();
+        String normLabel = LabelNormalizer.normalize(rawLabel);
+        if (!StringUtils.hasText(targetCode) || !StringUtils.hasText(normLabel)) return null;
+
+        MappingSuggestion s = new MappingSuggestion();
+        s.setSrcLabel(rawLabel);
+        s.setNormLabel(normLabel);
+        s.setProposedTargetCode(targetCode);
+        s.setLanguage("fr"); // default fallback
+        s.setScore(trace.score() != null ? trace.score() : 0d);
+        s.setMethod(method);
+        s.setStatus(SuggestionStatus.PENDING);
+        s.setCreatedBy(isLlm ? "matcher-llm" : "matcher-fuzzy");
+        return s;
+    }
+}
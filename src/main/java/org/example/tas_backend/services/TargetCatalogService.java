@@ -0,0 +1,113 @@
+package org.example.tas_backend.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.tas_backend.entities.MappingSuggestion;
+import org.example.tas_backend.entities.TargetSubject;
+import org.example.tas_backend.enums.SuggestionStatus;
+import org.example.tas_backend.events.TargetCatalogChangedEvent;
+import org.example.tas_backend.repos.MappingSuggestionRepo;
+import org.example.tas_backend.repos.TargetSubjectRepo;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable in-memory view of the target catalog and accepted aliases, rebuilt lazily after a
+ * {@link TargetCatalogChangedEvent}. The version is a content hash, so it is stable across
+ * restarts and changes exactly when something the matcher depends on changes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TargetCatalogService {
+
+    public record CatalogTarget(String code, String name, Float coefficient) {}
+
+    public record AcceptedAlias(String normLabel, String srcLabel, String targetCode) {}
+
+    /** {@code payload} is the matcher's {@code targets} body (code, title_fr, coef). */
+    public record CatalogSnapshot(String version,
+                                  List<CatalogTarget> targets,
+                                  List<AcceptedAlias> aliases,
+                                  List<Map<String, Object>> payload) {}
+
+    private final TargetSubjectRepo targetSubjectRepo;
+    private final MappingSuggestionRepo mappingSuggestionRepo;
+
+    private volatile CatalogSnapshot snapshot;
+
+    public CatalogSnapshot snapshot() {
+        CatalogSnapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                s = snapshot;
+                if (s == null) {
+                    s = build();
+                    snapshot = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(TargetCatalogChangedEvent event) {
+        // synchronized with the build so an in-flight rebuild cannot republish a stale snapshot
+        log.debug("Target catalog snapshot invalidated: {}", event.reason());
+        snapshot = null;
+    }
+
+    private CatalogSnapshot build() {
+        List<CatalogTarget> targets = new ArrayList<>();
+        List<Map<String, Object>> payload = new ArrayList<>();
+        List<String> fingerprint = new ArrayList<>();
+        for (TargetSubject t : targetSubjectRepo.findAll(Sort.by("code"))) {
+            if (!StringUtils.hasText(t.getCode())) continue;
+            targets.add(new CatalogTarget(t.getCode(), t.getName(), t.getCoefficient()));
+            fingerprint.add("t|" + t.getCode() + "|" + t.getName() + "|" + t.getCoefficient());
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("code", t.getCode());
+            row.put("title_fr", StringUtils.hasText(t.getName()) ? t.getName() : t.getCode());
+            if (t.getCoefficient() != null) {
+                row.put("coef", t.getCoefficient().intValue());
+            }
+            payload.add(Collections.unmodifiableMap(row));
+        }
+
+        List<AcceptedAlias> aliases = new ArrayList<>();
+        for (MappingSuggestion s : mappingSuggestionRepo.findByStatus(SuggestionStatus.ACCEPTED, Sort.by("createdAt"))) {
+            aliases.add(new AcceptedAlias(s.getNormLabel(), s.getSrcLabel(), s.getProposedTargetCode()));
+            fingerprint.add("a|" + s.getNormLabel() + "|" + s.getProposedTargetCode());
+        }
+
+        CatalogSnapshot built = new CatalogSnapshot(version(fingerprint),
+                List.copyOf(targets), List.copyOf(aliases), List.copyOf(payload));
+        log.debug("Target catalog snapshot {} built: {} targets, {} accepted aliases",
+                built.version(), targets.size(), aliases.size());
+        return built;
+    }
+
+    private static String version(List<String> fingerprint) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            fingerprint.stream().sorted()
+                    .forEach(line -> digest.update((line + "\n").getBytes(StandardCharsets.UTF_8)));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.example.tas_backend.repos.ApplicationRepo;
 import org.example.tas_backend.repos.StudentApplicantRepo;
 import org.example.tas_backend.services.AiService;
 import org.example.tas_backend.services.AcceptanceService;
+import org.example.tas_backend.services.TargetCatalogService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,6 +29,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -92,7 +94,7 @@ class StudentApplicationIntegrationTests {
 
         when(restTemplate.postForEntity(eq("http://mock-ocr"), any(), eq(OcrResponse.class)))
                 .thenReturn(org.springframework.http.ResponseEntity.ok(new OcrResponse("file.pdf", "Advanced Algebra", 1, List.of("Advanced Algebra"))));
-        when(aiService.matchSubjects(anyList(), anyList()))
+        when(aiService.matchSubjects(anyList(), any(TargetCatalogService.CatalogSnapshot.class)))
                 .thenReturn(null);
     }
 
@@ -116,12 +118,13 @@ class StudentApplicationIntegrationTests {
                                 .claim("aud", List.of("angular"))
                                 .issuer("http://localhost:8080/realms/TAS"))
                                 .authorities(t -> java.util.List.of(new org.springframework.security.core.authority.SimpleGrantedAuthority("ROLE_STUDENT")))))
-                .andExpect(status().is2xxSuccessful());
+                .andExpect(status().isAccepted());
 
         List<Application> apps = applicationRepo.findAll();
         assertThat(apps).hasSize(1);
         assertThat(apps.get(0).getStatus()).isEqualTo(ApplicationStatus.SUBMITTED);
 
-        verify(aiService, times(1)).matchSubjects(anyList(), anyList());
+        // OCR + matching run on the submission pipeline after the 202
+        verify(aiService, timeout(5000).times(1)).matchSubjects(anyList(), any(TargetCatalogService.CatalogSnapshot.class));
     }
 }
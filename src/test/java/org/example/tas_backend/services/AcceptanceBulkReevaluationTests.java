@@ -0,0 +1,139 @@
+package org.example.tas_backend.services;
+
+import jakarta.persistence.EntityManager;
+import org.example.tas_backend.dtos.ApplicationMatchCountDTO;
+import org.example.tas_backend.entities.Application;
+import org.example.tas_backend.entities.ReevaluationJob;
+import org.example.tas_backend.entities.StudentApplicant;
+import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.enums.ReevaluationJobStatus;
+import org.example.tas_backend.events.ApplicationStatusChangedEvent;
+import org.example.tas_backend.repos.ApplicationRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Runs the bulk provisional re-evaluation against a database, so the JPQL CASE/IN update and its
+ * final-decision guard are exercised for real. H2 runs in its default mode because the _aud
+ * tables use TINYINT for revtype.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tas_bulk_reevaluation;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.envers.autoRegisterListeners=false",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AcceptanceService.class, BulkAuditWriter.class})
+@RecordApplicationEvents
+class AcceptanceBulkReevaluationTests {
+
+    @Autowired private AcceptanceService service;
+    @Autowired private EntityManager em;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ApplicationEvents events;
+    @SpyBean private ApplicationRepo applicationRepo;
+
+    @MockBean private MappingQueryService mappingQueryService;
+    // declared by TasBackendApplication, which has no RestTemplateBuilder in a JPA slice
+    @MockBean private RestTemplate restTemplate;
+
+    @Test
+    void shouldMoveRowsAcrossThresholdInOneUpdateAndOneRevision() {
+        Long up = application("up", ApplicationStatus.REJECTED, 3, null);
+        Long down = application("down", ApplicationStatus.PRE_ADMISSIBLE, 1, null);
+        Long submitted = application("submitted", ApplicationStatus.SUBMITTED, 2, null);
+        Long unchanged = application("unchanged", ApplicationStatus.PRE_ADMISSIBLE, 4, null);
+        Long approved = application("approved", ApplicationStatus.APPROVED, 0, "admin");
+        Long job = job(2);
+        em.flush();
+
+        ReevaluationJob result = service.reevaluateNextChunk(job, 10);
+
+        assertThat(result.getStatus()).isEqualTo(ReevaluationJobStatus.COMPLETED);
+        assertThat(result.getProcessed()).isEqualTo(4);
+        assertThat(result.getChanged()).isEqualTo(3);
+        assertThat(status(up)).isEqualTo(ApplicationStatus.PRE_ADMISSIBLE);
+        assertThat(status(down)).isEqualTo(ApplicationStatus.REJECTED);
+        assertThat(status(submitted)).isEqualTo(ApplicationStatus.PRE_ADMISSIBLE);
+        assertThat(status(unchanged)).isEqualTo(ApplicationStatus.PRE_ADMISSIBLE);
+        assertThat(status(approved)).isEqualTo(ApplicationStatus.APPROVED);
+
+        assertThat(jdbcTemplate.queryForList("select id from application_aud where status_mod = true", Long.class))
+                .containsExactlyInAnyOrder(up, down, submitted);
+        assertThat(jdbcTemplate.queryForObject("select count(distinct rev) from application_aud", Long.class))
+                .isEqualTo(1);
+        assertThat(events.stream(ApplicationStatusChangedEvent.class)).containsExactlyInAnyOrder(
+                new ApplicationStatusChangedEvent(ApplicationStatus.REJECTED, ApplicationStatus.PRE_ADMISSIBLE, 1),
+                new ApplicationStatusChangedEvent(ApplicationStatus.PRE_ADMISSIBLE, ApplicationStatus.REJECTED, 1),
+                new ApplicationStatusChangedEvent(ApplicationStatus.SUBMITTED, ApplicationStatus.PRE_ADMISSIBLE, 1));
+    }
+
+    @Test
+    void shouldSkipApplicationDecidedBetweenReadAndUpdate() {
+        Long raced = application("raced", ApplicationStatus.REJECTED, 5, null);
+        Long open = application("open", ApplicationStatus.REJECTED, 5, null);
+        Long job = job(2);
+        em.flush();
+
+        // the chunk read still sees both as open; an admin rejects "raced" for good right after it
+        doAnswer(inv -> {
+            jdbcTemplate.update("update application set status = 'REJECTED', decision_by = 'admin' where id = ?", raced);
+            return List.of(new ApplicationMatchCountDTO(raced, ApplicationStatus.REJECTED, 5),
+                    new ApplicationMatchCountDTO(open, ApplicationStatus.REJECTED, 5));
+        }).when(applicationRepo).findReevaluableMatchCountsAfter(anyLong(), any(Pageable.class));
+
+        ReevaluationJob result = service.reevaluateNextChunk(job, 10);
+
+        assertThat(result.getChanged()).isEqualTo(1);
+        assertThat(status(raced)).isEqualTo(ApplicationStatus.REJECTED);
+        assertThat(status(open)).isEqualTo(ApplicationStatus.PRE_ADMISSIBLE);
+        assertThat(jdbcTemplate.queryForList("select id from application_aud", Long.class)).containsExactly(open);
+        assertThat(events.stream(ApplicationStatusChangedEvent.class)).containsExactly(
+                new ApplicationStatusChangedEvent(ApplicationStatus.REJECTED, ApplicationStatus.PRE_ADMISSIBLE, 1));
+    }
+
+    private Long application(String name, ApplicationStatus status, int matched, String decisionBy) {
+        StudentApplicant student = new StudentApplicant();
+        student.setKeycloakSub("reevaluate-" + name);
+        em.persist(student);
+        Application app = new Application();
+        app.setStudent(student);
+        app.setStatus(status);
+        app.setMatchedCount(matched);
+        app.setDecisionBy(decisionBy);
+        em.persist(app);
+        return app.getId();
+    }
+
+    private Long job(int threshold) {
+        ReevaluationJob job = new ReevaluationJob();
+        job.setStatus(ReevaluationJobStatus.RUNNING);
+        job.setThreshold(threshold);
+        em.persist(job);
+        return job.getId();
+    }
+
+    private ApplicationStatus status(Long id) {
+        return ApplicationStatus.valueOf(
+                jdbcTemplate.queryForObject("select status from application where id = ?", String.class, id));
+    }
+}
@@ -3,8 +3,10 @@ package org.example.tas_backend.services;
 import org.example.tas_backend.entities.AcceptanceRule;
 import org.example.tas_backend.entities.Application;
 import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.events.TargetCatalogChangedEvent;
 import org.example.tas_backend.repos.AcceptanceRuleRepo;
 import org.example.tas_backend.repos.ApplicationRepo;
+import org.example.tas_backend.repos.ReevaluationJobRepo;
 import org.example.tas_backend.repos.TargetSubjectRepo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,11 +14,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +35,12 @@ class AcceptanceServiceTests {
     private MappingQueryService mappingQueryService;
     @Mock
     private TargetSubjectRepo targetSubjectRepo;
+    @Mock
+    private BulkAuditWriter bulkAuditWriter;
+    @Mock
+    private ReevaluationJobRepo jobRepo;
+    @Mock
+    private ApplicationEventPublisher events;
 
     @InjectMocks
     private AcceptanceService acceptanceService;
@@ -80,4 +91,25 @@ class AcceptanceServiceTests {
 
         assertThat(application.getStatus()).isEqualTo(ApplicationStatus.PRE_ADMISSIBLE);
     }
+
+    @Test
+    void shouldServeCachedRuleUntilCatalogChanges() {
+        when(mappingQueryService.countMappedSubjects(10L)).thenReturn(3);
+        acceptanceService.reevaluateApplication(10L);
+        acceptanceService.reevaluateApplication(10L);
+
+        assertThat(acceptanceService.getRule().getTargetCount()).isEqualTo(5);
+        verify(ruleRepo, times(1)).findById(1L);
+        verify(targetSubjectRepo, times(1)).count();
+        // the first load clamps targetCount (24 -> 5) and persists it once
+        verify(ruleRepo, times(1)).save(any(AcceptanceRule.class));
+
+        when(targetSubjectRepo.count()).thenReturn(1L);
+        acceptanceService.onCatalogChanged(new TargetCatalogChangedEvent("target deleted: 3"));
+
+        AcceptanceRule clamped = acceptanceService.getRule();
+        assertThat(clamped.getTargetCount()).isEqualTo(1);
+        assertThat(clamped.getThresholdCount()).isEqualTo(1);
+        verify(ruleRepo, times(2)).findById(1L);
+    }
 }
@@ -0,0 +1,73 @@
+package org.example.tas_backend.services;
+
+import org.example.tas_backend.dtos.MatchedCountBucketDTO;
+import org.example.tas_backend.dtos.ThresholdOutcomeDTO;
+import org.example.tas_backend.dtos.ThresholdSimulationDTO;
+import org.example.tas_backend.entities.AcceptanceRule;
+import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.events.MatchedCountsChangedEvent;
+import org.example.tas_backend.repos.ApplicationRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AcceptanceSimulationServiceTests {
+
+    @Mock
+    private ApplicationRepo applicationRepo;
+    @Mock
+    private AcceptanceService acceptanceService;
+
+    @InjectMocks
+    private AcceptanceSimulationService service;
+
+    @BeforeEach
+    void setup() {
+        AcceptanceRule rule = new AcceptanceRule();
+        rule.setThresholdCount(2);
+        rule.setTargetCount(3);
+        when(acceptanceService.getRule()).thenReturn(rule);
+        when(applicationRepo.findMatchedCountHistogram()).thenReturn(List.of(
+                new MatchedCountBucketDTO(0, ApplicationStatus.SUBMITTED, 4),
+                new MatchedCountBucketDTO(1, ApplicationStatus.REJECTED, 3),
+                new MatchedCountBucketDTO(2, ApplicationStatus.PRE_ADMISSIBLE, 2),
+                new MatchedCountBucketDTO(5, ApplicationStatus.PRE_ADMISSIBLE, 1)));
+    }
+
+    @Test
+    void shouldReportPassFailAndFlipsForEveryThreshold() {
+        ThresholdSimulationDTO sim = service.simulate();
+
+        assertThat(sim.targetCount()).isEqualTo(3);
+        assertThat(sim.currentThreshold()).isEqualTo(2);
+        assertThat(sim.applications()).isEqualTo(10);
+        assertThat(sim.outcomes()).containsExactly(
+                new ThresholdOutcomeDTO(0, 10, 0, 7),
+                new ThresholdOutcomeDTO(1, 6, 4, 7),
+                // the current threshold only flips the never-evaluated applications
+                new ThresholdOutcomeDTO(2, 3, 7, 4),
+                new ThresholdOutcomeDTO(3, 1, 9, 6));
+    }
+
+    @Test
+    void shouldServeFromCacheUntilCountsChange() {
+        service.simulate();
+        service.simulate();
+        verify(applicationRepo, times(1)).findMatchedCountHistogram();
+
+        service.onCountsChanged(new MatchedCountsChangedEvent("mapping overridden: 1"));
+        service.simulate();
+        verify(applicationRepo, times(2)).findMatchedCountHistogram();
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.tas_backend.services;
+
+import org.example.tas_backend.dtos.AdminStatsDTO;
+import org.example.tas_backend.dtos.StatusCountDTO;
+import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.enums.InviteStatus;
+import org.example.tas_backend.enums.SuggestionStatus;
+import org.example.tas_backend.events.ApplicationStatusChangedEvent;
+import org.example.tas_backend.events.InviteStatusChangedEvent;
+import org.example.tas_backend.events.SuggestionStatusChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminStatsServiceTests {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private SimpMessagingTemplate broker;
+
+    @InjectMocks
+    private AdminStatsService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void seed() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class))).thenReturn(List.of(
+                new StatusCountDTO("application", "SUBMITTED", 4),
+                new StatusCountDTO("application", "PRE_ADMISSIBLE", 2),
+                new StatusCountDTO("suggestion", "PENDING", 7),
+                new StatusCountDTO("invite", "PENDING", 1)));
+        service.resync();
+        clearInvocations(broker);
+    }
+
+    @Test
+    void shouldApplyEventsAndPushDeltas() {
+        service.onApplicationStatusChanged(new ApplicationStatusChangedEvent(ApplicationStatus.SUBMITTED,
+                ApplicationStatus.PRE_ADMISSIBLE, 3));
+        service.onSuggestionStatusChanged(new SuggestionStatusChangedEvent(SuggestionStatus.PENDING, null, 2));
+        service.onInviteStatusChanged(new InviteStatusChangedEvent(null, InviteStatus.PENDING));
+        // no-op transitions are not pushed
+        service.onInviteStatusChanged(new InviteStatusChangedEvent(InviteStatus.CHAT, InviteStatus.CHAT));
+
+        AdminStatsDTO stats = service.snapshot();
+        assertThat(stats.applications()).containsEntry(ApplicationStatus.SUBMITTED, 1L)
+                .containsEntry(ApplicationStatus.PRE_ADMISSIBLE, 5L)
+                .containsEntry(ApplicationStatus.APPROVED, 0L);
+        assertThat(stats.suggestions()).containsEntry(SuggestionStatus.PENDING, 5L);
+        assertThat(stats.invites()).containsEntry(InviteStatus.PENDING, 2L);
+
+        ArgumentCaptor<AdminStatsDTO> pushed = ArgumentCaptor.forClass(AdminStatsDTO.class);
+        verify(broker, times(3)).convertAndSend(eq(AdminStatsService.TOPIC), pushed.capture());
+        assertThat(pushed.getAllValues().get(0).applications()).isEqualTo(Map.of(
+                ApplicationStatus.SUBMITTED, -3L, ApplicationStatus.PRE_ADMISSIBLE, 3L));
+        assertThat(pushed.getAllValues()).allMatch(AdminStatsDTO::delta);
+    }
+
+    @Test
+    void shouldPushOnlyDriftOnResync() {
+        // a decision whose event never arrived
+        service.onApplicationStatusChanged(new ApplicationStatusChangedEvent(null, ApplicationStatus.SUBMITTED));
+        clearInvocations(broker);
+
+        service.resync();
+
+        ArgumentCaptor<AdminStatsDTO> pushed = ArgumentCaptor.forClass(AdminStatsDTO.class);
+        verify(broker).convertAndSend(eq(AdminStatsService.TOPIC), pushed.capture());
+        assertThat(pushed.getValue().applications()).isEqualTo(Map.of(ApplicationStatus.SUBMITTED, -1L));
+        assertThat(pushed.getValue().suggestions()).isEmpty();
+        assertThat(service.snapshot().applications()).containsEntry(ApplicationStatus.SUBMITTED, 4L);
+
+        clearInvocations(broker);
+        service.resync();
+        verifyNoInteractions(broker);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeepEventThatArrivesWhileResyncQueryRuns() {
+        // the query reads the database before a decision commits; its event lands mid-resync
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class))).thenAnswer(inv -> {
+            service.onApplicationStatusChanged(new ApplicationStatusChangedEvent(ApplicationStatus.SUBMITTED,
+                    ApplicationStatus.APPROVED, 1));
+            return List.of(new StatusCountDTO("application", "SUBMITTED", 4),
+                    new StatusCountDTO("application", "PRE_ADMISSIBLE", 2),
+                    new StatusCountDTO("suggestion", "PENDING", 7),
+                    new StatusCountDTO("invite", "PENDING", 1));
+        });
+
+        service.resync();
+
+        assertThat(service.snapshot().applications()).containsEntry(ApplicationStatus.SUBMITTED, 3L)
+                .containsEntry(ApplicationStatus.APPROVED, 1L);
+        // the event's delta was pushed and nothing drifted, so the resync pushes nothing
+        verify(broker, times(1)).convertAndSend(eq(AdminStatsService.TOPIC), any(AdminStatsDTO.class));
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.tas_backend.services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.tas_backend.dtos.MatchResponseDTO;
+import org.example.tas_backend.services.TargetCatalogService.CatalogSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AiServiceTests {
+
+    private static final CatalogSnapshot CATALOG = new CatalogSnapshot("v1", List.of(), List.of(),
+            List.of(Map.of("code", "math.1", "title_fr", "Algèbre linéaire")));
+    private static final MatchResponseDTO EMPTY = new MatchResponseDTO(List.of(), 0.0, List.of(), "v1");
+    private static final MatchResponseDTO UNVERSIONED = new MatchResponseDTO(List.of(), 0.0, List.of());
+
+    @Mock private RestTemplate restTemplate;
+    @Mock private OAuthClientTokenService tokens;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private AiService aiService;
+
+    @BeforeEach
+    void setup() {
+        when(tokens.get()).thenReturn("token");
+        aiService = new AiService(RestClient.builder(), restTemplate, tokens, objectMapper, "http://matcher");
+    }
+
+    @Test
+    void shouldSendFullCatalogOnlyForFirstCallOfAVersion() throws Exception {
+        when(restTemplate.postForObject(eq("http://matcher/match/"), any(), eq(MatchResponseDTO.class))).thenReturn(EMPTY);
+
+        aiService.matchSubjects(List.of("algebre"), CATALOG);
+        aiService.matchSubjects(List.of("analyse"), CATALOG);
+
+        List<Map<String, Object>> bodies = sentBodies(2);
+        assertThat(bodies.get(0)).containsEntry("catalog_version", "v1").containsKey("targets");
+        assertThat(bodies.get(1)).containsEntry("catalog_version", "v1").doesNotContainKey("targets");
+    }
+
+    @Test
+    void shouldResendFullCatalogWhenMatcherDoesNotKnowVersion() throws Exception {
+        when(restTemplate.postForObject(eq("http://matcher/match/"), any(), eq(MatchResponseDTO.class)))
+                .thenReturn(EMPTY)
+                .thenThrow(HttpClientErrorException.create(HttpStatus.CONFLICT, "unknown catalog", null, null, null))
+                .thenReturn(EMPTY);
+
+        aiService.matchSubjects(List.of("algebre"), CATALOG);
+        MatchResponseDTO response = aiService.matchSubjects(List.of("analyse"), CATALOG);
+
+        assertThat(response).isSameAs(EMPTY);
+        List<Map<String, Object>> bodies = sentBodies(3);
+        assertThat(bodies.get(1)).doesNotContainKey("targets");
+        assertThat(bodies.get(2)).containsEntry("subjects", List.of("analyse")).containsKey("targets");
+    }
+
+    @Test
+    void shouldKeepSendingCatalogUntilMatcherEchoesVersion() throws Exception {
+        when(restTemplate.postForObject(eq("http://matcher/match/"), any(), eq(MatchResponseDTO.class)))
+                .thenReturn(UNVERSIONED)
+                .thenReturn(UNVERSIONED)
+                .thenReturn(EMPTY);
+
+        aiService.matchSubjects(List.of("algebre"), CATALOG);
+        aiService.matchSubjects(List.of("analyse"), CATALOG);
+        aiService.matchSubjects(List.of("physique"), CATALOG);
+
+        List<Map<String, Object>> bodies = sentBodies(3);
+        assertThat(bodies).allSatisfy(body -> assertThat(body).containsKey("targets"));
+        assertThat(objectMapper.readValue("{\"matched\":[],\"catalog_version\":\"v1\"}", MatchResponseDTO.class)
+                .catalogVersion()).isEqualTo("v1");
+    }
+
+    @Test
+    void shouldResendCatalogWhenVersionOnlyCallIsNotConfirmed() throws Exception {
+        when(restTemplate.postForObject(eq("http://matcher/match/"), any(), eq(MatchResponseDTO.class)))
+                .thenReturn(EMPTY)
+                .thenReturn(UNVERSIONED)
+                .thenReturn(EMPTY);
+
+        aiService.matchSubjects(List.of("algebre"), CATALOG);
+        MatchResponseDTO response = aiService.matchSubjects(List.of("analyse"), CATALOG);
+
+        assertThat(response).isSameAs(EMPTY);
+        List<Map<String, Object>> bodies = sentBodies(3);
+        assertThat(bodies.get(1)).doesNotContainKey("targets");
+        assertThat(bodies.get(2)).containsEntry("subjects", List.of("analyse")).containsKey("targets");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> sentBodies(int calls) throws Exception {
+        ArgumentCaptor<HttpEntity<String>> sent = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(calls)).postForObject(eq("http://matcher/match/"), sent.capture(), eq(MatchResponseDTO.class));
+        List<Map<String, Object>> bodies = new java.util.ArrayList<>();
+        for (HttpEntity<String> entity : sent.getAllValues()) {
+            bodies.add(objectMapper.readValue(entity.getBody(), new TypeReference<Map<String, Object>>() {}));
+        }
+        return bodies;
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.tas_backend.services;
+
+import jakarta.persistence.EntityManager;
+import org.example.tas_backend.dtos.BulkDecisionResultDTO;
+import org.example.tas_backend.entities.Application;
+import org.example.tas_backend.entities.StudentApplicant;
+import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.events.ApplicationStatusChangedEvent;
+import org.example.tas_backend.events.ApplicationsDecidedEvent;
+import org.example.tas_backend.repos.ApplicationRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Runs H2 in its default mode because the _aud tables use TINYINT for revtype. */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tas_bulk_decision;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.envers.autoRegisterListeners=false",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ApplicationDecisionService.class, BulkAuditWriter.class})
+@RecordApplicationEvents
+class ApplicationDecisionServiceTests {
+
+    @Autowired private ApplicationDecisionService service;
+    @Autowired private ApplicationRepo applicationRepo;
+    @Autowired private EntityManager em;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ApplicationEvents events;
+
+    // declared by TasBackendApplication, which has no RestTemplateBuilder in a JPA slice
+    @MockBean private RestTemplate restTemplate;
+
+    @Test
+    void shouldDecideInOneUpdateAndOneRevision() {
+        Long a = application("a", ApplicationStatus.PRE_ADMISSIBLE);
+        Long b = application("b", ApplicationStatus.REJECTED);
+        Long c = application("c", ApplicationStatus.PRE_ADMISSIBLE);
+        em.flush();
+
+        BulkDecisionResultDTO result = service.decideAll(List.of(a, b, c, a, 999L), ApplicationStatus.APPROVED, "committee");
+
+        assertThat(result.decided()).isEqualTo(3);
+        assertThat(result.notFound()).containsExactly(999L);
+        Application decided = applicationRepo.findById(b).orElseThrow();
+        assertThat(decided.getStatus()).isEqualTo(ApplicationStatus.APPROVED);
+        assertThat(decided.getDecisionBy()).isEqualTo("committee");
+        assertThat(decided.getDecisionDate()).isNotNull();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(distinct rev) from application_aud where revtype = 1 and decision_by_mod = true",
+                Long.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from application_aud where revtype = 1 and status_mod = true", Long.class)).isEqualTo(3);
+
+        assertThat(events.stream(ApplicationStatusChangedEvent.class)).containsExactlyInAnyOrder(
+                new ApplicationStatusChangedEvent(ApplicationStatus.PRE_ADMISSIBLE, ApplicationStatus.APPROVED, 2),
+                new ApplicationStatusChangedEvent(ApplicationStatus.REJECTED, ApplicationStatus.APPROVED, 1));
+        assertThat(events.stream(ApplicationsDecidedEvent.class).findFirst().orElseThrow().notices())
+                .extracting(ApplicationsDecidedEvent.Notice::studentSub)
+                .containsExactlyInAnyOrder("decide-a", "decide-b", "decide-c");
+    }
+
+    @Test
+    void shouldRejectEmptyAndOversizedBatches() {
+        assertThatThrownBy(() -> service.decideAll(List.of(), ApplicationStatus.REJECTED, "committee"))
+                .isInstanceOf(IllegalArgumentException.class);
+        List<Long> tooMany = LongStream.rangeClosed(1, ApplicationDecisionService.MAX_BATCH + 1)
+                .boxed().toList();
+        assertThatThrownBy(() -> service.decideAll(tooMany, ApplicationStatus.REJECTED, "committee"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Long application(String name, ApplicationStatus status) {
+        StudentApplicant student = new StudentApplicant();
+        student.setKeycloakSub("decide-" + name);
+        em.persist(student);
+        Application app = new Application();
+        app.setStudent(student);
+        app.setStatus(status);
+        em.persist(app);
+        return app.getId();
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.tas_backend.services;
+
+import jakarta.persistence.EntityManager;
+import org.example.tas_backend.dtos.ApplicationPageDTO;
+import org.example.tas_backend.dtos.ApplicationSummaryDTO;
+import org.example.tas_backend.entities.AcceptanceRule;
+import org.example.tas_backend.entities.Application;
+import org.example.tas_backend.entities.Document;
+import org.example.tas_backend.entities.StudentApplicant;
+import org.example.tas_backend.enums.ApplicationStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tas_list;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.envers.autoRegisterListeners=false",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ApplicationListService.class)
+class ApplicationListServiceTests {
+
+    @Autowired private ApplicationListService service;
+    @Autowired private EntityManager em;
+
+    @MockBean private AcceptanceService acceptanceService;
+    // declared by TasBackendApplication, which has no RestTemplateBuilder in a JPA slice
+    @MockBean private RestTemplate restTemplate;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        AcceptanceRule rule = new AcceptanceRule();
+        rule.setThresholdCount(2);
+        when(acceptanceService.getRule()).thenReturn(rule);
+
+        application("a", ApplicationStatus.PRE_ADMISSIBLE, null, "Informatique", 3, 2);
+        application("b", ApplicationStatus.REJECTED, null, "Informatique", 1, 1);
+        application("c", ApplicationStatus.REJECTED, "admin", "Génie civil", 0, 0);
+        application("d", ApplicationStatus.SUBMITTED, null, "Informatique", 2, 1);
+        application("e", ApplicationStatus.APPROVED, "admin", "Génie civil", 3, 3);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void shouldPageNewestFirstWithOneQueryPerPage() {
+        Statistics stats = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            stats.clear();
+            ApplicationPageDTO page = service.page(null, null, null, null, null, 2, cursor);
+            assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+            page.items().forEach(i -> seen.add(i.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(ids.reversed());
+    }
+
+    @Test
+    void shouldFilterAndSortByMatchedCount() {
+        ApplicationPageDTO page = service.page("pre_rejected", null, null, null, null, null, null);
+        assertThat(page.items()).extracting(ApplicationSummaryDTO::studentName).containsExactly("b b");
+        assertThat(page.items().get(0).status()).isEqualTo("PRE_REJECTED");
+        assertThat(page.items().get(0).documentsCount()).isEqualTo(1);
+
+        ApplicationPageDTO first = service.page(null, "informatique", null, null, "most_matched", 2, null);
+        ApplicationPageDTO second = service.page(null, "informatique", null, null, "most_matched", 2, first.nextCursor());
+        assertThat(first.items()).extracting(ApplicationSummaryDTO::matchedCount).containsExactly(3, 2);
+        assertThat(second.items()).extracting(ApplicationSummaryDTO::matchedCount).containsExactly(1);
+        assertThat(second.nextCursor()).isNull();
+
+        assertThatThrownBy(() -> service.page(null, null, null, null, "oldest", 2, first.nextCursor()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void application(String name, ApplicationStatus status, String decisionBy, String program,
+                             int matched, int documents) {
+        StudentApplicant student = new StudentApplicant();
+        student.setKeycloakSub("list-" + name);
+        student.setFirstName(name);
+        student.setLastName(name);
+        em.persist(student);
+
+        Application app = new Application();
+        app.setStudent(student);
+        app.setStatus(status);
+        app.setDecisionBy(decisionBy);
+        app.setPreferredProgram(program);
+        app.setMatchedCount(matched);
+        em.persist(app);
+        for (int i = 0; i < documents; i++) {
+            Document doc = new Document();
+            doc.setApplication(app);
+            em.persist(doc);
+        }
+        ids.add(app.getId());
+    }
+}
@@ -1,36 +1,38 @@
 package org.example.tas_backend.services;
 
 import org.example.tas_backend.dtos.ApplicationSubmitDTO;
-import org.example.tas_backend.dtos.MatchResponseDTO;
 import org.example.tas_backend.dtos.MatchTraceDTO;
+import org.example.tas_backend.dtos.OcrOutcomeDTO;
 import org.example.tas_backend.dtos.OcrResponse;
 import org.example.tas_backend.entities.Application;
+import org.example.tas_backend.entities.Document;
 import org.example.tas_backend.entities.ExtractedSubject;
+import org.example.tas_backend.entities.OcrResult;
 import org.example.tas_backend.entities.StudentApplicant;
-import org.example.tas_backend.entities.SubjectMapping;
-import org.example.tas_backend.entities.TargetSubject;
 import org.example.tas_backend.enums.ApplicationStatus;
 import org.example.tas_backend.repos.ApplicationRepo;
 import org.example.tas_backend.repos.DocumentRepo;
 import org.example.tas_backend.repos.ExtractedSubjectRepo;
-import org.example.tas_backend.repos.MappingSuggestionRepo;
+import org.example.tas_backend.repos.OcrResultRepo;
 import org.example.tas_backend.repos.StudentApplicantRepo;
-import org.example.tas_backend.repos.SubjectMappingRepo;
-import org.example.tas_backend.repos.TargetSubjectRepo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -39,7 +41,6 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -51,11 +52,11 @@ class ApplicationSubmitServiceTests {
     @Mock private ApplicationRepo applicationRepo;
     @Mock private DocumentRepo documentRepo;
     @Mock private ExtractedSubjectRepo extractedSubjectRepo;
-    @Mock private SubjectMappingRepo subjectMappingRepo;
-    @Mock private TargetSubjectRepo targetSubjectRepo;
-    @Mock private MappingSuggestionRepo mappingSuggestionRepo;
-    @Mock private AiService aiService;
-    @Mock private AcceptanceService acceptanceService;
+    @Mock private SubjectMatchingService matchingService;
+    @Mock private SubmissionResultWriter resultWriter;
+    @Mock private OcrResultRepo ocrResultRepo;
+    @Spy private BlobStore blobStore = new BlobStore();
+    @Mock private ApplicationEventPublisher events;
     @Mock private RestTemplate restTemplate;
 
     @InjectMocks
@@ -65,7 +66,7 @@ class ApplicationSubmitServiceTests {
 
     @BeforeEach
     void init() {
-        ReflectionTestUtils.setField(service, "uploadRoot", Path.of("build/uploads").toString());
+        ReflectionTestUtils.setField(blobStore, "uploadRoot", Path.of("build/uploads").toString());
         ReflectionTestUtils.setField(service, "ocrUrl", "http://mock/ocr");
 
         student = new StudentApplicant();
@@ -79,48 +80,100 @@ class ApplicationSubmitServiceTests {
             return app;
         });
         when(documentRepo.save(any())).thenAnswer(inv -> inv.getArgument(0));
-        when(extractedSubjectRepo.save(any())).thenAnswer(inv -> {
-            ExtractedSubject es = inv.getArgument(0);
-            if (es.getId() == null) es.setId(77L);
-            return es;
-        });
-        when(subjectMappingRepo.save(any())).thenAnswer(inv -> {
-            SubjectMapping sm = inv.getArgument(0);
-            if (sm.getId() == null) sm.setId(88L);
-            return sm;
-        });
-        when(subjectMappingRepo.findByExtractedSubject(any())).thenReturn(List.of());
-        when(mappingSuggestionRepo.findByNormLabelAndProposedTargetCodeAndLanguage(any(), any(), any()))
-                .thenReturn(Optional.empty());
-
-        TargetSubject target = new TargetSubject();
-        target.setId(3L);
-        target.setCode("math.1");
-        target.setName("Math");
-        target.setCoefficient(1.0f);
-        when(targetSubjectRepo.findAll()).thenReturn(List.of(target));
-        when(targetSubjectRepo.findByCode(eq("math.1"))).thenReturn(Optional.of(target));
     }
 
     @Test
-    void shouldPersistAndCallAiOnValidSubmission() throws Exception {
+    void shouldPersistUploadWithoutCallingRemoteServices() throws Exception {
         MockMultipartFile file = new MockMultipartFile("files", "transcript.pdf", "application/pdf", "dummy".getBytes());
+        ApplicationSubmitDTO dto = new ApplicationSubmitDTO(null, "Data Science", "B2");
+
+        Application result = service.submit("kc-sub", dto, List.of(file));
+
+        assertThat(result.getId()).isNotNull();
+        assertThat(result.getStatus()).isEqualTo(ApplicationStatus.SUBMITTED);
+        verify(documentRepo).save(any(Document.class));
+        verifyNoInteractions(restTemplate, matchingService);
+    }
+
+    @Test
+    void shouldStoreIdenticalUploadsAsOneBlob() throws Exception {
+        ApplicationSubmitDTO dto = new ApplicationSubmitDTO(null, "Data Science", "B2");
+        service.submit("kc-sub", dto, List.of(new MockMultipartFile("files", "a.pdf", "application/pdf", "same".getBytes())));
+        service.submit("kc-sub", dto, List.of(new MockMultipartFile("files", "b.pdf", "application/pdf", "same".getBytes())));
+
+        ArgumentCaptor<Document> saved = ArgumentCaptor.forClass(Document.class);
+        verify(documentRepo, times(2)).save(saved.capture());
+        Document first = saved.getAllValues().get(0);
+        Document second = saved.getAllValues().get(1);
+
+        assertThat(first.getContentHash()).hasSize(64).isEqualTo(second.getContentHash());
+        assertThat(first.getStorageKey()).isEqualTo(second.getStorageKey());
+        assertThat(first.getFilename()).isEqualTo("a.pdf");
+        assertThat(Files.readString(Path.of(first.getStorageKey()))).isEqualTo("same");
+    }
+
+    @Test
+    void shouldReuseCachedOcrForKnownContentHash() {
+        Document doc = new Document();
+        doc.setId(12L);
+        doc.setFilename("transcript.pdf");
+        doc.setStorageKey("build/uploads/blobs/ab/missing.pdf");
+        doc.setContentHash("ab".repeat(32));
+        when(documentRepo.findById(12L)).thenReturn(Optional.of(doc));
+
+        OcrResult cached = new OcrResult();
+        cached.setContentHash(doc.getContentHash());
+        cached.setOcrText("Advanced Algebra");
+        cached.setCourses(List.of("Advanced Algebra"));
+        when(ocrResultRepo.findById(doc.getContentHash())).thenReturn(Optional.of(cached));
+
+        OcrOutcomeDTO outcome = service.runOcr(12L);
+
+        assertThat(outcome.courses()).containsExactly("Advanced Algebra");
+        assertThat(outcome.rawText()).isEqualTo("Advanced Algebra");
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void shouldExtractAndMatchSubjectsInPipelineStages() throws Exception {
+        Path stored = Files.createTempFile("transcript", ".pdf");
+        Files.writeString(stored, "dummy");
+
+        Application app = new Application();
+        app.setId(99L);
+        Document doc = new Document();
+        doc.setId(11L);
+        doc.setApplication(app);
+        doc.setFilename("transcript.pdf");
+        doc.setMimeType("application/pdf");
+        doc.setStorageKey(stored.toString());
+        when(documentRepo.findById(11L)).thenReturn(Optional.of(doc));
 
         when(restTemplate.postForEntity(eq("http://mock/ocr"), any(HttpEntity.class), eq(OcrResponse.class)))
                 .thenReturn(ResponseEntity.ok(new OcrResponse("transcript.pdf", "Advanced Algebra", 1, List.of("Advanced Algebra"))));
 
-        MatchTraceDTO trace = new MatchTraceDTO("math", "math.1", "fuzzy", 0.9, "Math", null, 1);
-        when(aiService.matchSubjects(anyList(), anyList()))
-                .thenReturn(new MatchResponseDTO(List.of("math.1"), 50.0, List.of(trace)));
+        ExtractedSubject subject = new ExtractedSubject();
+        subject.setId(77L);
+        subject.setDocument(doc);
+        subject.setRawName("Advanced Algebra");
+        when(resultWriter.saveOcrResult(11L, "Advanced Algebra", List.of("Advanced Algebra")))
+                .thenReturn(List.of(subject));
 
-        ApplicationSubmitDTO dto = new ApplicationSubmitDTO(null, "Data Science", "B2");
+        OcrOutcomeDTO outcome = service.runOcr(11L);
+        assertThat(outcome).isEqualTo(new OcrOutcomeDTO(11L, "Advanced Algebra", List.of("Advanced Algebra")));
+        verifyNoInteractions(resultWriter);
+        // no content hash, so nothing to cache
+        verify(ocrResultRepo, never()).save(any());
 
-        Application result = service.submit("kc-sub", dto, List.of(file));
+        assertThat(service.saveOcr(outcome)).isEqualTo(1);
 
-        assertThat(result.getId()).isNotNull();
-        assertThat(result.getStatus()).isEqualTo(ApplicationStatus.SUBMITTED);
-        verify(aiService).matchSubjects(anyList(), anyList());
-        verify(acceptanceService).reevaluateApplication(result.getId());
+        when(extractedSubjectRepo.findByDocument_Application_IdOrderByIdAsc(99L)).thenReturn(List.of(subject));
+        MatchTraceDTO trace = new MatchTraceDTO("math", "math.1", "fuzzy", 0.9, "Math", null, 1);
+        when(matchingService.match(List.of("advanced algebra"))).thenReturn(List.of(trace));
+
+        service.matchApplication(99L);
+
+        verify(resultWriter).saveMatches(List.of(subject), List.of(trace));
     }
 
     @Test
@@ -131,6 +184,6 @@ class ApplicationSubmitServiceTests {
         assertThatThrownBy(() -> service.submit("missing", dto, List.of()))
                 .isInstanceOf(NoSuchElementException.class);
 
-        verifyNoInteractions(aiService, acceptanceService);
+        verifyNoInteractions(matchingService, restTemplate);
     }
 }
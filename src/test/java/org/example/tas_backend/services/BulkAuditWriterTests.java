@@ -0,0 +1,115 @@
+package org.example.tas_backend.services;
+
+import jakarta.persistence.EntityManager;
+import org.example.tas_backend.entities.Application;
+import org.example.tas_backend.entities.Document;
+import org.example.tas_backend.entities.ExtractedSubject;
+import org.example.tas_backend.entities.ReevaluationJob;
+import org.example.tas_backend.entities.StudentApplicant;
+import org.example.tas_backend.entities.SubjectMapping;
+import org.example.tas_backend.entities.TargetSubject;
+import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.enums.ReevaluationJobStatus;
+import org.example.tas_backend.repos.ApplicationRepo;
+import org.example.tas_backend.repos.ReevaluationJobRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Chunked acceptance re-evaluation end to end, including the Envers rows. Runs H2 in its default
+ * mode (not PostgreSQL mode) because the _aud tables use TINYINT for revtype.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tas_bulk_audit;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.envers.autoRegisterListeners=false",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AcceptanceService.class, MappingQueryService.class, BulkAuditWriter.class})
+class BulkAuditWriterTests {
+
+    @Autowired private AcceptanceService acceptanceService;
+    @Autowired private ApplicationRepo applicationRepo;
+    @Autowired private ReevaluationJobRepo jobRepo;
+    @Autowired private EntityManager em;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    // declared by TasBackendApplication, which has no RestTemplateBuilder in a JPA slice
+    @MockBean private RestTemplate restTemplate;
+
+    @Test
+    void shouldReevaluateInKeysetChunksAndAuditChangedRows() {
+        TargetSubject math = new TargetSubject();
+        math.setCode("math.1");
+        em.persist(math);
+
+        Application matched = application("a", ApplicationStatus.SUBMITTED, null, 2, math);
+        Application unmatched = application("b", ApplicationStatus.SUBMITTED, null, 0, math);
+        Application unchanged = application("c", ApplicationStatus.PRE_ADMISSIBLE, null, 3, math);
+        Application decided = application("d", ApplicationStatus.APPROVED, "admin", 0, math);
+        em.flush();
+
+        ReevaluationJob job = new ReevaluationJob();
+        job.setStatus(ReevaluationJobStatus.RUNNING);
+        job.setThreshold(2);
+        Long jobId = jobRepo.save(job).getId();
+        // keyset chunks of 2: [matched, unmatched], then [unchanged] completes the job
+        acceptanceService.reevaluateNextChunk(jobId, 2);
+        job = acceptanceService.reevaluateNextChunk(jobId, 2);
+
+        assertThat(job.getStatus()).isEqualTo(ReevaluationJobStatus.COMPLETED);
+        assertThat(job.getProcessed()).isEqualTo(3);
+        assertThat(job.getChanged()).isEqualTo(2);
+        assertThat(job.getLastApplicationId()).isEqualTo(unchanged.getId());
+        assertThat(applicationRepo.findById(matched.getId()).orElseThrow().getStatus()).isEqualTo(ApplicationStatus.PRE_ADMISSIBLE);
+        assertThat(applicationRepo.findById(unmatched.getId()).orElseThrow().getStatus()).isEqualTo(ApplicationStatus.REJECTED);
+        assertThat(applicationRepo.findById(unchanged.getId()).orElseThrow().getStatus()).isEqualTo(ApplicationStatus.PRE_ADMISSIBLE);
+        assertThat(applicationRepo.findById(decided.getId()).orElseThrow().getStatus()).isEqualTo(ApplicationStatus.APPROVED);
+
+        assertThat(jdbcTemplate.queryForList(
+                "select id from application_aud where revtype = 1 and status_mod = true and preferred_program_mod = false order by id",
+                Long.class)).containsExactly(matched.getId(), unmatched.getId());
+        assertThat(jdbcTemplate.queryForObject("select status from application_aud where id = ?", String.class, matched.getId()))
+                .isEqualTo("PRE_ADMISSIBLE");
+        assertThat(jdbcTemplate.queryForObject("select count(distinct rev) from application_aud", Integer.class)).isEqualTo(1);
+    }
+
+    private Application application(String sub, ApplicationStatus status, String decisionBy, int mappings, TargetSubject target) {
+        StudentApplicant student = new StudentApplicant();
+        student.setKeycloakSub("bulk-" + sub);
+        em.persist(student);
+
+        Application app = new Application();
+        app.setStudent(student);
+        app.setStatus(status);
+        app.setDecisionBy(decisionBy);
+        // seeded around SubmissionResultWriter, so set the counter it would have maintained
+        app.setMatchedCount(mappings);
+        em.persist(app);
+
+        Document doc = new Document();
+        doc.setApplication(app);
+        em.persist(doc);
+        for (int i = 0; i < mappings; i++) {
+            ExtractedSubject es = new ExtractedSubject();
+            es.setDocument(doc);
+            es.setRawName("subject " + i);
+            em.persist(es);
+            SubjectMapping m = new SubjectMapping();
+            m.setExtractedSubject(es);
+            m.setTargetSubject(target);
+            em.persist(m);
+        }
+        return app;
+    }
+}
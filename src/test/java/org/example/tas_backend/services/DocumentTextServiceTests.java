@@ -0,0 +1,140 @@
+package org.example.tas_backend.services;
+
+import jakarta.persistence.EntityManager;
+import org.example.tas_backend.configs.DocumentTextMigration;
+import org.example.tas_backend.dtos.DocumentTextDTO;
+import org.example.tas_backend.entities.Document;
+import org.example.tas_backend.entities.DocumentText;
+import org.example.tas_backend.repos.DocumentRepo;
+import org.example.tas_backend.repos.DocumentTextRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tas_text;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.envers.autoRegisterListeners=false",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop",
+        "documents.text-migration.chunk-size=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DocumentTextService.class, DocumentTextMigration.class})
+class DocumentTextServiceTests {
+
+    @Autowired private DocumentTextService service;
+    @Autowired private DocumentTextMigration migration;
+    @Autowired private DocumentRepo documentRepo;
+    @Autowired private DocumentTextRepo documentTextRepo;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private EntityManager entityManager;
+
+    // declared by TasBackendApplication, which has no RestTemplateBuilder in a JPA slice
+    @MockBean private RestTemplate restTemplate;
+
+    @Test
+    void shouldPageTextByCharacterOffset() {
+        String text = "0123456789".repeat(120);
+        DocumentText row = new DocumentText();
+        row.setDocumentId(42L);
+        row.setText(text);
+        documentTextRepo.saveAndFlush(row);
+        entityManager.clear();
+
+        DocumentTextDTO first = service.slice(42L, 0, 500);
+        DocumentTextDTO last = service.slice(42L, first.nextOffset() + 500, 500);
+
+        assertThat(first.text()).isEqualTo(text.substring(0, 500));
+        assertThat(first.nextOffset()).isEqualTo(500);
+        assertThat(first.totalLength()).isEqualTo(1200);
+        assertThat(last.text()).isEqualTo(text.substring(1000));
+        assertThat(last.nextOffset()).isNull();
+        assertThat(service.slice(42L, 5000, null).text()).isEmpty();
+    }
+
+    @Test
+    void shouldReadDocumentWithoutOcrTextAsEmpty() {
+        assertThat(service.slice(404L, 0, null)).isEqualTo(new DocumentTextDTO(404L, 0, 0, "", null));
+    }
+
+    @Test
+    void shouldStoreTextCompressed() {
+        String text = "Algèbre linéaire 16/20\nAnalyse 14/20\n".repeat(200);
+        DocumentText row = new DocumentText();
+        row.setDocumentId(7L);
+        row.setText(text);
+        documentTextRepo.saveAndFlush(row);
+        entityManager.clear();
+
+        DocumentText loaded = documentTextRepo.findById(7L).orElseThrow();
+        assertThat(loaded.getLegacyText()).isNull();
+        assertThat(loaded.getContentZip().length).isLessThan(text.length() / 10);
+        assertThat(loaded.getText()).isEqualTo(text);
+        assertThat(loaded.getCharCount()).isEqualTo(text.length());
+    }
+
+    @Test
+    void shouldMoveLegacyRawTextInChunksAndCompressIt() throws Exception {
+        jdbcTemplate.execute("alter table document add column raw_text clob");
+        long[] ids = new long[5];
+        for (int i = 0; i < ids.length; i++) {
+            Document doc = new Document();
+            doc.setFilename("legacy-" + i + ".pdf");
+            ids[i] = documentRepo.saveAndFlush(doc).getId();
+            jdbcTemplate.update("update document set raw_text = ? where id = ?", "x".repeat(600) + i, ids[i]);
+        }
+
+        assertThat(migration.hasLegacyColumn()).isTrue();
+        // chunk-size=2: each chunk commits its own progress, so a restart resumes after the last one
+        assertThat(migration.migrateChunk()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from document where raw_text is not null", Integer.class))
+                .isEqualTo(3);
+        assertThat(migration.migrateChunk()).isEqualTo(2);
+        assertThat(migration.migrateChunk()).isEqualTo(1);
+        assertThat(migration.migrateChunk()).isZero();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from document where raw_text is not null", Integer.class))
+                .isZero();
+        assertThat(documentTextRepo.findById(ids[4]).orElseThrow().getText()).isEqualTo("x".repeat(600) + 4);
+        assertThat(jdbcTemplate.queryForObject("select text_length from document where id = ?", Integer.class, ids[4]))
+                .isEqualTo(601);
+        assertThat(jdbcTemplate.queryForObject("select text_preview from document where id = ?", String.class, ids[4]))
+                .hasSize(DocumentTextService.PREVIEW_CHARS);
+
+        assertThat(service.compactChunk(3)).isEqualTo(3);
+        assertThat(service.compactChunk(3)).isEqualTo(2);
+        assertThat(service.compactChunk(3)).isZero();
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from document_text where text is not null", Integer.class))
+                .isZero();
+        assertThat(service.slice(ids[4], 600, null).text()).isEqualTo("4");
+    }
+
+    @Test
+    void shouldClearLegacyTextFromAuditRevisionsInChunks() {
+        jdbcTemplate.execute("create table document_aud (id bigint, rev integer, raw_text clob, text_length integer, "
+                + "primary key (rev, id))");
+        for (int rev = 1; rev <= 3; rev++) {
+            jdbcTemplate.update("insert into document_aud (id, rev, raw_text, text_length) values (?, ?, ?, ?)",
+                    9L, rev, "ocr " + rev, 5);
+        }
+        jdbcTemplate.update("insert into document_aud (id, rev, raw_text, text_length) values (10, 4, null, 7)");
+
+        assertThat(migration.hasLegacyAuditColumn()).isTrue();
+        assertThat(migration.pruneAuditChunk()).isEqualTo(2);
+        assertThat(migration.pruneAuditChunk()).isEqualTo(1);
+        assertThat(migration.pruneAuditChunk()).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from document_aud where raw_text is not null", Integer.class))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from document_aud", Integer.class)).isEqualTo(4);
+    }
+}
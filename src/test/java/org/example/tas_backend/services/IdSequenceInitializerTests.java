@@ -0,0 +1,42 @@
+package org.example.tas_backend.services;
+
+import org.example.tas_backend.configs.IdSequenceInitializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdSequenceInitializerTests {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldFailStartupWhenSequenceCannotBeAligned() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+                .thenThrow(new DataAccessResourceFailureException("permission denied for sequence"));
+
+        assertThatThrownBy(() -> new IdSequenceInitializer(jdbcTemplate).afterPropertiesSet())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Unable to align sequence");
+    }
+
+    @Test
+    void shouldSkipDatabasesWithoutSequencesToAlign() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+
+        new IdSequenceInitializer(jdbcTemplate).afterPropertiesSet();
+
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class));
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.tas_backend.services;
+
+import org.example.tas_backend.dtos.MappingBulkUpdateDTO;
+import org.example.tas_backend.dtos.MappingBulkUpdateResultDTO;
+import org.example.tas_backend.entities.Application;
+import org.example.tas_backend.entities.Document;
+import org.example.tas_backend.entities.ExtractedSubject;
+import org.example.tas_backend.entities.SubjectMapping;
+import org.example.tas_backend.entities.TargetSubject;
+import org.example.tas_backend.events.MatchMemoStaleEvent;
+import org.example.tas_backend.events.TargetCatalogChangedEvent;
+import org.example.tas_backend.repos.ApplicationRepo;
+import org.example.tas_backend.repos.MappingSuggestionRepo;
+import org.example.tas_backend.repos.SubjectMappingRepo;
+import org.example.tas_backend.repos.TargetSubjectRepo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MappingOverrideServiceTests {
+
+    @Mock private SubjectMappingRepo mappingRepo;
+    @Mock private TargetSubjectRepo targetRepo;
+    @Mock private MappingSuggestionRepo suggestionRepo;
+    @Mock private ApplicationRepo applicationRepo;
+    @Mock private MatcherOutboxService outbox;
+    @Mock private AcceptanceService acceptanceService;
+    @Mock private ApplicationEventPublisher events;
+
+    @InjectMocks
+    private MappingOverrideService service;
+
+    @Test
+    void shouldReassignEveryOccurrenceOfALabelWithCoalescedFollowUps() {
+        TargetSubject old = target("old.1");
+        TargetSubject fixed = target("new.1");
+        when(targetRepo.findByCode("new.1")).thenReturn(Optional.of(fixed));
+        when(mappingRepo.findByExtractedSubject_RawNameIgnoreCase("Algèbre")).thenReturn(List.of(
+                mapping(1L, 10L, "Algèbre", old, "local_fuzzy"),
+                mapping(2L, 10L, "algèbre", old, "local_fuzzy"),
+                mapping(3L, 20L, "ALGÈBRE", old, "local_fuzzy")));
+        when(mappingRepo.findByExtractedSubjectAndTargetSubject(any(), any())).thenReturn(Optional.empty());
+        when(mappingRepo.save(any(SubjectMapping.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        MappingBulkUpdateResultDTO result = service.overrideAll(new MappingBulkUpdateDTO(null, " Algèbre ", "new.1", 1f));
+
+        assertThat(result.updated()).isEqualTo(3);
+        assertThat(result.applications()).isEqualTo(2);
+        // one queued alias cleanup for the previous target, no matcher call in the request
+        verify(outbox).enqueueAliasDeletion("old.1", Set.of("Algèbre", "algèbre", "ALGÈBRE"));
+        verifyNoMoreInteractions(outbox);
+        // every mapping kept a target, so no counter change; one re-evaluation per application
+        verify(applicationRepo, never()).adjustMatchedCount(anyLong(), anyInt());
+        verify(acceptanceService).reevaluateApplications(Set.of(10L, 20L));
+        // only the re-mapped label's memo is evicted; the catalog did not change
+        verify(events).publishEvent(new MatchMemoStaleEvent(Set.of("algebre"), "bulk mapping override: 3"));
+        verify(events, never()).publishEvent(any(TargetCatalogChangedEvent.class));
+    }
+
+    @Test
+    void shouldRejectUnknownTargetAndMissingSelection() {
+        when(targetRepo.findByCode("nope")).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> service.overrideAll(new MappingBulkUpdateDTO(List.of(1L), null, "nope", null)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        when(targetRepo.findByCode("new.1")).thenReturn(Optional.of(target("new.1")));
+        assertThatThrownBy(() -> service.overrideAll(new MappingBulkUpdateDTO(List.of(), " ", "new.1", null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(mappingRepo, acceptanceService);
+    }
+
+    private static TargetSubject target(String code) {
+        TargetSubject t = new TargetSubject();
+        t.setCode(code);
+        return t;
+    }
+
+    private static SubjectMapping mapping(Long id, Long appId, String rawName, TargetSubject target, String method) {
+        Application app = new Application();
+        app.setId(appId);
+        Document doc = new Document();
+        doc.setApplication(app);
+        ExtractedSubject subject = new ExtractedSubject();
+        subject.setId(id * 100);
+        subject.setDocument(doc);
+        subject.setRawName(rawName);
+        SubjectMapping m = new SubjectMapping();
+        m.setId(id);
+        m.setExtractedSubject(subject);
+        m.setTargetSubject(target);
+        m.setMethod(method);
+        m.setAuto(true);
+        return m;
+    }
+}
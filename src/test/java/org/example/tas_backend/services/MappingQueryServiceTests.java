@@ -0,0 +1,130 @@
+package org.example.tas_backend.services;
+
+import jakarta.persistence.EntityManager;
+import org.example.tas_backend.dtos.ApplicationMappingViewDTO;
+import org.example.tas_backend.dtos.DocumentMappingViewDTO;
+import org.example.tas_backend.dtos.ExtractedSubjectViewDTO;
+import org.example.tas_backend.dtos.SubjectMappingViewDTO;
+import org.example.tas_backend.entities.Application;
+import org.example.tas_backend.entities.Document;
+import org.example.tas_backend.entities.ExtractedSubject;
+import org.example.tas_backend.entities.StudentApplicant;
+import org.example.tas_backend.entities.SubjectMapping;
+import org.example.tas_backend.entities.TargetSubject;
+import org.example.tas_backend.enums.ApplicationStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tas_view;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.envers.autoRegisterListeners=false",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MappingQueryService.class)
+class MappingQueryServiceTests {
+
+    @Autowired private MappingQueryService service;
+    @Autowired private EntityManager em;
+
+    // declared by TasBackendApplication, which has no RestTemplateBuilder in a JPA slice
+    @MockBean private RestTemplate restTemplate;
+
+    private Application app;
+
+    @BeforeEach
+    void seed() {
+        StudentApplicant student = new StudentApplicant();
+        student.setKeycloakSub("view-student");
+        student.setFirstName("Amira");
+        student.setLastName("Ben Salah");
+        em.persist(student);
+
+        TargetSubject math = new TargetSubject();
+        math.setCode("math.1");
+        math.setName("Math");
+        em.persist(math);
+
+        app = new Application();
+        app.setStudent(student);
+        app.setStatus(ApplicationStatus.SUBMITTED);
+        em.persist(app);
+
+        Document transcript = document("transcript.pdf");
+        document("empty.pdf");
+        ExtractedSubject algebra = subject(transcript, "Algebra");
+        subject(transcript, "History");
+
+        SubjectMapping mapping = new SubjectMapping();
+        mapping.setExtractedSubject(algebra);
+        mapping.setTargetSubject(math);
+        mapping.setConfidence(0.9f);
+        mapping.setMethod("local_exact");
+        em.persist(mapping);
+
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void shouldBuildViewFromSingleQuery() {
+        Statistics stats = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        ApplicationMappingViewDTO view = service.forApplication(app.getId());
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(view.studentName()).isEqualTo("Amira Ben Salah");
+        assertThat(view.documents()).extracting(DocumentMappingViewDTO::filename)
+                .containsExactly("transcript.pdf", "empty.pdf");
+        assertThat(view.documents().get(0).subjects()).extracting(ExtractedSubjectViewDTO::rawName)
+                .containsExactly("Algebra", "History");
+        assertThat(view.documents().get(0).subjects().get(0).mappings())
+                .extracting(SubjectMappingViewDTO::targetCode).containsExactly("math.1");
+        assertThat(view.documents().get(0).subjects().get(1).mappings()).isEmpty();
+        assertThat(view.documents().get(1).subjects()).isEmpty();
+
+        assertThat(service.latestForStudent("view-student").applicationId()).isEqualTo(app.getId());
+    }
+
+    @Test
+    void shouldReportMissingProfileAndApplication() {
+        assertThatThrownBy(() -> service.latestForStudent("nobody"))
+                .isInstanceOf(NoSuchElementException.class).hasMessage("student profile not found");
+        assertThatThrownBy(() -> service.forApplication(-1L))
+                .isInstanceOf(NoSuchElementException.class).hasMessage("application not found: -1");
+    }
+
+    private Document document(String filename) {
+        Document doc = new Document();
+        doc.setApplication(app);
+        doc.setFilename(filename);
+        em.persist(doc);
+        return doc;
+    }
+
+    private ExtractedSubject subject(Document doc, String name) {
+        ExtractedSubject es = new ExtractedSubject();
+        es.setDocument(doc);
+        es.setRawName(name);
+        em.persist(es);
+        return es;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.tas_backend.services;
+
+import jakarta.persistence.EntityManager;
+import org.example.tas_backend.dtos.MappingReviewPageDTO;
+import org.example.tas_backend.dtos.MappingReviewRowDTO;
+import org.example.tas_backend.entities.Application;
+import org.example.tas_backend.entities.Document;
+import org.example.tas_backend.entities.ExtractedSubject;
+import org.example.tas_backend.entities.StudentApplicant;
+import org.example.tas_backend.entities.SubjectMapping;
+import org.example.tas_backend.entities.TargetSubject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tas_review;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.envers.autoRegisterListeners=false",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MappingReviewService.class)
+class MappingReviewServiceTests {
+
+    @Autowired private MappingReviewService service;
+    @Autowired private EntityManager em;
+
+    // declared by TasBackendApplication, which has no RestTemplateBuilder in a JPA slice
+    @MockBean private RestTemplate restTemplate;
+
+    @Test
+    void shouldPageWeakAutoMappingsWeakestFirstWithOneQueryPerPage() {
+        TargetSubject math = new TargetSubject();
+        math.setCode("math.1");
+        math.setName("Mathématiques");
+        em.persist(math);
+        StudentApplicant student = new StudentApplicant();
+        student.setKeycloakSub("review");
+        em.persist(student);
+        Application app = new Application();
+        app.setStudent(student);
+        em.persist(app);
+        Document doc = new Document();
+        doc.setApplication(app);
+        em.persist(doc);
+
+        mapping(doc, math, "Algèbre", 0.95f, true, "local_fuzzy");
+        mapping(doc, math, "Analyse", 0.5f, true, "exact");
+        mapping(doc, math, "Géométrie", null, true, "llm_fallback");
+        mapping(doc, math, "Maths", 0.99f, true, "exact");      // confident exact match
+        mapping(doc, math, "Stats", 0.2f, false, "manual");     // admin override
+        mapping(doc, math, "Probas", 0.5f, true, "exact");
+        em.flush();
+        em.clear();
+
+        Statistics stats = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        List<MappingReviewRowDTO> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            stats.clear();
+            MappingReviewPageDTO page = service.page(null, 1, cursor);
+            assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+            seen.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).extracting(MappingReviewRowDTO::rawName)
+                .containsExactly("Géométrie", "Analyse", "Probas", "Algèbre");
+        assertThat(seen.get(0).applicationId()).isEqualTo(app.getId());
+        assertThat(seen.get(0).targetCode()).isEqualTo("math.1");
+
+        assertThat(service.page(0.4f, null, null).items()).extracting(MappingReviewRowDTO::rawName)
+                .containsExactly("Géométrie", "Algèbre");
+        assertThatThrownBy(() -> service.page(null, null, "not a cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void mapping(Document doc, TargetSubject target, String rawName, Float confidence,
+                         boolean auto, String method) {
+        ExtractedSubject subject = new ExtractedSubject();
+        subject.setDocument(doc);
+        subject.setRawName(rawName);
+        em.persist(subject);
+        SubjectMapping mapping = new SubjectMapping();
+        mapping.setExtractedSubject(subject);
+        mapping.setTargetSubject(target);
+        mapping.setConfidence(confidence);
+        mapping.setAuto(auto);
+        mapping.setMethod(method);
+        em.persist(mapping);
+    }
+}
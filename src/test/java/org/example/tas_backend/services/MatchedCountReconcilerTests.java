@@ -0,0 +1,117 @@
+package org.example.tas_backend.services;
+
+import jakarta.persistence.EntityManager;
+import org.example.tas_backend.configs.MatchedCountBackfill;
+import org.example.tas_backend.dtos.MatchTraceDTO;
+import org.example.tas_backend.dtos.MatchedCountBucketDTO;
+import org.example.tas_backend.entities.Application;
+import org.example.tas_backend.entities.Document;
+import org.example.tas_backend.entities.ExtractedSubject;
+import org.example.tas_backend.entities.StudentApplicant;
+import org.example.tas_backend.entities.TargetSubject;
+import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.repos.ApplicationRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tas_matched;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.envers.autoRegisterListeners=false",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SubmissionResultWriter.class, MatchedCountReconciler.class})
+class MatchedCountReconcilerTests {
+
+    @Autowired private SubmissionResultWriter writer;
+    @Autowired private MatchedCountReconciler reconciler;
+    @Autowired private ApplicationRepo applicationRepo;
+    @Autowired private EntityManager em;
+
+    // declared by TasBackendApplication, which has no RestTemplateBuilder in a JPA slice
+    @MockBean private RestTemplate restTemplate;
+
+    private Application app;
+    private Document doc;
+
+    @BeforeEach
+    void seed() {
+        StudentApplicant student = new StudentApplicant();
+        student.setKeycloakSub("counter-student");
+        em.persist(student);
+
+        TargetSubject math = new TargetSubject();
+        math.setCode("math.1");
+        math.setName("Math");
+        em.persist(math);
+
+        app = new Application();
+        app.setStudent(student);
+        app.setStatus(ApplicationStatus.SUBMITTED);
+        em.persist(app);
+
+        doc = new Document();
+        doc.setFilename("transcript.pdf");
+        doc.setApplication(app);
+        em.persist(doc);
+        em.flush();
+    }
+
+    @Test
+    void shouldCountNewMappingsOnceWhenMatchesAreSaved() {
+        List<ExtractedSubject> subjects = writer.saveOcrResult(doc.getId(), "text",
+                List.of("Algebra", "Analysis", "History"));
+        List<MatchTraceDTO> traces = List.of(
+                trace("math.1"), trace("math.1"), trace(null));
+
+        writer.saveMatches(subjects, traces);
+        writer.saveMatches(subjects, traces);
+
+        assertThat(applicationRepo.findMatchedCountById(app.getId())).contains(2);
+        assertThat(applicationRepo.findMatchedCountHistogram())
+                .containsExactly(new MatchedCountBucketDTO(2, ApplicationStatus.SUBMITTED, 1));
+        assertThat(reconciler.reconcile()).isZero();
+    }
+
+    @Test
+    void shouldRepairDriftedCounter() {
+        List<ExtractedSubject> subjects = writer.saveOcrResult(doc.getId(), "text", List.of("Algebra"));
+        writer.saveMatches(subjects, List.of(trace("math.1")));
+        em.createNativeQuery("update application set matched_count = 7 where id = :id")
+                .setParameter("id", app.getId())
+                .executeUpdate();
+
+        assertThat(reconciler.reconcile()).isEqualTo(1);
+        assertThat(applicationRepo.findMatchedCountById(app.getId())).contains(1);
+    }
+
+    @Test
+    void shouldBackfillCountersLeftAtDefaultInOneUpdate() {
+        List<ExtractedSubject> subjects = writer.saveOcrResult(doc.getId(), "text", List.of("Algebra", "Analysis"));
+        writer.saveMatches(subjects, List.of(trace("math.1"), trace("math.1")));
+        // as on a database upgraded from before the column: every counter starts at 0
+        em.createNativeQuery("update application set matched_count = 0").executeUpdate();
+
+        new MatchedCountBackfill(applicationRepo).afterPropertiesSet();
+
+        assertThat(applicationRepo.findMatchedCountById(app.getId())).contains(2);
+        assertThat(applicationRepo.backfillMatchedCounts()).isZero();
+        assertThat(applicationRepo.findMatchedCountDrift()).isEmpty();
+    }
+
+    private static MatchTraceDTO trace(String target) {
+        return new MatchTraceDTO(null, target, "local_exact", 1.0, null, null, null);
+    }
+}
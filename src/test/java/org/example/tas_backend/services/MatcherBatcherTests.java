@@ -0,0 +1,111 @@
+package org.example.tas_backend.services;
+
+import org.example.tas_backend.dtos.MatchResponseDTO;
+import org.example.tas_backend.dtos.MatchTraceDTO;
+import org.example.tas_backend.services.TargetCatalogService.CatalogSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MatcherBatcherTests {
+
+    @Mock private AiService aiService;
+
+    private static final CatalogSnapshot CATALOG = new CatalogSnapshot("v1", List.of(), List.of(), List.of());
+
+    private ThreadPoolTaskScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.initialize();
+        // echo matcher: trace[i] answers labels[i]
+        when(aiService.matchSubjects(anyList(), any(CatalogSnapshot.class))).thenAnswer(inv -> {
+            List<String> labels = inv.getArgument(0);
+            return new MatchResponseDTO(List.of(), 0.0, labels.stream()
+                    .map(l -> new MatchTraceDTO(l, "code:" + l, "llm_fallback", 0.5, null, null, null))
+                    .toList());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCoalesceConcurrentCallersIntoOneDeduplicatedCall() throws Exception {
+        MatcherBatcher batcher = new MatcherBatcher(aiService, scheduler, 300, 200);
+        CountDownLatch start = new CountDownLatch(1);
+
+        CompletableFuture<Map<String, MatchTraceDTO>> a = CompletableFuture.supplyAsync(() -> {
+            await(start);
+            return batcher.match(CATALOG, List.of("analyse 1", "algebre"));
+        });
+        CompletableFuture<Map<String, MatchTraceDTO>> b = CompletableFuture.supplyAsync(() -> {
+            await(start);
+            return batcher.match(CATALOG, List.of("algebre", "physique"));
+        });
+        start.countDown();
+
+        assertThat(a.get(5, TimeUnit.SECONDS)).containsOnlyKeys("analyse 1", "algebre");
+        assertThat(b.get(5, TimeUnit.SECONDS).get("physique").target()).isEqualTo("code:physique");
+        assertThat(b.get().get("algebre")).isSameAs(a.get().get("algebre"));
+
+        ArgumentCaptor<List<String>> sent = ArgumentCaptor.forClass(List.class);
+        verify(aiService, times(1)).matchSubjects(sent.capture(), any(CatalogSnapshot.class));
+        assertThat(sent.getValue()).containsExactlyInAnyOrder("analyse 1", "algebre", "physique");
+    }
+
+    @Test
+    void shouldFlushImmediatelyWhenBatchIsFull() {
+        MatcherBatcher batcher = new MatcherBatcher(aiService, scheduler, 60_000, 2);
+
+        long startedAt = System.nanoTime();
+        Map<String, MatchTraceDTO> out = batcher.match(CATALOG, List.of("analyse 1", "algebre"));
+
+        assertThat(out).hasSize(2);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)).isLessThan(5_000);
+    }
+
+    @Test
+    void shouldPropagateMatcherFailureToEveryCaller() {
+        when(aiService.matchSubjects(anyList(), any(CatalogSnapshot.class))).thenThrow(new IllegalStateException("matcher down"));
+        MatcherBatcher batcher = new MatcherBatcher(aiService, scheduler, 0, 200);
+
+        assertThatThrownBy(() -> batcher.match(CATALOG, List.of("analyse 1")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("matcher down");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
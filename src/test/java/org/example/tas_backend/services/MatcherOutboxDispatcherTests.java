@@ -0,0 +1,98 @@
+package org.example.tas_backend.services;
+
+import org.example.tas_backend.dtos.SubjectAliasDTO;
+import org.example.tas_backend.entities.MatcherOutboxEvent;
+import org.example.tas_backend.enums.MatcherOutboxAction;
+import org.example.tas_backend.enums.MatcherOutboxStatus;
+import org.example.tas_backend.events.TargetCatalogChangedEvent;
+import org.example.tas_backend.repos.MatcherOutboxRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MatcherOutboxDispatcherTests {
+
+    @Mock private MatcherOutboxRepo outboxRepo;
+    @Mock private AiService ai;
+    @Mock private ApplicationEventPublisher events;
+
+    private MatcherOutboxDispatcher dispatcher;
+    private MatcherOutboxEvent event;
+
+    @BeforeEach
+    void setup() {
+        dispatcher = new MatcherOutboxDispatcher(outboxRepo, ai, events, 2, 10_000, 300_000);
+        event = new MatcherOutboxEvent();
+        event.setId(1L);
+        event.setAction(MatcherOutboxAction.DELETE_ALIASES);
+        event.setIdempotencyKey(UUID.randomUUID().toString());
+        event.setTargetCode("old.1");
+        event.setLabels("Algèbre\nAnalyse linéaire");
+        lenient().when(outboxRepo.findDueIds(any(), any())).thenReturn(List.of(1L));
+        lenient().when(outboxRepo.claim(eq(List.of(1L)), anyString(), any(), any())).thenReturn(1);
+        lenient().when(outboxRepo.findByClaimTokenOrderByIdAsc(anyString())).thenReturn(List.of(event));
+    }
+
+    @Test
+    void shouldLeaveEventsClaimedByAnotherInstanceAlone() {
+        when(outboxRepo.claim(eq(List.of(1L)), anyString(), any(), any())).thenReturn(0);
+
+        assertThat(dispatcher.dispatch()).isZero();
+
+        verifyNoInteractions(ai, events);
+        verify(outboxRepo, never()).findByClaimTokenOrderByIdAsc(any());
+        verify(outboxRepo, never()).save(any());
+    }
+
+    @Test
+    void shouldDeleteMatchingAliasesAndMarkDone() {
+        UUID algebra = UUID.randomUUID();
+        UUID analysis = UUID.randomUUID();
+        when(ai.listAliases(null, "old.1", null)).thenReturn(List.of(
+                new SubjectAliasDTO(algebra, "old.1", "Algèbre", "algebre", "fr"),
+                new SubjectAliasDTO(analysis, "old.1", "analyse lineaire", "analyse lineaire", "fr"),
+                new SubjectAliasDTO(UUID.randomUUID(), "old.1", "Géométrie", "geometrie", "fr")));
+
+        assertThat(dispatcher.dispatch()).isEqualTo(1);
+
+        verify(ai).deleteAlias(algebra.toString());
+        verify(ai).deleteAlias(analysis.toString());
+        verify(ai, times(2)).deleteAlias(any());
+        assertThat(event.getStatus()).isEqualTo(MatcherOutboxStatus.DONE);
+        assertThat(event.getCompletedAt()).isNotNull();
+        verify(events).publishEvent(any(TargetCatalogChangedEvent.class));
+        verify(outboxRepo).save(event);
+    }
+
+    @Test
+    void shouldBackOffAndParkAsFailedAfterMaxAttempts() {
+        when(ai.listAliases(null, "old.1", null)).thenThrow(new ResourceAccessException("matcher down"));
+
+        dispatcher.dispatch();
+        assertThat(event.getStatus()).isEqualTo(MatcherOutboxStatus.PENDING);
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getNextAttemptAt()).isAfter(OffsetDateTime.now().plusSeconds(5));
+        assertThat(event.getLastError()).contains("matcher down");
+
+        dispatcher.dispatch();
+        assertThat(event.getStatus()).isEqualTo(MatcherOutboxStatus.FAILED);
+        assertThat(event.getAttempts()).isEqualTo(2);
+        verify(ai, never()).deleteAlias(any());
+        verifyNoInteractions(events);
+    }
+}
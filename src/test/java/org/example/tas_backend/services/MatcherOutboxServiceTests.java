@@ -0,0 +1,84 @@
+package org.example.tas_backend.services;
+
+import org.example.tas_backend.entities.MatcherOutboxEvent;
+import org.example.tas_backend.enums.MatcherOutboxStatus;
+import org.example.tas_backend.repos.MatcherOutboxRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tas_outbox;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.envers.autoRegisterListeners=false",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MatcherOutboxService.class)
+class MatcherOutboxServiceTests {
+
+    @Autowired private MatcherOutboxService service;
+    @Autowired private MatcherOutboxRepo outboxRepo;
+
+    // declared by TasBackendApplication, which has no RestTemplateBuilder in a JPA slice
+    @MockBean private RestTemplate restTemplate;
+
+    @Test
+    void shouldQueueSameCleanupOnceWhilePending() {
+        service.enqueueAliasDeletion("old.1", List.of("Algèbre", "Analyse"));
+        service.enqueueAliasDeletion("old.1", List.of("analyse", "ALGÈBRE"));
+        service.enqueueAliasDeletion("old.2", List.of("Algèbre", "Analyse"));
+
+        List<MatcherOutboxEvent> queued = outboxRepo.findAll();
+        assertThat(queued).extracting(MatcherOutboxEvent::getTargetCode).containsExactlyInAnyOrder("old.1", "old.2");
+        assertThat(queued).allSatisfy(e -> {
+            assertThat(e.getStatus()).isEqualTo(MatcherOutboxStatus.PENDING);
+            assertThat(e.getPendingKey()).isEqualTo(e.getIdempotencyKey());
+        });
+    }
+
+    @Test
+    void shouldReleaseKeyOnceEventLeavesPending() {
+        service.enqueueAliasDeletion("old.1", List.of("Algèbre"));
+        MatcherOutboxEvent failed = outboxRepo.findAll().getFirst();
+        failed.setStatus(MatcherOutboxStatus.FAILED);
+        outboxRepo.saveAndFlush(failed);
+        assertThat(failed.getPendingKey()).isNull();
+
+        service.enqueueAliasDeletion("old.1", List.of("algèbre"));
+
+        assertThat(outboxRepo.findAll()).extracting(MatcherOutboxEvent::getStatus)
+                .containsExactlyInAnyOrder(MatcherOutboxStatus.FAILED, MatcherOutboxStatus.PENDING);
+        // reviving the failed copy would queue the same cleanup twice
+        assertThatThrownBy(() -> service.retry(failed.getId())).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldLeaseDueEventToOneClaimOnly() {
+        service.enqueueAliasDeletion("old.1", List.of("Algèbre"));
+        OffsetDateTime now = OffsetDateTime.now().plusSeconds(1);
+        List<Long> due = outboxRepo.findDueIds(now, PageRequest.of(0, 10));
+        assertThat(due).hasSize(1);
+
+        // two instances read the same due row; only the first claim takes it
+        assertThat(outboxRepo.claim(due, "first", now, now.plusMinutes(5))).isEqualTo(1);
+        assertThat(outboxRepo.claim(due, "second", now, now.plusMinutes(5))).isZero();
+
+        assertThat(outboxRepo.findByClaimTokenOrderByIdAsc("first")).extracting(MatcherOutboxEvent::getId)
+                .containsExactlyElementsOf(due);
+        assertThat(outboxRepo.findByClaimTokenOrderByIdAsc("second")).isEmpty();
+        assertThat(outboxRepo.findDueIds(now, PageRequest.of(0, 10))).isEmpty();
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.tas_backend.services;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MultipartFileResourceTests {
+
+    @TempDir
+    Path tmp;
+
+    private HttpServer server;
+    private final AtomicReference<String> contentLength = new AtomicReference<>();
+    private final AtomicReference<String> transferEncoding = new AtomicReference<>();
+    private final AtomicReference<String> contentType = new AtomicReference<>();
+    private final AtomicReference<byte[]> received = new AtomicReference<>();
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ocr/", exchange -> {
+            contentLength.set(exchange.getRequestHeaders().getFirst("Content-Length"));
+            transferEncoding.set(exchange.getRequestHeaders().getFirst("Transfer-Encoding"));
+            contentType.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+            received.set(exchange.getRequestBody().readAllBytes());
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldSendFixedLengthMultipartStreamedFromDisk() throws Exception {
+        byte[] pdf = new byte[256 * 1024];
+        for (int i = 0; i < pdf.length; i++) pdf[i] = (byte) i;
+        Path file = Files.write(tmp.resolve("transcript.pdf"), pdf);
+
+        MultipartFileResource body = new MultipartFileResource(file, "image", "transcript.pdf", "application/pdf");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(body.contentType());
+        headers.setContentLength(body.contentLength());
+
+        RestTemplate restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        restTemplate.postForEntity("http://127.0.0.1:" + server.getAddress().getPort() + "/ocr/",
+                new HttpEntity<Resource>(body, headers), Void.class);
+
+        assertThat(transferEncoding.get()).isNull();
+        assertThat(contentLength.get()).isEqualTo(String.valueOf(body.contentLength()));
+        assertThat(received.get()).hasSize((int) body.contentLength());
+
+        String boundary = contentType.get().substring(contentType.get().indexOf("boundary=") + "boundary=".length());
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"image\"; filename=\"transcript.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        expected.write(pdf);
+        expected.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        assertThat(received.get()).isEqualTo(expected.toByteArray());
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.tas_backend.services;
+
+import org.example.tas_backend.dtos.ReevaluationJobDTO;
+import org.example.tas_backend.entities.ReevaluationJob;
+import org.example.tas_backend.enums.ReevaluationJobStatus;
+import org.example.tas_backend.repos.ApplicationRepo;
+import org.example.tas_backend.repos.ReevaluationJobRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReevaluationJobServiceTests {
+
+    @Mock private ReevaluationJobRepo jobRepo;
+    @Mock private ApplicationRepo applicationRepo;
+    @Mock private AcceptanceService acceptanceService;
+    @Mock private SimpMessagingTemplate broker;
+
+    private ReevaluationJobService service;
+
+    @BeforeEach
+    void setup() {
+        service = new ReevaluationJobService(jobRepo, applicationRepo, acceptanceService, broker,
+                new SyncTaskExecutor(), 100);
+    }
+
+    @Test
+    void shouldSupersedeRunningJobAndRunChunksUntilCompleted() {
+        when(jobRepo.findByStatusOrderByIdDesc(ReevaluationJobStatus.RUNNING)).thenReturn(List.of(job(1L, ReevaluationJobStatus.RUNNING)));
+        when(applicationRepo.countReevaluable()).thenReturn(250L);
+        when(jobRepo.save(any(ReevaluationJob.class))).thenAnswer(inv -> {
+            ReevaluationJob j = inv.getArgument(0);
+            j.setId(2L);
+            return j;
+        });
+        when(acceptanceService.reevaluateNextChunk(2L, 100)).thenReturn(
+                job(2L, ReevaluationJobStatus.RUNNING),
+                job(2L, ReevaluationJobStatus.RUNNING),
+                job(2L, ReevaluationJobStatus.COMPLETED));
+
+        ReevaluationJobDTO started = service.start(5);
+
+        assertThat(started.total()).isEqualTo(250);
+        verify(jobRepo).finishRunning(eq(1L), eq(ReevaluationJobStatus.CANCELLED), eq("superseded"), any());
+        verify(acceptanceService, times(3)).reevaluateNextChunk(2L, 100);
+        // queued + one message per chunk
+        verify(broker, times(4)).convertAndSend(eq("/topic/admin/reevaluation"), any(ReevaluationJobDTO.class));
+        verify(broker).convertAndSend(eq("/topic/admin/reevaluation"),
+                argThat((ReevaluationJobDTO p) -> "COMPLETED".equals(p.status())));
+    }
+
+    @Test
+    void shouldStopAfterCancelAndMarkFailedOnError() {
+        when(acceptanceService.reevaluateNextChunk(3L, 100)).thenReturn(job(3L, ReevaluationJobStatus.CANCELLED));
+        service.run(3L);
+        verify(acceptanceService, times(1)).reevaluateNextChunk(3L, 100);
+
+        when(acceptanceService.reevaluateNextChunk(4L, 100)).thenThrow(new IllegalStateException("db down"));
+        when(jobRepo.findById(4L)).thenReturn(Optional.of(job(4L, ReevaluationJobStatus.FAILED)));
+        service.run(4L);
+        verify(jobRepo).finishRunning(eq(4L), eq(ReevaluationJobStatus.FAILED), eq("db down"), any());
+    }
+
+    private static ReevaluationJob job(Long id, ReevaluationJobStatus status) {
+        ReevaluationJob j = new ReevaluationJob();
+        j.setId(id);
+        j.setStatus(status);
+        return j;
+    }
+}
@@ -0,0 +1,208 @@
+package org.example.tas_backend.services;
+
+import org.example.tas_backend.dtos.MatchResponseDTO;
+import org.example.tas_backend.dtos.MatchTraceDTO;
+import org.example.tas_backend.entities.MappingSuggestion;
+import org.example.tas_backend.entities.MatchMemo;
+import org.example.tas_backend.entities.TargetSubject;
+import org.example.tas_backend.enums.SuggestionStatus;
+import org.example.tas_backend.events.MatchMemoStaleEvent;
+import org.example.tas_backend.events.TargetCatalogChangedEvent;
+import org.example.tas_backend.repos.MappingSuggestionRepo;
+import org.example.tas_backend.repos.MatchMemoRepo;
+import org.example.tas_backend.repos.TargetSubjectRepo;
+import org.example.tas_backend.services.TargetCatalogService.CatalogSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SubjectMatchingServiceTests {
+
+    @Mock private TargetSubjectRepo targetSubjectRepo;
+    @Mock private MappingSuggestionRepo suggestionRepo;
+    @Mock private AiService aiService;
+    @Mock private MatchMemoRepo memoRepo;
+
+    private TargetCatalogService catalogService;
+    private LocalSubjectMatcher localMatcher;
+    private MatchMemoCache memo;
+    private SubjectMatchingService service;
+    private ThreadPoolTaskScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        when(targetSubjectRepo.findAll(any(Sort.class))).thenReturn(List.of(
+                target("math.1", "Algèbre linéaire"),
+                target("info.2", "Programmation orientée objet"),
+                target("phys.1", "Physique générale")));
+
+        MappingSuggestion alias = new MappingSuggestion();
+        alias.setSrcLabel("Linear Algebra");
+        alias.setNormLabel("linear algebra");
+        alias.setProposedTargetCode("math.1");
+        alias.setStatus(SuggestionStatus.ACCEPTED);
+        when(suggestionRepo.findByStatus(eq(SuggestionStatus.ACCEPTED), any())).thenReturn(List.of(alias));
+
+        catalogService = new TargetCatalogService(targetSubjectRepo, suggestionRepo);
+        localMatcher = new LocalSubjectMatcher(0.85);
+        memo = new MatchMemoCache(memoRepo, 100);
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        // window 0: every call is sent straight away, batching is covered in MatcherBatcherTests
+        MatcherBatcher batcher = new MatcherBatcher(aiService, scheduler, 0, 200);
+        service = new SubjectMatchingService(catalogService, localMatcher, memo, batcher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void shouldResolveNamesAndAcceptedAliasesLocallyWithoutRemoteCall() {
+        List<MatchTraceDTO> traces = service.match(List.of("algebre lineaire", "linear algebra"));
+
+        assertThat(traces).extracting(MatchTraceDTO::target).containsExactly("math.1", "math.1");
+        assertThat(traces).extracting(MatchTraceDTO::method).containsOnly("local_exact");
+        assertThat(traces.get(0).score()).isEqualTo(1.0);
+        verifyNoInteractions(aiService);
+    }
+
+    @Test
+    void shouldResolveNearMissWithFuzzyIndex() {
+        List<MatchTraceDTO> traces = service.match(List.of("programmation orientee objets"));
+
+        assertThat(traces.get(0).target()).isEqualTo("info.2");
+        assertThat(traces.get(0).method()).isEqualTo("local_fuzzy");
+        assertThat(traces.get(0).score()).isBetween(0.85, 0.99);
+        verifyNoInteractions(aiService);
+    }
+
+    @Test
+    void shouldForwardOnlyUnresolvedLabelsAndKeepAlignment() {
+        MatchTraceDTO remote = new MatchTraceDTO("thermodynamique", "phys.1", "llm_fallback", 0.7, "Physique générale", null, null);
+        when(aiService.matchSubjects(eq(List.of("thermodynamique", "histoire de l art")), any(CatalogSnapshot.class)))
+                .thenReturn(new MatchResponseDTO(List.of("phys.1"), 50.0, List.of(remote,
+                        new MatchTraceDTO("histoire de l art", null, "none", 0.0, null, null, null))));
+
+        List<MatchTraceDTO> traces = service.match(List.of("thermodynamique", "physique generale", "histoire de l art"));
+
+        assertThat(traces).extracting(MatchTraceDTO::target).containsExactly("phys.1", "phys.1", null);
+        assertThat(traces.get(0)).isSameAs(remote);
+        assertThat(traces.get(1).method()).isEqualTo("local_exact");
+    }
+
+    @Test
+    void shouldNotFuzzyMatchAcrossCourseSequenceNumbers() {
+        when(targetSubjectRepo.findAll(any(Sort.class))).thenReturn(List.of(
+                target("math.2", "Algèbre linéaire 2"),
+                target("info.2", "Programmation orientée objet 2"),
+                target("phys.2", "Physique générale II")));
+        catalogService.onCatalogChanged(new TargetCatalogChangedEvent("test"));
+        CatalogSnapshot catalog = catalogService.snapshot();
+
+        assertThat(localMatcher.match(catalog, "algebre lineaire 1")).isEmpty();
+        assertThat(localMatcher.match(catalog, "programmation orientee objet 1")).isEmpty();
+        assertThat(localMatcher.match(catalog, "physique generale i")).isEmpty();
+        assertThat(localMatcher.match(catalog, "algebre lineaire")).isEmpty();
+        // same number, spelled differently, still resolves
+        assertThat(localMatcher.match(catalog, "algebre lineaires 2")).get()
+                .extracting(MatchTraceDTO::target).isEqualTo("math.2");
+        assertThat(localMatcher.match(catalog, "physique generales ii")).get()
+                .extracting(MatchTraceDTO::target).isEqualTo("phys.2");
+    }
+
+    @Test
+    void shouldRebuildIndexAfterCatalogChange() {
+        String before = catalogService.snapshot().version();
+        assertThat(localMatcher.match(catalogService.snapshot(), "chimie organique")).isEmpty();
+
+        when(targetSubjectRepo.findAll(any(Sort.class))).thenReturn(List.of(target("chem.1", "Chimie organique")));
+        catalogService.onCatalogChanged(new TargetCatalogChangedEvent("test"));
+
+        assertThat(catalogService.snapshot().version()).isNotEqualTo(before);
+        assertThat(localMatcher.match(catalogService.snapshot(), "chimie organique")).get()
+                .extracting(MatchTraceDTO::target).isEqualTo("chem.1");
+    }
+
+    @Test
+    void shouldMemoizeRemoteResultsAndSendDuplicatesOnce() {
+        MatchTraceDTO remote = new MatchTraceDTO("thermodynamique", "phys.1", "llm_fallback", 0.7, "Physique générale", null, null);
+        when(aiService.matchSubjects(eq(List.of("thermodynamique")), any(CatalogSnapshot.class)))
+                .thenReturn(new MatchResponseDTO(List.of("phys.1"), 100.0, List.of(remote)));
+
+        List<MatchTraceDTO> first = service.match(List.of("thermodynamique", "thermodynamique"));
+        List<MatchTraceDTO> second = service.match(List.of("thermodynamique"));
+
+        assertThat(first).containsExactly(remote, remote);
+        assertThat(second).containsExactly(remote);
+        verify(aiService, times(1)).matchSubjects(anyList(), any(CatalogSnapshot.class));
+        verify(memoRepo, times(1)).save(argThat(m -> "thermodynamique".equals(m.getNormLabel())
+                && "phys.1".equals(m.getTargetCode())
+                && m.getCatalogVersion().equals(catalogService.snapshot().version())));
+    }
+
+    @Test
+    void shouldServeMemoFromDatabaseAndPurgeOnCatalogChange() {
+        MatchMemo row = new MatchMemo();
+        row.setNormLabel("thermodynamique");
+        row.setTargetCode("phys.1");
+        row.setMethod("llm_fallback");
+        row.setScore(0.7);
+        when(memoRepo.findByCatalogVersionAndNormLabelIn(eq(catalogService.snapshot().version()), any()))
+                .thenReturn(List.of(row));
+
+        assertThat(service.match(List.of("thermodynamique")).get(0).target()).isEqualTo("phys.1");
+        verifyNoInteractions(aiService);
+
+        memo.onCatalogChanged(new TargetCatalogChangedEvent("alias deleted"));
+        when(memoRepo.findByCatalogVersionAndNormLabelIn(any(), any())).thenReturn(List.of());
+        service.match(List.of("thermodynamique"));
+
+        verify(memoRepo).deleteAllInBatch();
+        verify(aiService).matchSubjects(eq(List.of("thermodynamique")), any(CatalogSnapshot.class));
+    }
+
+    @Test
+    void shouldEvictOnlyStaleLabelsFromMemo() {
+        when(aiService.matchSubjects(anyList(), any(CatalogSnapshot.class))).thenAnswer(inv -> {
+            List<String> labels = inv.getArgument(0);
+            return new MatchResponseDTO(List.of(), 0.0, labels.stream()
+                    .map(l -> new MatchTraceDTO(l, "phys.1", "llm_fallback", 0.7, "Physique générale", null, null))
+                    .toList());
+        });
+        service.match(List.of("thermodynamique", "mecanique"));
+
+        memo.onMemoStale(new MatchMemoStaleEvent(Set.of("thermodynamique"), "mapping overridden: 1"));
+        service.match(List.of("thermodynamique", "mecanique"));
+
+        verify(memoRepo).deleteByNormLabelIn(Set.of("thermodynamique"));
+        verify(memoRepo, never()).deleteAllInBatch();
+        verify(aiService).matchSubjects(eq(List.of("thermodynamique")), any(CatalogSnapshot.class));
+    }
+
+    private static TargetSubject target(String code, String name) {
+        TargetSubject t = new TargetSubject();
+        t.setCode(code);
+        t.setName(name);
+        return t;
+    }
+}
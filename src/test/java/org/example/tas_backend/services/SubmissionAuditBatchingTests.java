@@ -0,0 +1,108 @@
+package org.example.tas_backend.services;
+
+import jakarta.persistence.EntityManager;
+import org.example.tas_backend.dtos.MatchTraceDTO;
+import org.example.tas_backend.entities.Document;
+import org.example.tas_backend.entities.ExtractedSubject;
+import org.example.tas_backend.entities.TargetSubject;
+import org.example.tas_backend.repos.DocumentRepo;
+import org.example.tas_backend.repos.TargetSubjectRepo;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the pipeline's inserts, Envers _aud rows included, go out as JDBC batches. Envers
+ * writes audit rows when the writer's own transactions commit, so the test runs without one.
+ * H2 runs in its default mode because the _aud tables use TINYINT for revtype.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tas_audit_batching;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "org.example.tas_backend.services.SubmissionAuditBatchingTests$PreparedStatements"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SubmissionResultWriter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SubmissionAuditBatchingTests {
+
+    @Autowired private SubmissionResultWriter writer;
+    @Autowired private DocumentRepo documentRepo;
+    @Autowired private TargetSubjectRepo targetSubjectRepo;
+    @Autowired private EntityManager entityManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    // declared by TasBackendApplication, which has no RestTemplateBuilder in a JPA slice
+    @MockBean private RestTemplate restTemplate;
+
+    @Test
+    void shouldBatchEntityAndAuditInserts() {
+        for (String code : List.of("math.1", "phys.1")) {
+            TargetSubject t = new TargetSubject();
+            t.setCode(code);
+            t.setName(code);
+            targetSubjectRepo.save(t);
+        }
+        Document doc = new Document();
+        doc.setFilename("transcript.pdf");
+        doc = documentRepo.save(doc);
+
+        List<String> courses = IntStream.range(0, 40).mapToObj(i -> "Course " + i).toList();
+        List<MatchTraceDTO> traces = IntStream.range(0, 40)
+                .mapToObj(i -> new MatchTraceDTO(null, i % 2 == 0 ? "math.1" : "phys.1", "local_exact", 1.0, null, null, null))
+                .toList();
+        Statistics stats = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        PreparedStatements.SQL.clear();
+
+        List<ExtractedSubject> subjects = writer.saveOcrResult(doc.getId(), "text", courses);
+        writer.saveMatches(subjects, traces);
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from extracted_subject_aud", Long.class)).isEqualTo(40);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from subject_mapping_aud", Long.class)).isEqualTo(40);
+        // one prepared insert per table and transaction: each set of 40 rows went out as one batch,
+        // audit rows included (with IDENTITY ids or unbatched audit writes it was one per row)
+        assertThat(PreparedStatements.inserts("extracted_subject")).isEqualTo(1);
+        assertThat(PreparedStatements.inserts("extracted_subject_aud")).isEqualTo(1);
+        assertThat(PreparedStatements.inserts("subject_mapping")).isEqualTo(1);
+        assertThat(PreparedStatements.inserts("subject_mapping_aud")).isEqualTo(1);
+        assertThat(PreparedStatements.inserts("revinfo")).isEqualTo(2);
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(20);
+    }
+
+    /** Records every statement Hibernate prepares; a JDBC batch is prepared once. */
+    public static class PreparedStatements implements StatementInspector {
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+
+        static long inserts(String table) {
+            String prefix = "insert into " + table + " ";
+            return SQL.stream().filter(sql -> sql.toLowerCase().startsWith(prefix)).count();
+        }
+    }
+}
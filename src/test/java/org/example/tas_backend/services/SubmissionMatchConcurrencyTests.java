@@ -0,0 +1,94 @@
+package org.example.tas_backend.services;
+
+import org.example.tas_backend.dtos.MatchTraceDTO;
+import org.example.tas_backend.entities.Document;
+import org.example.tas_backend.entities.ExtractedSubject;
+import org.example.tas_backend.entities.SubjectMapping;
+import org.example.tas_backend.entities.TargetSubject;
+import org.example.tas_backend.repos.DocumentRepo;
+import org.example.tas_backend.repos.ExtractedSubjectRepo;
+import org.example.tas_backend.repos.SubjectMappingRepo;
+import org.example.tas_backend.repos.TargetSubjectRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two writers mapping the same subjects at once, as a retried or resumed pipeline run can:
+ * the second must wait for the first and skip its subjects, not fail on uk_map_subject_target.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tas_match_race;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR;LOCK_TIMEOUT=10000",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.envers.autoRegisterListeners=false",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SubmissionResultWriter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SubmissionMatchConcurrencyTests {
+
+    @Autowired private SubmissionResultWriter writer;
+    @Autowired private DocumentRepo documentRepo;
+    @Autowired private TargetSubjectRepo targetSubjectRepo;
+    @Autowired private ExtractedSubjectRepo extractedSubjectRepo;
+    @Autowired private SubjectMappingRepo subjectMappingRepo;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    // declared by TasBackendApplication, which has no RestTemplateBuilder in a JPA slice
+    @MockBean private RestTemplate restTemplate;
+
+    @Test
+    void shouldWaitForConcurrentWriterAndSkipSubjectsItMapped() throws Exception {
+        TargetSubject math = new TargetSubject();
+        math.setCode("math.1");
+        math.setName("Math");
+        TargetSubject target = targetSubjectRepo.save(math);
+        Document doc = new Document();
+        doc.setFilename("transcript.pdf");
+        doc = documentRepo.save(doc);
+        List<ExtractedSubject> subjects = writer.saveOcrResult(doc.getId(), "text", List.of("Algebra"));
+        List<MatchTraceDTO> traces = List.of(new MatchTraceDTO(null, "math.1", "local_exact", 1.0, null, null, null));
+
+        CompletableFuture<Void> second = new TransactionTemplate(transactionManager).execute(tx -> {
+            // first writer: holds the subjects and maps them, committing only after the second started
+            extractedSubjectRepo.lockAll(subjects);
+            CompletableFuture<Void> started = CompletableFuture.runAsync(() -> writer.saveMatches(subjects, traces));
+            sleep();
+            SubjectMapping mapping = new SubjectMapping();
+            mapping.setExtractedSubject(subjects.getFirst());
+            mapping.setTargetSubject(target);
+            mapping.setMethod("admin_override");
+            subjectMappingRepo.save(mapping);
+            assertThat(started).isNotDone();
+            return started;
+        });
+
+        second.get(10, TimeUnit.SECONDS);
+        assertThat(subjectMappingRepo.findByExtractedSubjectIn(subjects))
+                .extracting(SubjectMapping::getMethod).containsExactly("admin_override");
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(300);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
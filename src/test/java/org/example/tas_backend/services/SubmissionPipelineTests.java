@@ -0,0 +1,150 @@
+package org.example.tas_backend.services;
+
+import org.example.tas_backend.dtos.OcrOutcomeDTO;
+import org.example.tas_backend.dtos.PipelineStateDTO;
+import org.example.tas_backend.enums.PipelineStage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SubmissionPipelineTests {
+
+    @Mock private ApplicationSubmitService submitService;
+    @Mock private AcceptanceService acceptanceService;
+    @Mock private SimpMessagingTemplate broker;
+
+    private ThreadPoolTaskExecutor ocrExecutor;
+    private SubmissionPipeline pipeline;
+
+    @BeforeEach
+    void setup() {
+        ocrExecutor = new ThreadPoolTaskExecutor();
+        ocrExecutor.setCorePoolSize(2);
+        ocrExecutor.setMaxPoolSize(2);
+        ocrExecutor.initialize();
+        pipeline = new SubmissionPipeline(submitService, acceptanceService, broker,
+                new SyncTaskExecutor(), ocrExecutor, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ocrExecutor.shutdown();
+    }
+
+    @Test
+    void shouldRunOcrConcurrentlyWithinCapAndPersistInDocumentOrder() {
+        List<Long> docIds = List.of(1L, 2L, 3L, 4L);
+        when(submitService.documentIdsWithoutOcr(10L)).thenReturn(docIds);
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(submitService.runOcr(any())).thenAnswer(inv -> {
+            Long id = inv.getArgument(0);
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            // first document is the slowest, so completion order differs from document order
+            Thread.sleep(id == 1L ? 300 : 100);
+            inFlight.decrementAndGet();
+            return new OcrOutcomeDTO(id, "text " + id, List.of("Course " + id));
+        });
+
+        pipeline.run(10L, "student-sub", PipelineStage.QUEUED);
+
+        assertThat(peak.get()).isEqualTo(2);
+        InOrder order = inOrder(submitService);
+        for (Long id : docIds) {
+            order.verify(submitService).saveOcr(new OcrOutcomeDTO(id, "text " + id, List.of("Course " + id)));
+        }
+        verify(submitService).matchApplication(10L);
+        verify(acceptanceService).reevaluateApplication(10L);
+        InOrder stages = inOrder(submitService);
+        for (PipelineStage stage : List.of(PipelineStage.OCR, PipelineStage.MATCHING,
+                PipelineStage.ACCEPTANCE, PipelineStage.COMPLETED)) {
+            stages.verify(submitService).recordStage(10L, stage, null);
+        }
+    }
+
+    @Test
+    void shouldFailPipelineAndSkipPersistWhenOcrThrows() {
+        when(submitService.documentIdsWithoutOcr(10L)).thenReturn(List.of(1L, 2L));
+        when(submitService.runOcr(1L)).thenReturn(new OcrOutcomeDTO(1L, "ok", List.of()));
+        when(submitService.runOcr(2L)).thenThrow(new IllegalStateException("document not found: 2"));
+
+        pipeline.run(10L, "student-sub", PipelineStage.QUEUED);
+
+        verify(submitService, never()).saveOcr(any());
+        verify(submitService, never()).matchApplication(any());
+        verifyNoInteractions(acceptanceService);
+        verify(submitService).recordStage(10L, PipelineStage.FAILED, "OCR: document not found: 2");
+    }
+
+    @Test
+    void shouldResumeFromRecordedStage() {
+        pipeline.run(10L, "student-sub", PipelineStage.MATCHING);
+
+        verify(submitService, never()).documentIdsWithoutOcr(any());
+        verify(submitService).matchApplication(10L);
+        verify(acceptanceService).reevaluateApplication(10L);
+        verify(submitService, never()).recordStage(10L, PipelineStage.OCR, null);
+        verify(submitService).recordStage(10L, PipelineStage.COMPLETED, null);
+    }
+
+    @Test
+    void shouldRetryOnlyFailedPipelinesAndGiveBackSlotOtherwise() {
+        when(submitService.requeueFailed(10L)).thenReturn(false, true);
+        when(submitService.documentIdsWithoutOcr(10L)).thenReturn(List.of());
+
+        assertThat(pipeline.tryReserve()).isTrue();
+        assertThat(pipeline.retryFailed(10L, "student-sub")).isFalse();
+        verifyNoInteractions(acceptanceService);
+
+        assertThat(pipeline.tryReserve()).isTrue();
+        assertThat(pipeline.retryFailed(10L, "student-sub")).isTrue();
+        verify(acceptanceService).reevaluateApplication(10L);
+        // both slots are free again
+        assertThat(pipeline.tryReserve()).isTrue();
+        assertThat(pipeline.tryReserve()).isTrue();
+    }
+
+    @Test
+    void shouldResumeUnfinishedSubmissionsFromTheirStage() throws Exception {
+        when(submitService.unfinishedPipelines()).thenReturn(List.of(
+                new PipelineStateDTO(10L, "a", PipelineStage.OCR, null),
+                new PipelineStateDTO(11L, "b", PipelineStage.ACCEPTANCE, null)));
+        when(submitService.documentIdsWithoutOcr(10L)).thenReturn(List.of());
+
+        pipeline.resumeUnfinished();
+
+        verify(acceptanceService, timeout(2000)).reevaluateApplication(11L);
+        verify(acceptanceService, timeout(2000)).reevaluateApplication(10L);
+        verify(submitService).matchApplication(10L);
+        verify(submitService, never()).matchApplication(11L);
+    }
+
+    @Test
+    void shouldAdmitAtMostWorkersPlusQueueAndFreeSlotWhenPipelineEnds() {
+        assertThat(pipeline.tryReserve()).isTrue();
+        assertThat(pipeline.tryReserve()).isTrue();
+        assertThat(pipeline.tryReserve()).isFalse();
+
+        when(submitService.documentIdsWithoutOcr(10L)).thenReturn(List.of());
+        pipeline.start(10L, "student-sub");
+
+        assertThat(pipeline.tryReserve()).isTrue();
+        assertThat(pipeline.tryReserve()).isFalse();
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.tas_backend.services;
+
+import org.example.tas_backend.dtos.MatchTraceDTO;
+import org.example.tas_backend.entities.Document;
+import org.example.tas_backend.entities.ExtractedSubject;
+import org.example.tas_backend.entities.MappingSuggestion;
+import org.example.tas_backend.entities.TargetSubject;
+import org.example.tas_backend.enums.SuggestionStatus;
+import org.example.tas_backend.events.SuggestionStatusChangedEvent;
+import org.example.tas_backend.repos.DocumentRepo;
+import org.example.tas_backend.repos.MappingSuggestionRepo;
+import org.example.tas_backend.repos.SubjectMappingRepo;
+import org.example.tas_backend.repos.TargetSubjectRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.web.client.RestTemplate;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tas_writer;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.envers.autoRegisterListeners=false",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SubmissionResultWriter.class)
+@RecordApplicationEvents
+class SubmissionResultWriterTests {
+
+    @Autowired private SubmissionResultWriter writer;
+    @Autowired private DocumentRepo documentRepo;
+    @Autowired private TargetSubjectRepo targetSubjectRepo;
+    @Autowired private SubjectMappingRepo subjectMappingRepo;
+    @Autowired private MappingSuggestionRepo suggestionRepo;
+    @Autowired private ApplicationEvents events;
+    @SpyBean private JdbcTemplate jdbcTemplate;
+
+    // declared by TasBackendApplication, which has no RestTemplateBuilder in a JPA slice
+    @MockBean private RestTemplate restTemplate;
+
+    private Document doc;
+
+    @BeforeEach
+    void seed() {
+        for (String code : List.of("math.1", "phys.1")) {
+            TargetSubject t = new TargetSubject();
+            t.setCode(code);
+            t.setName(code);
+            targetSubjectRepo.save(t);
+        }
+        doc = new Document();
+        doc.setFilename("transcript.pdf");
+        doc = documentRepo.save(doc);
+    }
+
+    @Test
+    void shouldWriteMappingsAndSkipDuplicateSuggestions() {
+        MappingSuggestion existing = new MappingSuggestion();
+        existing.setSrcLabel("Thermodynamique");
+        existing.setNormLabel("thermodynamique");
+        existing.setProposedTargetCode("phys.1");
+        existing.setLanguage("fr");
+        existing.setMethod("llm_fallback");
+        existing.setStatus(SuggestionStatus.PENDING);
+        suggestionRepo.saveAndFlush(existing);
+
+        List<ExtractedSubject> subjects = writer.saveOcrResult(doc.getId(), "text",
+                List.of("Linear Algebra", "Linear algebra", "Thermodynamique", "Physique", "Histoire"));
+        List<MatchTraceDTO> traces = Arrays.asList(
+                trace("math.1", "llm_fallback", 0.7),
+                trace("math.1", "llm_fallback", 0.7),
+                trace("phys.1", "llm_fallback", 0.6),
+                trace("phys.1", "local_exact", 1.0),
+                trace("hist.9", "llm_fallback", 0.5));
+
+        writer.saveMatches(subjects, traces);
+        writer.saveMatches(subjects, traces);
+
+        assertThat(subjectMappingRepo.findByExtractedSubjectIn(subjects))
+                .extracting(m -> m.getTargetSubject().getCode())
+                .containsExactlyInAnyOrder("math.1", "math.1", "phys.1", "phys.1");
+        assertThat(suggestionRepo.findAll())
+                .extracting(MappingSuggestion::getNormLabel)
+                .containsExactlyInAnyOrder("thermodynamique", "linear algebra");
+    }
+
+    @Test
+    void shouldCountInsertedSuggestionsWhenDriverReportsNoInfo() {
+        // pgjdbc with reWriteBatchedInserts answers SUCCESS_NO_INFO for every batched row
+        doAnswer(inv -> {
+            int[][] counts = (int[][]) inv.callRealMethod();
+            for (int[] batch : counts) Arrays.fill(batch, Statement.SUCCESS_NO_INFO);
+            return counts;
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        MappingSuggestion existing = new MappingSuggestion();
+        existing.setSrcLabel("Thermodynamique");
+        existing.setNormLabel("thermodynamique");
+        existing.setProposedTargetCode("phys.1");
+        existing.setLanguage("fr");
+        existing.setMethod("llm_fallback");
+        existing.setStatus(SuggestionStatus.PENDING);
+        suggestionRepo.saveAndFlush(existing);
+
+        List<ExtractedSubject> subjects = writer.saveOcrResult(doc.getId(), "text",
+                List.of("Linear Algebra", "Thermodynamique", "Histoire"));
+        writer.saveMatches(subjects, Arrays.asList(
+                trace("math.1", "llm_fallback", 0.7),
+                trace("phys.1", "llm_fallback", 0.6),
+                trace("hist.9", "llm_fallback", 0.5)));
+
+        assertThat(suggestionRepo.count()).isEqualTo(2);
+        assertThat(events.stream(SuggestionStatusChangedEvent.class))
+                .containsExactly(new SuggestionStatusChangedEvent(null, SuggestionStatus.PENDING, 1));
+    }
+
+    private static MatchTraceDTO trace(String target, String method, double score) {
+        return new MatchTraceDTO(null, target, method, score, null, null, null);
+    }
+}
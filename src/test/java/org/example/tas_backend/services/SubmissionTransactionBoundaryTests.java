@@ -0,0 +1,162 @@
+package org.example.tas_backend.services;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.tas_backend.configs.PipelineConfig;
+import org.example.tas_backend.dtos.MatchResponseDTO;
+import org.example.tas_backend.dtos.MatchTraceDTO;
+import org.example.tas_backend.dtos.OcrResponse;
+import org.example.tas_backend.dtos.PipelineStateDTO;
+import org.example.tas_backend.entities.Application;
+import org.example.tas_backend.entities.Document;
+import org.example.tas_backend.entities.StudentApplicant;
+import org.example.tas_backend.entities.TargetSubject;
+import org.example.tas_backend.enums.ApplicationStatus;
+import org.example.tas_backend.enums.PipelineStage;
+import org.example.tas_backend.repos.ApplicationRepo;
+import org.example.tas_backend.repos.DocumentRepo;
+import org.example.tas_backend.repos.DocumentTextRepo;
+import org.example.tas_backend.repos.StudentApplicantRepo;
+import org.example.tas_backend.repos.SubjectMappingRepo;
+import org.example.tas_backend.repos.TargetSubjectRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the OCR and matching stages against a real Hikari pool and checks that no
+ * connection is checked out while the (mocked) remote services are being called.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tas_tx;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.envers.autoRegisterListeners=false",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop",
+        "ai.ocr-url=http://mock-ocr"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ApplicationSubmitService.class, SubmissionResultWriter.class, BlobStore.class,
+        SubjectMatchingService.class, TargetCatalogService.class, LocalSubjectMatcher.class, MatchMemoCache.class, MatcherBatcher.class,
+        PipelineConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SubmissionTransactionBoundaryTests {
+
+    @Autowired private ApplicationSubmitService service;
+    @Autowired private DataSource dataSource;
+    @Autowired private StudentApplicantRepo studentRepo;
+    @Autowired private ApplicationRepo applicationRepo;
+    @Autowired private DocumentRepo documentRepo;
+    @Autowired private DocumentTextRepo documentTextRepo;
+    @Autowired private TargetSubjectRepo targetSubjectRepo;
+    @Autowired private SubjectMappingRepo subjectMappingRepo;
+
+    @MockBean private AiService aiService;
+    @MockBean private RestTemplate restTemplate;
+
+    private Application app;
+    private Document doc;
+
+    @BeforeEach
+    void seed() throws Exception {
+        StudentApplicant student = new StudentApplicant();
+        student.setKeycloakSub("tx-" + System.nanoTime());
+        student = studentRepo.save(student);
+
+        app = new Application();
+        app.setStudent(student);
+        app.setStatus(ApplicationStatus.SUBMITTED);
+        app = applicationRepo.save(app);
+
+        Path stored = Files.createTempFile("transcript", ".pdf");
+        Files.writeString(stored, "dummy");
+        doc = new Document();
+        doc.setApplication(app);
+        doc.setFilename("transcript.pdf");
+        doc.setMimeType("application/pdf");
+        doc.setStorageKey(stored.toString());
+        doc = documentRepo.save(doc);
+
+        if (targetSubjectRepo.findByCode("math.1").isEmpty()) {
+            TargetSubject target = new TargetSubject();
+            target.setCode("math.1");
+            target.setName("Math");
+            targetSubjectRepo.save(target);
+        }
+    }
+
+    @Test
+    void remoteCallsDoNotHoldAConnection() throws Exception {
+        var pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        List<Integer> activeDuringRemote = new ArrayList<>();
+        List<Boolean> txDuringRemote = new ArrayList<>();
+
+        when(restTemplate.postForEntity(eq("http://mock-ocr"), any(HttpEntity.class), eq(OcrResponse.class)))
+                .thenAnswer(inv -> {
+                    activeDuringRemote.add(pool.getActiveConnections());
+                    txDuringRemote.add(TransactionSynchronizationManager.isActualTransactionActive());
+                    return ResponseEntity.ok(new OcrResponse("transcript.pdf", "Advanced Algebra", 1, List.of("Advanced Algebra")));
+                });
+        when(aiService.matchSubjects(anyList(), any(TargetCatalogService.CatalogSnapshot.class))).thenAnswer(inv -> {
+            activeDuringRemote.add(pool.getActiveConnections());
+            txDuringRemote.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return new MatchResponseDTO(List.of("math.1"), 100.0,
+                    List.of(new MatchTraceDTO("advanced algebra", "math.1", "exact", 1.0, "Math", null, 1)));
+        });
+
+        service.saveOcr(service.runOcr(doc.getId()));
+        service.matchApplication(app.getId());
+
+        assertThat(activeDuringRemote).hasSize(2).containsOnly(0);
+        assertThat(txDuringRemote).containsOnly(false);
+        assertThat(documentRepo.findById(doc.getId()).orElseThrow().getTextPreview()).isEqualTo("Advanced Algebra");
+        assertThat(documentTextRepo.findById(doc.getId()).orElseThrow().getText()).isEqualTo("Advanced Algebra");
+        assertThat(subjectMappingRepo.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRecordPipelineStageAndSkipDocumentsWithPersistedOcr() {
+        when(restTemplate.postForEntity(eq("http://mock-ocr"), any(HttpEntity.class), eq(OcrResponse.class)))
+                .thenReturn(ResponseEntity.ok(new OcrResponse("transcript.pdf", "Physics", 1, List.of("Physics"))));
+        assertThat(service.documentIdsWithoutOcr(app.getId())).containsExactly(doc.getId());
+
+        service.recordStage(app.getId(), PipelineStage.OCR, null);
+        service.saveOcr(service.runOcr(doc.getId()));
+        // an entity flush of the application leaves the recorded stage alone
+        Application loaded = applicationRepo.findById(app.getId()).orElseThrow();
+        loaded.setPreferredProgram("CS");
+        applicationRepo.save(loaded);
+
+        assertThat(service.documentIdsWithoutOcr(app.getId())).isEmpty();
+        assertThat(service.unfinishedPipelines())
+                .contains(new PipelineStateDTO(app.getId(), app.getStudent().getKeycloakSub(), PipelineStage.OCR, null));
+
+        service.recordStage(app.getId(), PipelineStage.FAILED, "MATCHING: matcher down");
+        assertThat(service.pipelineState(app.getId()).orElseThrow().error()).isEqualTo("MATCHING: matcher down");
+        assertThat(service.requeueFailed(app.getId())).isTrue();
+        assertThat(service.requeueFailed(app.getId())).isFalse();
+        assertThat(service.pipelineState(app.getId()).orElseThrow())
+                .isEqualTo(new PipelineStateDTO(app.getId(), app.getStudent().getKeycloakSub(), PipelineStage.QUEUED, null));
+    }
+}